@@ -0,0 +1,129 @@
+package com.monitoring.bench;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with the limits in a baseline file and
+ * exits non-zero if any benchmark got slower than its limit, so CI fails on
+ * a performance regression.
+ *
+ * Each baseline line is a benchmark key and its limit, separated by
+ * whitespace. The key is the benchmark name followed by its parameters,
+ * sorted by name, e.g.
+ * {@code com.monitoring.service.IdleCalculationBenchmark.calculateContinuousIdleMinutes:logs=900,scenario=IDLE_ALL};
+ * the limit is the highest acceptable score in the benchmark's own unit (all
+ * benchmarks here measure average time, so lower is better). Results without
+ * a baseline entry are reported but don't fail the check.
+ *
+ * The limits hold on the machine they were calibrated on. The baseline's
+ * {@link #REFERENCE} line is the {@link ReferenceBenchmark} score from that
+ * calibration run; when the results include the reference too, every limit
+ * is scaled by how much slower or faster it ran here.
+ */
+public final class BaselineCheck {
+
+    static final String REFERENCE = ReferenceBenchmark.class.getName() + ".reference";
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BaselineCheck <baseline.txt> <jmh-result.json>");
+            System.exit(2);
+        }
+
+        Map<String, Double> baseline = readBaseline(Path.of(args[0]));
+        JsonNode results = JsonMapper.builder().build().readTree(Path.of(args[1]).toFile());
+
+        double scale = scale(baseline.get(REFERENCE), results);
+        List<String> regressions = new ArrayList<>();
+        int checked = 0;
+        for (JsonNode result : results) {
+            String key = key(result);
+            double score = result.get("primaryMetric").get("score").asDouble();
+            String unit = result.get("primaryMetric").get("scoreUnit").asString();
+            if (key.equals(REFERENCE)) {
+                continue;
+            }
+
+            Double limit = baseline.get(key);
+            if (limit == null) {
+                System.out.printf("NEW   %s = %.3f %s (no baseline)%n", key, score, unit);
+                continue;
+            }
+            checked++;
+            double max = limit * scale;
+            if (score > max) {
+                regressions.add(key);
+                System.out.printf("FAIL  %s = %.3f %s, limit %.3f%n", key, score, unit, max);
+            } else {
+                System.out.printf("OK    %s = %.3f %s, limit %.3f%n", key, score, unit, max);
+            }
+        }
+
+        System.out.printf("%d checked, %d over the baseline%n", checked, regressions.size());
+        if (!regressions.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This run's reference score relative to the calibration run's, or 1 if
+     * either is missing, e.g. when only some benchmarks were run.
+     */
+    private static double scale(Double calibrated, JsonNode results) {
+        for (JsonNode result : results) {
+            if (key(result).equals(REFERENCE) && calibrated != null) {
+                double score = result.get("primaryMetric").get("score").asDouble();
+                double scale = score / calibrated;
+                System.out.printf("REF   %s = %.3f, calibrated %.3f; limits scaled by %.2f%n",
+                        REFERENCE, score, calibrated, scale);
+                return scale;
+            }
+        }
+        System.out.println("REF   no reference result or baseline; limits used as calibrated");
+        return 1;
+    }
+
+    private static Map<String, Double> readBaseline(Path file) throws IOException {
+        Map<String, Double> limits = new HashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed baseline line: " + line);
+            }
+            limits.put(parts[0], Double.parseDouble(parts[1]));
+        }
+        return limits;
+    }
+
+    private static String key(JsonNode result) {
+        String benchmark = result.get("benchmark").asString();
+        JsonNode params = result.get("params");
+        if (params == null || params.isEmpty()) {
+            return benchmark;
+        }
+
+        Map<String, String> sorted = new TreeMap<>();
+        params.properties().forEach(param -> sorted.put(param.getKey(), param.getValue().asString()));
+        StringBuilder key = new StringBuilder(benchmark).append(':');
+        sorted.forEach((name, value) -> key.append(name).append('=').append(value).append(','));
+        key.setLength(key.length() - 1);
+        return key.toString();
+    }
+}
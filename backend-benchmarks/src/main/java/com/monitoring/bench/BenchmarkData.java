@@ -0,0 +1,150 @@
+package com.monitoring.bench;
+
+import com.monitoring.entity.ActivityLog;
+import com.monitoring.entity.LoginRule;
+import com.monitoring.entity.LoginRuleSchedule;
+import com.monitoring.entity.User;
+import com.monitoring.entity.WorkSession;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic entities for the benchmarks. Everything is derived from a fixed
+ * seed and a fixed reference time, never the wall clock, so two runs (or two
+ * machines) measure exactly the same work.
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 20250108L;
+
+    /** A Wednesday morning; "now" for every generated data set. */
+    public static final LocalDateTime REFERENCE_TIME = LocalDateTime.of(2025, 1, 8, 10, 30);
+
+    public static final String USER_ID = "EMP-0001";
+
+    private BenchmarkData() {
+    }
+
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    /**
+     * A rule of the given type with {@code scheduleCount} schedules, about a
+     * tenth of them inactive, in the shapes the admin UI creates.
+     */
+    public static LoginRule loginRule(LoginRule.RuleType type, int scheduleCount, Random random) {
+        LoginRule rule = new LoginRule();
+        rule.setId(1L);
+        rule.setRuleName(type.name());
+        rule.setRuleType(type);
+        if (type == LoginRule.RuleType.ALL_DAYS) {
+            return rule;
+        }
+
+        DayOfWeek[] days = DayOfWeek.values();
+        for (int i = 0; i < scheduleCount; i++) {
+            LoginRuleSchedule schedule = new LoginRuleSchedule();
+            schedule.setIsActive(random.nextInt(10) != 0);
+            switch (type) {
+                case ALL_DAYS_WITH_TIME -> {
+                    schedule.setDayOfWeek("ALL");
+                    setWindow(schedule, random);
+                }
+                case DAY_ANY_TIME -> schedule.setDayOfWeek(days[i % days.length].name());
+                default -> {
+                    schedule.setDayOfWeek(days[i % days.length].name());
+                    setWindow(schedule, random);
+                }
+            }
+            rule.addSchedule(schedule);
+        }
+        return rule;
+    }
+
+    /**
+     * Evaluation times spread over a week, so rule checks hit both matching
+     * and non-matching days and windows.
+     */
+    public static ZonedDateTime[] evaluationTimes(int count, Random random) {
+        ZonedDateTime start = REFERENCE_TIME.atZone(ZoneOffset.UTC).minusDays(3);
+        ZonedDateTime[] times = new ZonedDateTime[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = start.plusMinutes(random.nextInt(7 * 24 * 60));
+        }
+        return times;
+    }
+
+    public static User user(LoginRule rule) {
+        User user = new User();
+        user.setId(1L);
+        user.setUserId(USER_ID);
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setFirstName("Jane");
+        user.setLastName("Doe");
+        user.setJobRole("Software Engineer");
+        user.setPhoneNumber("+1 555 0100");
+        user.setLoginRule(rule);
+        return user;
+    }
+
+    /**
+     * {@code count} sessions of one user over the 90 days before
+     * {@link #REFERENCE_TIME}, most recent first. The most recent one is
+     * still active.
+     */
+    public static List<WorkSession> sessions(int count, Random random) {
+        List<WorkSession> sessions = new ArrayList<>(count);
+        long spanMinutes = 90L * 24 * 60;
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = REFERENCE_TIME.minusMinutes(spanMinutes * i / count + random.nextInt(30));
+            WorkSession session = new WorkSession();
+            session.setId(new UUID(random.nextLong(), random.nextLong()));
+            session.setUserId(USER_ID);
+            session.setTaskName("Task " + random.nextInt(50));
+            session.setEstimatedDurationMinutes(30L + random.nextInt(8) * 30);
+            session.setStartTime(start);
+            if (i == 0) {
+                session.setStatus(WorkSession.SessionStatus.ACTIVE);
+            } else {
+                session.setEndTime(start.plusMinutes(15 + random.nextInt(465)));
+                session.setStatus(WorkSession.SessionStatus.STOPPED);
+            }
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    /**
+     * Heartbeats of one session every 10 seconds up to
+     * {@link #REFERENCE_TIME}, most recent first, as the idle check reads
+     * them. The newest {@code idleCount} are IDLE, the rest ACTIVE.
+     */
+    public static List<ActivityLog> activityLogs(int count, int idleCount, Random random) {
+        UUID sessionId = new UUID(random.nextLong(), random.nextLong());
+        List<ActivityLog> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ActivityLog log = new ActivityLog();
+            log.setId((long) i);
+            log.setSessionId(sessionId);
+            log.setLoggedAt(REFERENCE_TIME.minusSeconds(10L * i));
+            log.setActivityStatus(i < idleCount ? ActivityLog.ActivityStatus.IDLE : ActivityLog.ActivityStatus.ACTIVE);
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    private static void setWindow(LoginRuleSchedule schedule, Random random) {
+        int startHour = 6 + random.nextInt(6);
+        schedule.setStartTime(LocalTime.of(startHour, random.nextBoolean() ? 0 : 30));
+        schedule.setEndTime(LocalTime.of(startHour + 4 + random.nextInt(6), 0));
+    }
+}
@@ -0,0 +1,61 @@
+package com.monitoring.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed work that doesn't touch the backend: sorting, hashing and string
+ * building over seeded data. Its score only changes with the machine and
+ * the JDK, so {@link BaselineCheck} uses it to scale the limits in
+ * baseline.txt to the runner they are checked on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReferenceBenchmark {
+
+    private long[] values;
+    private String[] words;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        values = random.longs(2048).toArray();
+        words = new String[256];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = Long.toString(random.nextLong(), 36);
+        }
+    }
+
+    @Benchmark
+    public int reference() {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        Map<String, Integer> counts = new HashMap<>();
+        StringBuilder text = new StringBuilder();
+        for (String word : words) {
+            counts.merge(word.substring(0, 2), 1, Integer::sum);
+            text.append(word).append(' ');
+        }
+        return (int) sorted[sorted.length / 2] + counts.size() + text.length();
+    }
+}
@@ -0,0 +1,38 @@
+package com.monitoring.bench;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories, so services can be
+ * benchmarked without a database. Only the methods given an answer work;
+ * anything else fails loudly, which keeps a benchmark from silently
+ * measuring a code path it doesn't set up.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * @param answers Result per method name, computed from the call's arguments
+     */
+    public static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    return switch (method.getName()) {
+                        case "toString" -> "Stub " + type.getSimpleName();
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(
+                                type.getSimpleName() + "." + method.getName() + " is not stubbed");
+                    };
+                });
+        return type.cast(stub);
+    }
+}
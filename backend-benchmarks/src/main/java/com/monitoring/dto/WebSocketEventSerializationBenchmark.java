@@ -0,0 +1,77 @@
+package com.monitoring.dto;
+
+import com.monitoring.bench.BenchmarkData;
+import com.monitoring.entity.ActivityLog;
+import com.monitoring.entity.WorkSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of {@link WebSocketEventDTO} frames as the broker sends them:
+ * a single session event, and an activity snapshot covering
+ * {@code sessions} sessions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WebSocketEventSerializationBenchmark {
+
+    @Param({ "10", "1000" })
+    public int sessions;
+
+    private JsonMapper jsonMapper;
+    private WebSocketEventDTO sessionEvent;
+    private WebSocketEventDTO snapshotEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        jsonMapper = JsonMapper.builder().build();
+
+        List<WorkSession> data = BenchmarkData.sessions(sessions, random);
+        SessionResponse session = SessionResponse.from(data.get(0));
+        session.setFirstName("Jane");
+        session.setLastName("Doe");
+        session.setJobRole("Software Engineer");
+        sessionEvent = WebSocketEventDTO.of(WebSocketEventDTO.EventType.SESSION_CREATED, session);
+
+        ActivityLog.ActivityStatus[] statuses = ActivityLog.ActivityStatus.values();
+        Map<UUID, ActivityLog.ActivityStatus> snapshot = new LinkedHashMap<>();
+        for (WorkSession workSession : data) {
+            snapshot.put(workSession.getId(), statuses[random.nextInt(statuses.length)]);
+        }
+        snapshotEvent = WebSocketEventDTO.of(WebSocketEventDTO.EventType.ACTIVITY_SNAPSHOT,
+                new ActivitySnapshot(1, BenchmarkData.REFERENCE_TIME, snapshot));
+    }
+
+    @Benchmark
+    public byte[] sessionEvent() {
+        return jsonMapper.writeValueAsBytes(sessionEvent);
+    }
+
+    @Benchmark
+    public byte[] activitySnapshot() {
+        return jsonMapper.writeValueAsBytes(snapshotEvent);
+    }
+}
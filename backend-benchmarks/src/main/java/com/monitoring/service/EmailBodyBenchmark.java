@@ -0,0 +1,52 @@
+package com.monitoring.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the HTML bodies of the idle warning and auto-stop emails; one is
+ * built per session crossing a threshold in an idle sweep. Gmail is not
+ * involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmailBodyBenchmark {
+
+    private EmailService emailService;
+    private UUID sessionId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        emailService = new EmailService(null, new SimpleMeterRegistry());
+        sessionId = new UUID(0x1234_5678_9abc_def0L, 0x0fed_cba9_8765_4321L);
+    }
+
+    @Benchmark
+    public String idleWarningBody() {
+        return emailService.buildIdleWarningEmailBody(sessionId, "EMP-0001", "Jane", "Doe",
+                "Software Engineer", 30);
+    }
+
+    @Benchmark
+    public String autoStopBody() {
+        return emailService.buildAutoStopEmailBody(sessionId, "EMP-0001", "Jane", "Doe",
+                "Software Engineer", 60);
+    }
+}
@@ -0,0 +1,72 @@
+package com.monitoring.service;
+
+import com.monitoring.bench.BenchmarkData;
+import com.monitoring.bench.Stubs;
+import com.monitoring.dto.EmployeeStatsDTO;
+import com.monitoring.entity.LoginRule;
+import com.monitoring.entity.User;
+import com.monitoring.entity.WorkSession;
+import com.monitoring.repository.SessionRepository;
+import com.monitoring.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SessionService#getEmployeeStats} over a user's sessions from the
+ * last 90 days: mapping to responses plus the duration and working-day
+ * aggregation. Repositories are in-memory stubs returning pre-generated
+ * sessions, so only the service's own work is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmployeeStatsBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int sessions;
+
+    private SessionService sessionService;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        List<WorkSession> data = BenchmarkData.sessions(sessions, random);
+        User user = BenchmarkData.user(BenchmarkData.loginRule(LoginRule.RuleType.CUSTOM, 7, random));
+
+        SessionRepository sessionRepository = Stubs.repository(SessionRepository.class,
+                Map.of("findByUserIdAndStartTimeBetweenOrderByStartTimeDesc", args -> data));
+        UserRepository userRepository = Stubs.repository(UserRepository.class,
+                Map.of("findByUserId", args -> Optional.of(user)));
+        sessionService = new SessionService(sessionRepository, userRepository, null, null, null, null, null);
+
+        to = BenchmarkData.REFERENCE_TIME.toLocalDate();
+        from = to.minusDays(90);
+    }
+
+    @Benchmark
+    public EmployeeStatsDTO getEmployeeStats() {
+        return sessionService.getEmployeeStats(BenchmarkData.USER_ID, from, to);
+    }
+}
@@ -0,0 +1,65 @@
+package com.monitoring.service;
+
+import com.monitoring.bench.BenchmarkData;
+import com.monitoring.entity.ActivityLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IdleMonitoringService#calculateContinuousIdleMinutes}, run for every
+ * active session on each idle sweep, over the 15-minute window it reads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IdleCalculationBenchmark {
+
+    /**
+     * Heartbeats in the window: 15 minutes at a 30 s, 10 s and 1 s interval.
+     */
+    @Param({ "30", "90", "900" })
+    public int logs;
+
+    /**
+     * Where the most recent ACTIVE heartbeat is: the newest entry, halfway
+     * back, or nowhere (the whole window is IDLE, the worst case).
+     */
+    @Param({ "ACTIVE_NOW", "IDLE_HALF", "IDLE_ALL" })
+    public String scenario;
+
+    private List<ActivityLog> window;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int idle = switch (scenario) {
+            case "ACTIVE_NOW" -> 0;
+            case "IDLE_HALF" -> logs / 2;
+            default -> logs;
+        };
+        window = BenchmarkData.activityLogs(logs, idle, BenchmarkData.random());
+        now = BenchmarkData.REFERENCE_TIME;
+    }
+
+    @Benchmark
+    public int calculateContinuousIdleMinutes() {
+        return IdleMonitoringService.calculateContinuousIdleMinutes(window, now);
+    }
+}
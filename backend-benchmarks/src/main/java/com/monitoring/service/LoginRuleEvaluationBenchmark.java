@@ -0,0 +1,60 @@
+package com.monitoring.service;
+
+import com.monitoring.bench.BenchmarkData;
+import com.monitoring.entity.LoginRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link LoginRuleService#evaluateRule}, run on every session start,
+ * for each rule type. Each call evaluates the next of 1024 times spread over
+ * a week, so matching and non-matching checks are mixed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoginRuleEvaluationBenchmark {
+
+    @Param
+    public LoginRule.RuleType ruleType;
+
+    // A weekday rule has one schedule per day; larger rules split days into shifts
+    @Param({ "7", "28" })
+    public int schedules;
+
+    private LoginRuleService loginRuleService;
+    private LoginRule rule;
+    private ZonedDateTime[] times;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        loginRuleService = new LoginRuleService(null, null, null, null);
+        rule = BenchmarkData.loginRule(ruleType, schedules, random);
+        times = BenchmarkData.evaluationTimes(1024, random);
+    }
+
+    @Benchmark
+    public boolean evaluateRule() {
+        ZonedDateTime now = times[next++ & (times.length - 1)];
+        return loginRuleService.evaluateRule(rule, now);
+    }
+}
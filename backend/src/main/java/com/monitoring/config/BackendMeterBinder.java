@@ -0,0 +1,76 @@
+package com.monitoring.config;
+
+import com.monitoring.service.PasswordHashingService;
+import com.monitoring.service.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the load figures the backend already keeps for its admin
+ * endpoints (bulkheads, WebSocket send queues, the password hashing pool,
+ * virtual thread pinning) as meters, read at scrape time.
+ */
+@Component
+@RequiredArgsConstructor
+public class BackendMeterBinder implements MeterBinder {
+
+    private final BulkheadFilter bulkheadFilter;
+    private final OutboundBackpressure outboundBackpressure;
+    private final PasswordHashingService passwordHashingService;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Bulkhead bulkhead : bulkheadFilter.getBulkheads()) {
+            String name = bulkhead.getName();
+            Gauge.builder("monitoring.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .description("Requests running in the bulkhead")
+                    .tag("bulkhead", name).register(registry);
+            Gauge.builder("monitoring.bulkhead.max.concurrent", bulkhead, Bulkhead::getMaxConcurrent)
+                    .tag("bulkhead", name).register(registry);
+            Gauge.builder("monitoring.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                    .description("Requests waiting to enter the bulkhead")
+                    .tag("bulkhead", name).register(registry);
+            FunctionCounter.builder("monitoring.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                    .description("Requests answered 429 by the bulkhead")
+                    .tag("bulkhead", name).register(registry);
+            Gauge.builder("monitoring.bulkhead.connections.active", bulkhead, Bulkhead::getConnectionsInUse)
+                    .description("Pool connections held by the bulkhead's requests")
+                    .tag("bulkhead", name).register(registry);
+            Gauge.builder("monitoring.bulkhead.connections.max", bulkhead, Bulkhead::getDbConnections)
+                    .tag("bulkhead", name).register(registry);
+        }
+
+        Gauge.builder("monitoring.websocket.queued", outboundBackpressure, OutboundBackpressure::getQueuedBytes)
+                .description("Bytes waiting in WebSocket send queues")
+                .baseUnit(BaseUnits.BYTES).register(registry);
+        FunctionCounter.builder("monitoring.websocket.sessions.evicted", outboundBackpressure,
+                        OutboundBackpressure::getEvictedSessions)
+                .description("WebSocket sessions closed for falling behind")
+                .register(registry);
+
+        Gauge.builder("monitoring.auth.hashing.queued", passwordHashingService, PasswordHashingService::getQueueDepth)
+                .description("Password hashes waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("monitoring.auth.hashing.active", passwordHashingService,
+                        PasswordHashingService::getActiveCount)
+                .register(registry);
+        FunctionCounter.builder("monitoring.auth.hashing.completed", passwordHashingService,
+                        PasswordHashingService::getCompletedCount)
+                .register(registry);
+        FunctionCounter.builder("monitoring.auth.hashing.rejected", passwordHashingService,
+                        PasswordHashingService::getRejectedCount)
+                .description("Hashes refused because the pool was saturated")
+                .register(registry);
+
+        FunctionCounter.builder("monitoring.threads.virtual.pinned", pinningMonitor,
+                        VirtualThreadPinningMonitor::getPinnedEvents)
+                .description("Virtual threads pinned to their carrier over the threshold")
+                .register(registry);
+    }
+}
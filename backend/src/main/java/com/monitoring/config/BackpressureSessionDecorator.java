@@ -0,0 +1,225 @@
+package com.monitoring.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Per-session send queue between the STOMP handler and the network.
+ *
+ * {@link #sendMessage} only enqueues, so outbound channel threads never wait on
+ * a client's socket; a drainer task on {@code executor} writes frames one at a
+ * time. When the queue exceeds its byte limit the oldest droppable frames
+ * (per-session activity updates, whose changes the snapshots also carry) go
+ * first; snapshots are never dropped. If that isn't enough, or a single write
+ * takes longer than the send time limit, the session is closed with
+ * {@link CloseStatus#SESSION_NOT_RELIABLE}.
+ */
+@Slf4j
+class BackpressureSessionDecorator extends WebSocketSessionDecorator {
+
+    // The destination header comes before the body, well within this
+    private static final int HEADER_SCAN_CHARS = 512;
+
+    private final Executor executor;
+    private final long maxQueuedBytes;
+    private final String droppablePrefix;
+    private final Runnable onEvicted;
+    private final Consumer<String> onDropped;
+
+    // Guarded by this
+    private final Deque<Frame> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private long droppedFrames;
+    private boolean draining;
+
+    private volatile long sendStartedNanos;
+    private volatile boolean evicted;
+
+    BackpressureSessionDecorator(WebSocketSession session, Executor executor, long maxQueuedBytes,
+            String droppablePrefix, Runnable onEvicted, Consumer<String> onDropped) {
+        super(session);
+        this.executor = executor;
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.droppablePrefix = droppablePrefix;
+        this.onEvicted = onEvicted;
+        this.onDropped = onDropped;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        if (evicted) {
+            return;
+        }
+        Frame frame = new Frame(message, message.getPayloadLength(), droppableDestination(message));
+        boolean overflow;
+        List<String> dropped = null;
+        synchronized (this) {
+            queue.addLast(frame);
+            queuedBytes += frame.bytes();
+            while (queuedBytes > maxQueuedBytes) {
+                Frame oldest = dropOldestDroppable();
+                if (oldest == null) {
+                    break;
+                }
+                droppedFrames++;
+                if (dropped == null) {
+                    dropped = new ArrayList<>();
+                }
+                dropped.add(oldest.droppableDestination());
+            }
+            overflow = queuedBytes > maxQueuedBytes;
+            if (!overflow && !draining) {
+                draining = true;
+                executor.execute(this::drain);
+            }
+        }
+        if (dropped != null) {
+            dropped.forEach(onDropped);
+        }
+        if (overflow) {
+            evict("send buffer over " + maxQueuedBytes + " bytes");
+        }
+    }
+
+    /**
+     * Called periodically; evicts the session if the current write has been
+     * blocked for longer than {@code sendTimeLimitNanos}.
+     */
+    void checkSendTime(long nowNanos, long sendTimeLimitNanos) {
+        long started = sendStartedNanos;
+        if (started != 0 && nowNanos - started > sendTimeLimitNanos) {
+            evict("send blocked for over " + sendTimeLimitNanos / 1_000_000 + " ms");
+        }
+    }
+
+    synchronized long getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    synchronized int getQueuedFrames() {
+        return queue.size();
+    }
+
+    synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        discardQueue();
+        super.close(status);
+    }
+
+    private void drain() {
+        while (true) {
+            Frame frame;
+            synchronized (this) {
+                frame = queue.pollFirst();
+                if (frame == null || evicted) {
+                    draining = false;
+                    return;
+                }
+            }
+            sendStartedNanos = System.nanoTime();
+            try {
+                getDelegate().sendMessage(frame.message());
+            } catch (IOException | RuntimeException e) {
+                log.debug("WebSocket send to {} failed: {}", getId(), e.getMessage());
+                evict("send failed");
+            } finally {
+                sendStartedNanos = 0;
+                synchronized (this) {
+                    queuedBytes -= frame.bytes();
+                }
+            }
+        }
+    }
+
+    private void evict(String reason) {
+        synchronized (this) {
+            if (evicted) {
+                return;
+            }
+            evicted = true;
+        }
+        log.warn("Closing slow WebSocket session {}: {}", getId(), reason);
+        discardQueue();
+        onEvicted.run();
+        // Closing may block on the same socket, so not on the caller's thread
+        executor.execute(() -> {
+            try {
+                getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.debug("Failed to close WebSocket session {}", getId(), e);
+            }
+        });
+    }
+
+    private synchronized void discardQueue() {
+        for (Frame frame : queue) {
+            queuedBytes -= frame.bytes();
+        }
+        queue.clear();
+    }
+
+    private Frame dropOldestDroppable() {
+        Iterator<Frame> frames = queue.iterator();
+        while (frames.hasNext()) {
+            Frame frame = frames.next();
+            if (frame.droppableDestination() != null) {
+                frames.remove();
+                queuedBytes -= frame.bytes();
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The destination of a STOMP MESSAGE frame whose destination header starts
+     * with the droppable prefix, or null for frames that must be delivered.
+     * Only the headers are inspected.
+     */
+    private String droppableDestination(WebSocketMessage<?> message) {
+        String head;
+        if (message instanceof TextMessage text) {
+            String payload = text.getPayload();
+            head = payload.substring(0, Math.min(payload.length(), HEADER_SCAN_CHARS));
+        } else if (message instanceof BinaryMessage binary) {
+            var buffer = binary.getPayload().duplicate();
+            byte[] bytes = new byte[Math.min(buffer.remaining(), HEADER_SCAN_CHARS)];
+            buffer.get(bytes);
+            head = new String(bytes, StandardCharsets.ISO_8859_1);
+        } else {
+            return null;
+        }
+        if (!head.startsWith("MESSAGE\n")) {
+            return null;
+        }
+        int start = head.indexOf("\ndestination:" + droppablePrefix);
+        if (start < 0) {
+            return null;
+        }
+        start += "\ndestination:".length();
+        int end = head.indexOf('\n', start);
+        return end < 0 ? head.substring(start) : head.substring(start, end);
+    }
+
+    private record Frame(WebSocketMessage<?> message, int bytes, String droppableDestination) {
+    }
+}
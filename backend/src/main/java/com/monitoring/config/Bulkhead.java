@@ -0,0 +1,133 @@
+package com.monitoring.config;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Isolated capacity for one class of requests: a limit on concurrent calls,
+ * a bounded wait queue in front of it, and a quota of database connections.
+ *
+ * Requests past the queue (or that wait longer than the queue timeout) are
+ * rejected so the caller can shed them. The request's bulkhead is bound to
+ * the handling thread, which lets {@link BulkheadDataSource} charge
+ * connections to it.
+ */
+public class Bulkhead {
+
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long queueTimeoutMillis;
+    private final int dbConnections;
+    private final long connectionTimeoutMillis;
+    private final int retryAfterSeconds;
+
+    private final Semaphore calls;
+    private final Semaphore connections;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueued, long queueTimeoutMillis, int dbConnections,
+            long connectionTimeoutMillis, int retryAfterSeconds) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.dbConnections = dbConnections;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.calls = new Semaphore(maxConcurrent, true);
+        this.connections = new Semaphore(dbConnections, true);
+    }
+
+    /**
+     * Bulkhead of the request being handled on this thread, if any.
+     */
+    public static Bulkhead current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Takes a call slot, waiting in the queue if all are busy. On success the
+     * bulkhead is bound to this thread until {@link #exit()}.
+     *
+     * @return false if the queue is full or the wait timed out
+     */
+    public boolean tryEnter() throws InterruptedException {
+        if (!calls.tryAcquire()) {
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+            try {
+                if (!calls.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    rejected.increment();
+                    return false;
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+        CURRENT.set(this);
+        return true;
+    }
+
+    public void exit() {
+        CURRENT.remove();
+        calls.release();
+    }
+
+    void acquireConnection() throws SQLTransientConnectionException {
+        try {
+            if (connections.tryAcquire(connectionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new SQLTransientConnectionException("No database connection available for " + name
+                + " requests within " + connectionTimeoutMillis + " ms (quota " + dbConnections + ")");
+    }
+
+    void releaseConnection() {
+        connections.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - calls.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public int getDbConnections() {
+        return dbConnections;
+    }
+
+    public int getConnectionsInUse() {
+        return dbConnections - connections.availablePermits();
+    }
+}
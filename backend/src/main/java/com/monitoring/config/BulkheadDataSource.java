@@ -0,0 +1,89 @@
+package com.monitoring.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Charges JDBC connections taken while handling a request to that request's
+ * {@link Bulkhead}, so each traffic class is held to its own share of the
+ * pool: uploads waiting for a connection can't starve heartbeats of theirs.
+ * Connections taken outside a request (scheduled jobs, startup) are not
+ * limited beyond the pool itself.
+ */
+public class BulkheadDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public BulkheadDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Closes the pool on shutdown; Spring infers the destroy method from this
+     * wrapper rather than the pool it replaced.
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return charge(Bulkhead.current(), null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return charge(Bulkhead.current(), username, password);
+    }
+
+    private Connection charge(Bulkhead bulkhead, String username, String password) throws SQLException {
+        if (bulkhead == null) {
+            return username == null ? super.getConnection() : super.getConnection(username, password);
+        }
+
+        bulkhead.acquireConnection();
+        Connection connection;
+        try {
+            connection = username == null ? super.getConnection() : super.getConnection(username, password);
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.releaseConnection();
+            throw e;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        bulkhead.releaseConnection();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    /**
+     * Wraps the application's DataSource once it is created.
+     */
+    @Component
+    static class Wrapper implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                return new BulkheadDataSource(dataSource);
+            }
+            return bean;
+        }
+    }
+}
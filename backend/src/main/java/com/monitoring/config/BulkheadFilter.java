@@ -0,0 +1,112 @@
+package com.monitoring.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Routes each API request through the bulkhead for its traffic class, so
+ * screenshot uploads and admin reads can't take the capacity heartbeats need:
+ * <ul>
+ * <li>heartbeat - {@code POST /api/activity[/batch]}; drives idle detection,
+ * so it gets generous limits and a long queue</li>
+ * <li>upload - {@code POST /api/screenshots}; expensive, shed first</li>
+ * <li>admin - everything else under {@code /api}</li>
+ * </ul>
+ * Rejected requests get 429 with Retry-After; agents keep the data in their
+ * outbox and retry. Limits are under {@code monitoring.bulkhead.<name>}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Bulkhead heartbeat;
+    private final Bulkhead upload;
+    private final Bulkhead admin;
+
+    public BulkheadFilter(Environment environment) {
+        this.heartbeat = bulkhead(environment, "heartbeat", 64, 512, 2_000, 8, 5);
+        this.upload = bulkhead(environment, "upload", 8, 16, 1_000, 4, 30);
+        this.admin = bulkhead(environment, "admin", 32, 64, 5_000, 8, 5);
+    }
+
+    public List<Bulkhead> getBulkheads() {
+        return List.of(heartbeat, upload, admin);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        // WebSocket/SockJS traffic has its own limits; CORS preflights are free
+        return !path.startsWith("/api/") || path.startsWith("/api/ws")
+                || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Bulkhead bulkhead = select(request);
+        boolean entered;
+        try {
+            entered = bulkhead.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            log.warn("Shedding {} {} ({} bulkhead full)", request.getMethod(), request.getRequestURI(),
+                    bulkhead.getName());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(bulkhead.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Server busy, retry in "
+                    + bulkhead.getRetryAfterSeconds() + " seconds\"}");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    private Bulkhead select(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if ("POST".equals(request.getMethod())) {
+            if (path.equals("/api/activity") || path.equals("/api/activity/batch")) {
+                return heartbeat;
+            }
+            if (path.equals("/api/screenshots")) {
+                return upload;
+            }
+        }
+        return admin;
+    }
+
+    private static Bulkhead bulkhead(Environment environment, String name, int maxConcurrent, int maxQueued,
+            long queueTimeoutMillis, int dbConnections, int retryAfterSeconds) {
+        String prefix = "monitoring.bulkhead." + name + ".";
+        return new Bulkhead(name,
+                environment.getProperty(prefix + "max-concurrent", Integer.class, maxConcurrent),
+                environment.getProperty(prefix + "max-queued", Integer.class, maxQueued),
+                environment.getProperty(prefix + "queue-timeout-ms", Long.class, queueTimeoutMillis),
+                environment.getProperty(prefix + "db-connections", Integer.class, dbConnections),
+                environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 5_000L),
+                environment.getProperty(prefix + "retry-after-seconds", Integer.class, retryAfterSeconds));
+    }
+}
@@ -0,0 +1,94 @@
+package com.monitoring.config;
+
+import com.monitoring.dto.AuthenticatedUser;
+import com.monitoring.service.AgentControlService;
+import com.monitoring.service.SessionTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps each user's control destination ({@code /topic/control/{userId}})
+ * to that user's agent. The agent sends its session token as an
+ * {@code Authorization: Bearer} header on the STOMP CONNECT frame; the
+ * verified caller is kept with the WebSocket session, and a SUBSCRIBE to
+ * another user's control destination, or without a valid token, is
+ * refused with an ERROR frame.
+ *
+ * The fleet-wide {@code /topic/control} and all other topics can be
+ * subscribed to without a token, so dashboards connect as before.
+ *
+ * Clients may not SEND to broker destinations ({@code /topic/...}) at all:
+ * the broker would deliver the frame to every subscriber, so anyone could
+ * forge a CONFIG_UPDATED or SESSION_STOPPED message. Only the server
+ * publishes there.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ControlSubscriptionInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER = "Bearer ";
+    private static final String USER_DESTINATION_PREFIX = AgentControlService.CONTROL_DESTINATION + "/";
+    private static final String BROKER_PREFIX = "/topic";
+
+    private final SessionTokenService sessionTokenService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            String header = accessor.getFirstNativeHeader("Authorization");
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            if (header != null && header.startsWith(BEARER) && attributes != null) {
+                sessionTokenService.verify(header.substring(BEARER.length()).trim())
+                        .ifPresent(user -> attributes.put(AuthenticatedUser.ATTRIBUTE, user));
+            }
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith(USER_DESTINATION_PREFIX)) {
+                String userId = destination.substring(USER_DESTINATION_PREFIX.length());
+                Optional<AuthenticatedUser> user = authenticatedUser(accessor);
+                if (user.isEmpty() || !user.get().userId().equals(userId)) {
+                    log.warn("Refused subscription to {} from WebSocket session {}", destination,
+                            accessor.getSessionId());
+                    throw new MessageDeliveryException("Not allowed to subscribe to " + destination);
+                }
+            }
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            String destination = accessor.getDestination();
+            if (destination != null
+                    && (destination.equals(BROKER_PREFIX) || destination.startsWith(BROKER_PREFIX + "/"))) {
+                log.warn("Refused SEND to {} from WebSocket session {}", destination, accessor.getSessionId());
+                throw new MessageDeliveryException("Not allowed to send to " + destination);
+            }
+        }
+        return message;
+    }
+
+    private static Optional<AuthenticatedUser> authenticatedUser(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes == null || !(attributes.get(AuthenticatedUser.ATTRIBUTE) instanceof AuthenticatedUser user)) {
+            return Optional.empty();
+        }
+        // The token may have expired since CONNECT; the agent reconnects with a fresh one
+        if (user.expiresAtMillis() <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(user);
+    }
+}
@@ -0,0 +1,238 @@
+package com.monitoring.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets each STOMP subscription pick a more compact encoding for event frames
+ * via an {@code encoding} header on SUBSCRIBE:
+ * <ul>
+ * <li>{@code json} (default) - frames as published</li>
+ * <li>{@code compact-json} - JSON with short keys (see {@link #SHORT_KEYS})
+ * and null fields removed</li>
+ * <li>{@code cbor} - the compact-json tree as CBOR in a binary frame; needs a
+ * plain WebSocket connection ({@code /api/ws/native}), SockJS can't carry
+ * binary</li>
+ * </ul>
+ *
+ * Registered on both client channels: inbound to record each subscription's
+ * choice, outbound to re-encode MESSAGE frames. Every subscriber of a
+ * destination gets the same event, so recent encodings are cached by
+ * destination and payload content, and each event is converted once per
+ * encoding rather than once per subscriber. Keying on content rather than
+ * the payload array works with the broker relay too, which decodes a
+ * separate copy of the event for each subscription.
+ */
+@Component
+@Slf4j
+public class FrameEncodingInterceptor implements ChannelInterceptor {
+
+    public static final String ENCODING_HEADER = "encoding";
+
+    // Events in flight at once; a fan-out finishes long before its entry is evicted
+    private static final int CACHE_SIZE = 256;
+
+    /**
+     * Long field name to short key. Keys not listed are kept as they are.
+     */
+    public static final Map<String, String> SHORT_KEYS = Map.ofEntries(
+            Map.entry("eventType", "t"),
+            Map.entry("payload", "p"),
+            Map.entry("sessionId", "sid"),
+            Map.entry("userId", "uid"),
+            Map.entry("firstName", "fn"),
+            Map.entry("lastName", "ln"),
+            Map.entry("jobRole", "jr"),
+            Map.entry("startTime", "st"),
+            Map.entry("endTime", "et"),
+            Map.entry("status", "s"),
+            Map.entry("taskName", "tn"),
+            Map.entry("estimatedDurationMinutes", "edm"),
+            Map.entry("activityStatus", "as"),
+            Map.entry("loggedAt", "at"),
+            Map.entry("metadata", "md"),
+            Map.entry("version", "v"),
+            Map.entry("type", "ty"),
+            Map.entry("entry", "e"),
+            Map.entry("lastHeartbeat", "hb"),
+            Map.entry("statuses", "ss"),
+            Map.entry("generatedAt", "ga"),
+            Map.entry("tick", "tk"),
+            Map.entry("capturedAt", "ca"),
+            Map.entry("fileName", "f"),
+            Map.entry("filePath", "fp"));
+
+    enum Encoding {
+        JSON,
+        COMPACT_JSON,
+        CBOR;
+
+        static Encoding parse(String value) {
+            if (value == null) {
+                return JSON;
+            }
+            return switch (value.trim().toLowerCase()) {
+                case "compact-json" -> COMPACT_JSON;
+                case "cbor" -> CBOR;
+                default -> JSON;
+            };
+        }
+    }
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+
+    // WebSocket session id -> subscription id -> encoding (JSON is not stored)
+    private final Map<String, Map<String, Encoding>> subscriptions = new ConcurrentHashMap<>();
+
+    // Least recently used first. Guarded by itself.
+    private final Map<CacheKey, CachedEncodings> encoded = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedEncodings> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type == null) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+
+        switch (type) {
+            case SUBSCRIBE -> {
+                Encoding encoding = Encoding.parse(
+                        StompHeaderAccessor.wrap(message).getFirstNativeHeader(ENCODING_HEADER));
+                if (encoding != Encoding.JSON && sessionId != null && subscriptionId != null) {
+                    subscriptions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                            .put(subscriptionId, encoding);
+                }
+            }
+            case UNSUBSCRIBE -> {
+                Map<String, Encoding> sessionSubscriptions = sessionId != null ? subscriptions.get(sessionId) : null;
+                if (sessionSubscriptions != null && subscriptionId != null) {
+                    sessionSubscriptions.remove(subscriptionId);
+                }
+            }
+            case DISCONNECT -> {
+                if (sessionId != null) {
+                    subscriptions.remove(sessionId);
+                }
+            }
+            case MESSAGE -> {
+                return encode(message, sessionId, subscriptionId);
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private Message<?> encode(Message<?> message, String sessionId, String subscriptionId) {
+        Map<String, Encoding> sessionSubscriptions = sessionId != null ? subscriptions.get(sessionId) : null;
+        Encoding encoding = sessionSubscriptions != null && subscriptionId != null
+                ? sessionSubscriptions.get(subscriptionId)
+                : null;
+        if (encoding == null || !(message.getPayload() instanceof byte[] payload) || payload.length == 0) {
+            return message;
+        }
+
+        byte[] body;
+        try {
+            body = encodedPayload(SimpMessageHeaderAccessor.getDestination(message.getHeaders()), payload, encoding);
+        } catch (JacksonException e) {
+            // Not a JSON event (e.g. a plain string); send it unchanged
+            log.debug("Sending frame to session {} without re-encoding: {}", sessionId, e.getOriginalMessage());
+            return message;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(ENCODING_HEADER, encoding == Encoding.CBOR ? "cbor" : "compact-json");
+        // octet-stream makes the STOMP handler send a binary WebSocket frame
+        accessor.setContentType(encoding == Encoding.CBOR
+                ? MimeTypeUtils.APPLICATION_OCTET_STREAM
+                : MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+
+    private byte[] encodedPayload(String destination, byte[] payload, Encoding encoding) {
+        CacheKey key = new CacheKey(destination, Arrays.hashCode(payload), payload.length);
+        synchronized (encoded) {
+            CachedEncodings forPayload = encoded.get(key);
+            byte[] cached = forPayload != null && forPayload.matches(payload) ? forPayload.bodies().get(encoding) : null;
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        JsonNode compact = shorten(jsonMapper.readTree(payload));
+        byte[] body = encoding == Encoding.CBOR
+                ? cborMapper.writeValueAsBytes(compact)
+                : jsonMapper.writeValueAsBytes(compact);
+
+        // Concurrent subscribers may both encode the first time; either result is fine
+        synchronized (encoded) {
+            CachedEncodings forPayload = encoded.get(key);
+            if (forPayload == null || !forPayload.matches(payload)) {
+                forPayload = new CachedEncodings(payload, new EnumMap<>(Encoding.class));
+                encoded.put(key, forPayload);
+            }
+            forPayload.bodies().put(encoding, body);
+        }
+        return body;
+    }
+
+    private JsonNode shorten(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            ObjectNode result = jsonMapper.createObjectNode();
+            for (Map.Entry<String, JsonNode> field : object.properties()) {
+                if (!field.getValue().isNull()) {
+                    result.set(SHORT_KEYS.getOrDefault(field.getKey(), field.getKey()), shorten(field.getValue()));
+                }
+            }
+            return result;
+        }
+        if (node instanceof ArrayNode array) {
+            ArrayNode result = jsonMapper.createArrayNode();
+            for (JsonNode element : array) {
+                result.add(shorten(element));
+            }
+            return result;
+        }
+        return node;
+    }
+
+    private record CacheKey(String destination, int payloadHash, int payloadLength) {
+    }
+
+    private record CachedEncodings(byte[] payload, Map<Encoding, byte[]> bodies) {
+
+        // Guards against hash collisions; usually the very same array
+        boolean matches(byte[] other) {
+            return payload == other || Arrays.equals(payload, other);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.monitoring.config;
+
+import com.monitoring.dto.WebSocketSessionStats;
+import com.monitoring.service.ActivityEventCoalescer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gives every WebSocket session its own bounded send queue
+ * ({@link BackpressureSessionDecorator}), so one client on a bad network can't
+ * hold up delivery to the others, and tracks queue sizes for monitoring.
+ *
+ * Queues are drained on virtual threads: a write blocked on a slow socket only
+ * parks its own drainer. A watchdog closes sessions whose current write has
+ * exceeded the send time limit, without waiting for the next frame to notice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboundBackpressure implements DisposableBean {
+
+    private final WebSocketMetrics webSocketMetrics;
+
+    private final ExecutorService drainers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ws-send-", 0).factory());
+
+    private final Map<String, BackpressureSessionDecorator> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong evictedSessions = new AtomicLong();
+
+    @Value("${monitoring.websocket.transport.send-buffer-size-limit:524288}")
+    private long maxQueuedBytes;
+
+    @Value("${monitoring.websocket.transport.send-time-limit-ms:15000}")
+    private long sendTimeLimitMillis;
+
+    /**
+     * Wraps the STOMP handler so each new session gets a send queue. Spring's
+     * own concurrent decorator still sits on top, but never has to buffer
+     * because sends to the queue return immediately.
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                BackpressureSessionDecorator queued = new BackpressureSessionDecorator(session, drainers,
+                        // Only per-session frames; a snapshot carries changes no later frame repeats
+                        maxQueuedBytes, ActivityEventCoalescer.ACTIVITY_DESTINATION + "/",
+                        evictedSessions::incrementAndGet,
+                        destination -> webSocketMetrics.frameDropped(destination, WebSocketMetrics.BACKPRESSURE));
+                sessions.put(session.getId(), queued);
+                super.afterConnectionEstablished(queued);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void checkSendTimes() {
+        long now = System.nanoTime();
+        long limitNanos = sendTimeLimitMillis * 1_000_000;
+        for (BackpressureSessionDecorator session : sessions.values()) {
+            session.checkSendTime(now, limitNanos);
+        }
+    }
+
+    public List<WebSocketSessionStats> getSessionStats() {
+        return sessions.values().stream()
+                .map(session -> new WebSocketSessionStats(session.getId(), session.getQueuedBytes(),
+                        session.getQueuedFrames(), session.getDroppedFrames()))
+                .toList();
+    }
+
+    public long getQueuedBytes() {
+        return sessions.values().stream().mapToLong(BackpressureSessionDecorator::getQueuedBytes).sum();
+    }
+
+    public long getEvictedSessions() {
+        return evictedSessions.get();
+    }
+
+    @Override
+    public void destroy() {
+        drainers.shutdownNow();
+    }
+}
@@ -0,0 +1,93 @@
+package com.monitoring.config;
+
+import com.monitoring.dto.AuthenticatedUser;
+import com.monitoring.service.SessionTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Resolves the caller from the {@code Authorization: Bearer} session token
+ * and exposes it as the {@link AuthenticatedUser#ATTRIBUTE} request
+ * attribute. Verification is an HMAC check; no database access.
+ *
+ * A request with an invalid, expired or revoked token gets 401. Requests
+ * without a token pass through unless {@code monitoring.auth.token.required}
+ * is set, in which case the agent endpoints (session start, heartbeats,
+ * screenshot uploads, {@code /api/employees/me}) reject them too. Runs
+ * before the bulkheads, so forged requests never take a slot.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final SessionTokenService sessionTokenService;
+    private final boolean required;
+
+    public SessionTokenFilter(SessionTokenService sessionTokenService,
+            @Value("${monitoring.auth.token.required:false}") boolean required) {
+        this.sessionTokenService = sessionTokenService;
+        this.required = required;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        // Login and re-authentication must work with a stale token still configured
+        return !path.startsWith("/api/") || path.startsWith("/api/ws") || path.startsWith("/api/auth/")
+                || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            if (required && isAgentEndpoint(request)) {
+                unauthorized(response, "Session token required");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<AuthenticatedUser> user = sessionTokenService.verify(header.substring(BEARER.length()).trim());
+        if (user.isEmpty()) {
+            unauthorized(response, "Invalid or expired session token");
+            return;
+        }
+        request.setAttribute(AuthenticatedUser.ATTRIBUTE, user.get());
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isAgentEndpoint(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/employees/me/")) {
+            return true;
+        }
+        return "POST".equals(request.getMethod()) && (path.equals("/api/sessions/start")
+                || path.equals("/api/activity") || path.equals("/api/activity/batch")
+                || path.equals("/api/screenshots"));
+    }
+
+    private static void unauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
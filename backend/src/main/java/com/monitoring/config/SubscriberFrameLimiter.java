@@ -0,0 +1,96 @@
+package com.monitoring.config;
+
+import com.monitoring.service.ActivityEventCoalescer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps how many activity frames each WebSocket session receives per second.
+ *
+ * Applied on the client outbound channel, after the broker has fanned a message
+ * out to its subscribers, so every session gets its own token bucket. Only
+ * per-session frames under {@code /topic/activity/} are limited: they are
+ * superseded by the next snapshot, so a dropped one costs at most one tick of
+ * staleness. Snapshots themselves, and session and employee events, always
+ * pass.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriberFrameLimiter implements ChannelInterceptor {
+
+    private final WebSocketMetrics webSocketMetrics;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    // 0 disables the limit
+    @Value("${monitoring.websocket.activity.max-frames-per-second:10}")
+    private double maxFramesPerSecond;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (maxFramesPerSecond <= 0
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (destination == null || sessionId == null
+                || !destination.startsWith(ActivityEventCoalescer.ACTIVITY_DESTINATION + "/")) {
+            return message;
+        }
+
+        TokenBucket bucket = buckets.computeIfAbsent(sessionId, id -> new TokenBucket(maxFramesPerSecond));
+        if (bucket.tryAcquire(maxFramesPerSecond)) {
+            return message;
+        }
+        long dropped = droppedFrames.incrementAndGet();
+        webSocketMetrics.frameDropped(destination, WebSocketMetrics.RATE_LIMIT);
+        log.debug("Dropped activity frame to session {} ({}), {} dropped in total", sessionId, destination, dropped);
+        return null;
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        buckets.remove(event.getSessionId());
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos = System.nanoTime();
+
+        TokenBucket(double capacity) {
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire(double ratePerSecond) {
+            long now = System.nanoTime();
+            // Capacity equals one second's worth of frames
+            tokens = Math.min(Math.max(1, ratePerSecond), tokens + (now - lastRefillNanos) * ratePerSecond / 1e9);
+            lastRefillNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -1,24 +1,108 @@
 package com.monitoring.config;
 
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final long HEARTBEAT_MILLIS = 10_000;
+
+    private final SubscriberFrameLimiter subscriberFrameLimiter;
+    private final ControlSubscriptionInterceptor controlSubscriptionInterceptor;
+    private final FrameEncodingInterceptor frameEncodingInterceptor;
+    private final OutboundBackpressure outboundBackpressure;
+    private final WebSocketMetrics webSocketMetrics;
+
     @Value("${monitoring.cors.allowed-origins}")
     private String[] allowedOrigins;
 
+    // "simple" keeps the in-process broker (single node, local dev);
+    // "relay" forwards /topic to an external STOMP broker shared by all replicas
+    @Value("${monitoring.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${monitoring.websocket.broker.relay-host:localhost}")
+    private String relayHost;
+
+    @Value("${monitoring.websocket.broker.relay-port:61613}")
+    private int relayPort;
+
+    @Value("${monitoring.websocket.broker.login:guest}")
+    private String relayLogin;
+
+    @Value("${monitoring.websocket.broker.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${monitoring.websocket.broker.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${monitoring.websocket.inbound.core-pool-size:4}")
+    private int inboundCorePoolSize;
+
+    @Value("${monitoring.websocket.inbound.max-pool-size:16}")
+    private int inboundMaxPoolSize;
+
+    @Value("${monitoring.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${monitoring.websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${monitoring.websocket.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${monitoring.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${monitoring.websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${monitoring.websocket.transport.send-time-limit-ms:15000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${monitoring.websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple in-memory message broker to send messages to clients
-        // on destinations prefixed with "/topic"
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            // Every replica relays to the same external broker, so events published
+            // on one node reach dashboards connected to any node. The broker must
+            // accept slash-separated topic names (e.g. ActiveMQ Artemis).
+            var relay = config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(HEARTBEAT_MILLIS)
+                    .setSystemHeartbeatReceiveInterval(HEARTBEAT_MILLIS);
+            if (!relayVirtualHost.isEmpty()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            log.info("STOMP broker relay to {}:{}", relayHost, relayPort);
+        } else {
+            // Enable a simple in-memory message broker to send messages to clients
+            // on destinations prefixed with "/topic". Heartbeats let both sides
+            // notice dead connections, e.g. agents that dropped off the network.
+            config.enableSimpleBroker("/topic")
+                    .setHeartbeatValue(new long[] { HEARTBEAT_MILLIS, HEARTBEAT_MILLIS })
+                    .setTaskScheduler(heartbeatScheduler());
+        }
 
         // Prefix for messages from clients to server
         config.setApplicationDestinationPrefixes("/app");
@@ -31,5 +115,59 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/api/ws")
                 .setAllowedOriginPatterns(allowedOrigins)
                 .withSockJS();
+
+        // Plain WebSocket endpoint for desktop agents' control channel
+        // (see AgentControlService); agents don't need the SockJS fallbacks
+        registry.addEndpoint("/api/ws/agent")
+                .setAllowedOriginPatterns(allowedOrigins);
+
+        // Plain WebSocket endpoint for dashboards that subscribe with
+        // encoding:cbor (see FrameEncodingInterceptor); SockJS is text-only
+        registry.addEndpoint("/api/ws/native")
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Frames from clients: CONNECT, SUBSCRIBE, heartbeats
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+        // Agents may only subscribe to their own user's control destination,
+        // and no client may publish to /topic
+        registration.interceptors(controlSubscriptionInterceptor, frameEncodingInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Fan-out to subscribers; sized for thousands of dashboard and agent sessions
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+        // Drop over-limit frames before spending time re-encoding them;
+        // count what is left as sent
+        registration.interceptors(subscriberFrameLimiter, frameEncodingInterceptor, webSocketMetrics);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A slow client may buffer at most this much (or stall this long)
+        // before its session is closed, so it cannot hold up the others.
+        // OutboundBackpressure enforces both per session, dropping stale
+        // activity frames first.
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMillis)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(outboundBackpressure::decorate);
+    }
+
+    private ThreadPoolTaskScheduler heartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        scheduler.initialize();
+        return scheduler;
     }
 }
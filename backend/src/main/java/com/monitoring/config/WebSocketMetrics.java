@@ -0,0 +1,101 @@
+package com.monitoring.config;
+
+import com.monitoring.service.ActivityEventCoalescer;
+import com.monitoring.service.AgentControlService;
+import com.monitoring.service.PresenceRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts STOMP MESSAGE frames handed to WebSocket sessions, and frames dropped
+ * on the way, per destination.
+ *
+ * Registered last on the client outbound channel, so frames the
+ * {@link SubscriberFrameLimiter} drops aren't counted as sent. Destinations are
+ * tagged by family to keep the series count bounded: the destinations the
+ * backend publishes to, with per-session or per-user suffixes replaced by
+ * {@code *}, e.g. {@code /topic/activity/<id>} becomes
+ * {@code /topic/activity/*}. Anything else is tagged {@code other}.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketMetrics implements ChannelInterceptor {
+
+    public static final String RATE_LIMIT = "rate-limit";
+    public static final String BACKPRESSURE = "backpressure";
+
+    static final String OTHER = "other";
+
+    private static final Set<String> FAMILIES = Set.of(
+            ActivityEventCoalescer.ACTIVITY_DESTINATION,
+            PresenceRegistry.PRESENCE_DESTINATION,
+            AgentControlService.CONTROL_DESTINATION,
+            "/topic/sessions",
+            "/topic/employees");
+
+    // Followed by a session ID or user ID
+    private static final List<String> PREFIX_FAMILIES = List.of(
+            ActivityEventCoalescer.ACTIVITY_DESTINATION + "/",
+            AgentControlService.CONTROL_DESTINATION + "/",
+            "/topic/screenshots/");
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            String destination = destinationFamily(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            counters.computeIfAbsent("sent " + destination, key -> Counter
+                    .builder("monitoring.websocket.frames.sent")
+                    .description("STOMP frames handed to WebSocket sessions")
+                    .tag("destination", destination)
+                    .register(meterRegistry))
+                    .increment();
+        }
+        return message;
+    }
+
+    /**
+     * @param reason {@link #RATE_LIMIT} or {@link #BACKPRESSURE}
+     */
+    public void frameDropped(String destination, String reason) {
+        String family = destinationFamily(destination);
+        counters.computeIfAbsent("dropped " + reason + " " + family, key -> Counter
+                .builder("monitoring.websocket.frames.dropped")
+                .description("STOMP frames dropped before reaching a WebSocket session")
+                .tag("destination", family)
+                .tag("reason", reason)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    static String destinationFamily(String destination) {
+        if (destination == null || destination.isEmpty()) {
+            return "none";
+        }
+        if (FAMILIES.contains(destination)) {
+            return destination;
+        }
+        for (String prefix : PREFIX_FAMILIES) {
+            if (destination.startsWith(prefix) && destination.length() > prefix.length()
+                    && destination.indexOf('/', prefix.length()) < 0) {
+                return prefix + "*";
+            }
+        }
+        return OTHER;
+    }
+}
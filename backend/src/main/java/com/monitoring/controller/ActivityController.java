@@ -4,8 +4,11 @@ import com.monitoring.dto.ActivityLogResponse;
 import com.monitoring.dto.LogActivityRequest;
 import com.monitoring.entity.ActivityLog;
 import com.monitoring.service.ActivityService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,21 +19,48 @@ import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/activity")
-@RequiredArgsConstructor
 @CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
 public class ActivityController {
 
+    // Matches the agent's default outbox.batch.size; larger batches get a 400
+    static final int MAX_BATCH_SIZE = 100;
+
     private final ActivityService activityService;
 
+    // Per call latency and count, and heartbeats accepted, by endpoint
+    private final Timer singleIngest;
+    private final Timer batchIngest;
+    private final Counter singleHeartbeats;
+    private final Counter batchHeartbeats;
+
+    public ActivityController(ActivityService activityService, MeterRegistry meterRegistry) {
+        this.activityService = activityService;
+        this.singleIngest = ingestTimer(meterRegistry, "single");
+        this.batchIngest = ingestTimer(meterRegistry, "batch");
+        this.singleHeartbeats = heartbeatCounter(meterRegistry, "single");
+        this.batchHeartbeats = heartbeatCounter(meterRegistry, "batch");
+    }
+
     @PostMapping
     public ResponseEntity<ActivityLogResponse> logActivity(@Valid @RequestBody LogActivityRequest request) {
-        ActivityLog log = activityService.logActivity(
-                request.getSessionId(),
-                request.getActivityStatus(),
-                request.getMetadata());
+        ActivityLog log = singleIngest.record(() -> activityService.logActivity(request));
+        singleHeartbeats.increment();
         return ResponseEntity.status(HttpStatus.CREATED).body(ActivityLogResponse.from(log));
     }
 
+    /**
+     * Accept a batch of heartbeats in client order. Used by agents draining
+     * their offline outbox. At most {@value #MAX_BATCH_SIZE} per call.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> logActivityBatch(
+            @RequestBody @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " heartbeats per batch")
+            List<@Valid LogActivityRequest> requests) {
+        List<ActivityLog> logs = batchIngest.record(() -> activityService.logActivities(requests));
+        batchHeartbeats.increment(logs.size());
+        return ResponseEntity.status(HttpStatus.CREATED).body(new BatchResponse(logs.size()));
+    }
+
     @GetMapping("/session/{sessionId}")
     public ResponseEntity<List<ActivityLogResponse>> getActivityLogs(@PathVariable UUID sessionId) {
         List<ActivityLog> logs = activityService.getActivityLogs(sessionId);
@@ -39,4 +69,22 @@ public class ActivityController {
                 .collect(Collectors.toList());
         return ResponseEntity.ok(response);
     }
+
+    private static Timer ingestTimer(MeterRegistry meterRegistry, String endpoint) {
+        return Timer.builder("monitoring.heartbeats.ingest")
+                .description("Heartbeat ingest calls, including the database write")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter heartbeatCounter(MeterRegistry meterRegistry, String endpoint) {
+        return Counter.builder("monitoring.heartbeats.accepted")
+                .description("Heartbeats stored")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    private record BatchResponse(int accepted) {
+    }
 }
@@ -0,0 +1,32 @@
+package com.monitoring.controller;
+
+import com.monitoring.service.AgentControlService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/agents")
+@RequiredArgsConstructor
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
+public class AgentControlController {
+
+    private final AgentControlService agentControlService;
+
+    /**
+     * Push agent settings (agent.properties keys) to every connected agent.
+     */
+    @PostMapping("/config")
+    public ResponseEntity<?> pushConfig(@RequestBody Map<String, String> settings) {
+        if (settings.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("No settings given"));
+        }
+        agentControlService.configUpdated(settings);
+        return ResponseEntity.accepted().build();
+    }
+
+    private record ErrorResponse(String message) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.monitoring.controller;
+
+import com.monitoring.dto.AgentTelemetryStats;
+import com.monitoring.service.AgentTelemetryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Fleet-wide percentiles of the desktop agents' own resource use, for
+ * spotting agents that get expensive before users complain.
+ */
+@RestController
+@RequestMapping("/api/admin/agent-telemetry")
+@RequiredArgsConstructor
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
+public class AgentTelemetryController {
+
+    private final AgentTelemetryService agentTelemetryService;
+
+    @GetMapping
+    public ResponseEntity<List<AgentTelemetryStats>> getFleetStats(@RequestParam(defaultValue = "60") int minutes) {
+        return ResponseEntity.ok(agentTelemetryService.getFleetStats(minutes));
+    }
+}
@@ -0,0 +1,47 @@
+package com.monitoring.controller;
+
+import com.monitoring.dto.AppUsageResponse;
+import com.monitoring.dto.WindowSpanResponse;
+import com.monitoring.service.AppUsageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Time spent per application, from the foreground window spans agents
+ * report. Totals are sorted by time, longest first.
+ */
+@RestController
+@RequestMapping("/api/app-usage")
+@RequiredArgsConstructor
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
+public class AppUsageController {
+
+    private final AppUsageService appUsageService;
+
+    @GetMapping
+    public ResponseEntity<List<AppUsageResponse>> getUserUsage(
+            @RequestParam String userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(appUsageService.getUserUsage(userId, from, to));
+    }
+
+    @GetMapping("/session/{sessionId}")
+    public ResponseEntity<List<AppUsageResponse>> getSessionUsage(@PathVariable UUID sessionId) {
+        return ResponseEntity.ok(appUsageService.getSessionUsage(sessionId));
+    }
+
+    /**
+     * The session's window spans in order, with titles.
+     */
+    @GetMapping("/session/{sessionId}/timeline")
+    public ResponseEntity<List<WindowSpanResponse>> getTimeline(@PathVariable UUID sessionId) {
+        return ResponseEntity.ok(appUsageService.getTimeline(sessionId));
+    }
+}
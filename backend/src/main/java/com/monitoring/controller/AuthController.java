@@ -2,10 +2,14 @@ package com.monitoring.controller;
 
 import com.monitoring.dto.AuthResponse;
 import com.monitoring.dto.LoginRequest;
+import com.monitoring.dto.ReauthRequest;
 import com.monitoring.dto.SignupRequest;
+import com.monitoring.exception.TooManyRequestsException;
 import com.monitoring.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,20 +30,49 @@ public class AuthController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            AuthResponse response = userService.login(request);
+            AuthResponse response = userService.login(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse(e.getMessage()));
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         }
     }
 
+    /**
+     * Log in with the reauth token from a previous login (no password, no
+     * BCrypt). Returns a fresh token; the old one can't be used again.
+     */
+    @PostMapping("/reauth")
+    public ResponseEntity<?> reauthenticate(@Valid @RequestBody ReauthRequest request,
+            HttpServletRequest httpRequest) {
+        try {
+            AuthResponse response = userService.reauthenticate(request.getUserId(), request.getToken(),
+                    httpRequest.getRemoteAddr());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
+        }
+    }
+
+    private ResponseEntity<ErrorResponse> tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
     // Inner class for error responses
     private record ErrorResponse(String message) {
     }
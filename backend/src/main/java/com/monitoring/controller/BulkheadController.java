@@ -0,0 +1,39 @@
+package com.monitoring.controller;
+
+import com.monitoring.config.Bulkhead;
+import com.monitoring.config.BulkheadFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/bulkheads")
+@RequiredArgsConstructor
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
+public class BulkheadController {
+
+    private final BulkheadFilter bulkheadFilter;
+
+    /**
+     * Current load and rejections per traffic class.
+     */
+    @GetMapping
+    public ResponseEntity<List<BulkheadStats>> getBulkheads() {
+        List<BulkheadStats> stats = bulkheadFilter.getBulkheads().stream()
+                .map(BulkheadStats::from)
+                .toList();
+        return ResponseEntity.ok(stats);
+    }
+
+    private record BulkheadStats(String name, int active, int maxConcurrent, int queued, long rejected,
+            int connectionsInUse, int dbConnections) {
+
+        static BulkheadStats from(Bulkhead bulkhead) {
+            return new BulkheadStats(bulkhead.getName(), bulkhead.getActive(), bulkhead.getMaxConcurrent(),
+                    bulkhead.getQueued(), bulkhead.getRejected(), bulkhead.getConnectionsInUse(),
+                    bulkhead.getDbConnections());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.monitoring.controller;
 
+import com.monitoring.dto.AuthenticatedUser;
 import com.monitoring.dto.EmployeeListResponse;
 import com.monitoring.dto.EmployeeRequest;
 import com.monitoring.dto.EmployeeResponse;
@@ -112,15 +113,25 @@ public class EmployeeController {
      * Employees can view their tracking restrictions but cannot modify them.
      */
     @GetMapping("/me/login-rule")
-    public ResponseEntity<?> getMyLoginRule(@RequestParam String userId) {
+    public ResponseEntity<?> getMyLoginRule(@RequestParam(required = false) String userId,
+            @RequestAttribute(name = AuthenticatedUser.ATTRIBUTE, required = false) AuthenticatedUser caller) {
         try {
-            EmployeeResponse employee = userService.getEmployeeByUserId(userId);
+            // With a session token the rule ID comes from the token, without reading the user
+            Long loginRuleId;
+            if (caller != null) {
+                loginRuleId = caller.loginRuleId();
+            } else if (userId != null) {
+                loginRuleId = userService.getEmployeeByUserId(userId).getLoginRuleId();
+            } else {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ErrorResponse("User ID is required"));
+            }
 
-            if (employee.getLoginRuleId() == null) {
+            if (loginRuleId == null) {
                 return ResponseEntity.ok(new ErrorResponse("No login rule assigned. Contact administrator."));
             }
 
-            LoginRuleResponse loginRule = loginRuleService.getLoginRuleById(employee.getLoginRuleId());
+            LoginRuleResponse loginRule = loginRuleService.getLoginRuleById(loginRuleId);
             return ResponseEntity.ok(loginRule);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
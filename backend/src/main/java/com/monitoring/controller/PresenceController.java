@@ -0,0 +1,30 @@
+package com.monitoring.controller;
+
+import com.monitoring.dto.PresenceSnapshot;
+import com.monitoring.service.PresenceRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/presence")
+@RequiredArgsConstructor
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
+public class PresenceController {
+
+    private final PresenceRegistry presenceRegistry;
+
+    /**
+     * Current presence of all active sessions. With {@code epoch} and
+     * {@code since}, returns only the deltas after that version when the epoch
+     * is current and they are still retained; check {@code full} in the response.
+     */
+    @GetMapping
+    public ResponseEntity<PresenceSnapshot> getPresence(@RequestParam(required = false) Long epoch,
+            @RequestParam(required = false) Long since) {
+        if (epoch == null || since == null) {
+            return ResponseEntity.ok(presenceRegistry.snapshot());
+        }
+        return ResponseEntity.ok(presenceRegistry.changesSince(epoch, since));
+    }
+}
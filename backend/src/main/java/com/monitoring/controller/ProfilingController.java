@@ -0,0 +1,129 @@
+package com.monitoring.controller;
+
+import com.monitoring.dto.FlightRecordingStatus;
+import com.monitoring.service.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+/**
+ * Starts and downloads a JDK Flight Recorder recording of the running
+ * backend; open the dump in JDK Mission Control.
+ *
+ * Every request must carry {@code monitoring.profiling.access-token} in the
+ * {@value #TOKEN_HEADER} header. Without a configured token the endpoints
+ * answer 404, so profiling is off unless an operator turns it on.
+ */
+@RestController
+@RequestMapping("/api/admin/profiling/recording")
+@RequiredArgsConstructor
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
+public class ProfilingController {
+
+    static final String TOKEN_HEADER = "X-Profiling-Token";
+
+    private final FlightRecordingService flightRecordingService;
+
+    @Value("${monitoring.profiling.access-token:}")
+    private String accessToken;
+
+    @PostMapping
+    public ResponseEntity<?> startRecording(@RequestParam(defaultValue = "60") long durationSeconds,
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) throws IOException {
+        HttpStatus denied = checkToken(token);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        try {
+            FlightRecordingStatus status = flightRecordingService.start(durationSeconds);
+            return ResponseEntity.status(HttpStatus.CREATED).body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<FlightRecordingStatus> getRecording(
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        HttpStatus denied = checkToken(token);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        return ResponseEntity.of(flightRecordingService.getStatus());
+    }
+
+    /**
+     * The recording so far as a .jfr file; works while it is still running.
+     */
+    @GetMapping("/dump")
+    public ResponseEntity<StreamingResponseBody> dumpRecording(
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) throws IOException {
+        HttpStatus denied = checkToken(token);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        Optional<Path> dump = flightRecordingService.dump();
+        if (dump.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Path file = dump.get();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"backend.jfr\"")
+                .body(body);
+    }
+
+    /**
+     * Stops the recording and deletes its data.
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> discardRecording(
+            @RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        HttpStatus denied = checkToken(token);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        flightRecordingService.discard();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * @return the status for a caller without the access token, or null if
+     *         the token matches
+     */
+    private HttpStatus checkToken(String token) {
+        if (accessToken == null || accessToken.isBlank()) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (token == null || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                accessToken.getBytes(StandardCharsets.UTF_8))) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        return null;
+    }
+
+    private record ErrorResponse(String message) {
+    }
+}
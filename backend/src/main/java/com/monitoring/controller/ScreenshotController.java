@@ -31,10 +31,15 @@ public class ScreenshotController {
     public ResponseEntity<ScreenshotResponse> uploadScreenshot(
             @RequestParam("sessionId") UUID sessionId,
             @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "metadata", required = false) String metadata) {
+            @RequestParam(value = "metadata", required = false) String metadata,
+            @RequestParam(value = "captureGroupId", required = false) UUID captureGroupId,
+            @RequestParam(value = "displayIndex", required = false) Integer displayIndex,
+            @RequestParam(value = "displayCount", required = false) Integer displayCount,
+            @RequestParam(value = "clientTimestamp", required = false) Long clientTimestamp) {
 
         try {
-            Screenshot screenshot = screenshotService.saveScreenshot(sessionId, file, metadata);
+            Screenshot screenshot = screenshotService.saveScreenshot(sessionId, file, metadata,
+                    captureGroupId, displayIndex, displayCount, clientTimestamp);
             return ResponseEntity.status(HttpStatus.CREATED).body(ScreenshotResponse.from(screenshot));
         } catch (IOException e) {
             throw new RuntimeException("Failed to upload screenshot: " + e.getMessage());
@@ -58,7 +63,7 @@ public class ScreenshotController {
 
             if (resource.exists() && resource.isReadable()) {
                 return ResponseEntity.ok()
-                        .contentType(MediaType.IMAGE_PNG)
+                        .contentType(mediaTypeFor(filePath))
                         .header(HttpHeaders.CONTENT_DISPOSITION,
                                 "inline; filename=\"" + filePath.getFileName().toString() + "\"")
                         .body(resource);
@@ -69,4 +74,16 @@ public class ScreenshotController {
             throw new RuntimeException("Failed to download screenshot: " + e.getMessage());
         }
     }
+
+    // Agents may upload PNG, JPEG or WebP depending on their encoder settings
+    private MediaType mediaTypeFor(Path filePath) {
+        String name = filePath.getFileName().toString().toLowerCase();
+        if (name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (name.endsWith(".webp")) {
+            return MediaType.parseMediaType("image/webp");
+        }
+        return MediaType.IMAGE_PNG;
+    }
 }
@@ -1,10 +1,10 @@
 package com.monitoring.controller;
 
+import com.monitoring.dto.AuthenticatedUser;
 import com.monitoring.dto.SessionResponse;
 import com.monitoring.dto.StartSessionRequest;
 import com.monitoring.entity.WorkSession;
 import com.monitoring.exception.TrackingNotAllowedException;
-import com.monitoring.repository.UserRepository;
 import com.monitoring.service.SessionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -23,16 +23,33 @@ import java.util.stream.Collectors;
 public class SessionController {
 
     private final SessionService sessionService;
-    private final UserRepository userRepository;
 
+    /**
+     * Start a session for the token's user, or for {@code userId} from the
+     * body on requests without a token.
+     */
     @PostMapping("/start")
-    public ResponseEntity<?> startSession(@Valid @RequestBody StartSessionRequest request) {
+    public ResponseEntity<?> startSession(@Valid @RequestBody StartSessionRequest request,
+            @RequestAttribute(name = AuthenticatedUser.ATTRIBUTE, required = false) AuthenticatedUser caller) {
         try {
-            WorkSession session = sessionService.startSession(
-                    request.getUserId(),
-                    request.getTaskName(),
-                    request.getEstimatedDurationMinutes());
-            return ResponseEntity.status(HttpStatus.CREATED).body(enrichWithUserDetails(SessionResponse.from(session)));
+            WorkSession session;
+            if (caller != null) {
+                if (request.getUserId() != null && !request.getUserId().equals(caller.userId())) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                            .body(new ErrorResponse("Cannot start a session for another user"));
+                }
+                session = sessionService.startSession(caller, request.getTaskName(),
+                        request.getEstimatedDurationMinutes());
+            } else if (request.getUserId() == null || request.getUserId().isBlank()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ErrorResponse("User ID is required"));
+            } else {
+                session = sessionService.startSession(
+                        request.getUserId(),
+                        request.getTaskName(),
+                        request.getEstimatedDurationMinutes());
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(sessionService.toResponse(session, caller));
         } catch (TrackingNotAllowedException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(new TrackingErrorResponse(e.getMessage(), e.getNextAllowedWindow()));
@@ -43,15 +60,17 @@ public class SessionController {
     }
 
     @PostMapping("/{sessionId}/stop")
-    public ResponseEntity<SessionResponse> stopSession(@PathVariable UUID sessionId) {
-        WorkSession session = sessionService.stopSession(sessionId);
-        return ResponseEntity.ok(enrichWithUserDetails(SessionResponse.from(session)));
+    public ResponseEntity<SessionResponse> stopSession(@PathVariable UUID sessionId,
+            @RequestAttribute(name = AuthenticatedUser.ATTRIBUTE, required = false) AuthenticatedUser caller) {
+        WorkSession session = sessionService.stopSession(sessionId, caller);
+        return ResponseEntity.ok(sessionService.toResponse(session, caller));
     }
 
     @GetMapping("/{sessionId}")
-    public ResponseEntity<SessionResponse> getSession(@PathVariable UUID sessionId) {
+    public ResponseEntity<SessionResponse> getSession(@PathVariable UUID sessionId,
+            @RequestAttribute(name = AuthenticatedUser.ATTRIBUTE, required = false) AuthenticatedUser caller) {
         WorkSession session = sessionService.getSession(sessionId);
-        return ResponseEntity.ok(enrichWithUserDetails(SessionResponse.from(session)));
+        return ResponseEntity.ok(sessionService.toResponse(session, caller));
     }
 
     @GetMapping
@@ -70,22 +89,12 @@ public class SessionController {
         }
 
         List<SessionResponse> response = sessions.stream()
-                .map(SessionResponse::from)
-                .map(this::enrichWithUserDetails)
+                .map(session -> sessionService.toResponse(session, null))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(response);
     }
 
-    private SessionResponse enrichWithUserDetails(SessionResponse response) {
-        userRepository.findByUserId(response.getUserId()).ifPresent(user -> {
-            response.setFirstName(user.getFirstName());
-            response.setLastName(user.getLastName());
-            response.setJobRole(user.getJobRole());
-        });
-        return response;
-    }
-
     // Error response records
     private record ErrorResponse(String message) {
     }
@@ -0,0 +1,39 @@
+package com.monitoring.controller;
+
+import com.monitoring.config.OutboundBackpressure;
+import com.monitoring.config.SubscriberFrameLimiter;
+import com.monitoring.dto.WebSocketSessionStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/websocket")
+@RequiredArgsConstructor
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
+public class WebSocketAdminController {
+
+    private final OutboundBackpressure outboundBackpressure;
+    private final SubscriberFrameLimiter subscriberFrameLimiter;
+
+    /**
+     * Outbound queue size per connected WebSocket session, largest first.
+     */
+    @GetMapping("/sessions")
+    public ResponseEntity<SessionsResponse> getSessions() {
+        List<WebSocketSessionStats> sessions = outboundBackpressure.getSessionStats().stream()
+                .sorted((a, b) -> Long.compare(b.getQueuedBytes(), a.getQueuedBytes()))
+                .toList();
+        return ResponseEntity.ok(new SessionsResponse(
+                outboundBackpressure.getQueuedBytes(),
+                outboundBackpressure.getEvictedSessions(),
+                subscriberFrameLimiter.getDroppedFrames(),
+                sessions));
+    }
+
+    private record SessionsResponse(long queuedBytes, long evictedSessions, long rateLimitedFrames,
+            List<WebSocketSessionStats> sessions) {
+    }
+}
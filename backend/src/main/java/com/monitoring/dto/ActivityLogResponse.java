@@ -17,6 +17,7 @@ public class ActivityLogResponse {
     private LocalDateTime loggedAt;
     private ActivityLog.ActivityStatus activityStatus;
     private String metadata;
+    private int[] intensity;
 
     public static ActivityLogResponse from(ActivityLog log) {
         return new ActivityLogResponse(
@@ -24,6 +25,7 @@ public class ActivityLogResponse {
                 log.getSessionId(),
                 log.getLoggedAt(),
                 log.getActivityStatus(),
-                log.getMetadata());
+                log.getMetadata(),
+                log.getIntensity());
     }
 }
@@ -0,0 +1,23 @@
+package com.monitoring.dto;
+
+import com.monitoring.entity.ActivityLog;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Periodic frame on {@code /topic/activity}: latest status of every session
+ * whose status changed since the last snapshot it appeared in.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivitySnapshot {
+    private long tick;
+    private LocalDateTime generatedAt;
+    private Map<UUID, ActivityLog.ActivityStatus> statuses;
+}
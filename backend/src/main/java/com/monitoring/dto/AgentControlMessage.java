@@ -0,0 +1,43 @@
+package com.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Command pushed to desktop agents over their control destination.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentControlMessage {
+
+    public enum Command {
+        SESSION_STOPPED,
+        RULE_CHANGED,
+        CONFIG_UPDATED
+    }
+
+    private Command command;
+    private UUID sessionId;
+    private String reason;
+    private Long loginRuleId;
+    private Map<String, String> settings;
+    private LocalDateTime issuedAt;
+
+    public static AgentControlMessage sessionStopped(UUID sessionId, String reason) {
+        return new AgentControlMessage(Command.SESSION_STOPPED, sessionId, reason, null, null, LocalDateTime.now());
+    }
+
+    public static AgentControlMessage ruleChanged(Long loginRuleId) {
+        return new AgentControlMessage(Command.RULE_CHANGED, null, null, loginRuleId, null, LocalDateTime.now());
+    }
+
+    public static AgentControlMessage configUpdated(Map<String, String> settings) {
+        return new AgentControlMessage(Command.CONFIG_UPDATED, null, null, null, settings, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,29 @@
+package com.monitoring.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * A desktop agent's measurements of its own resource use since its previous
+ * report, sent with a heartbeat every few minutes. Histograms are keyed by
+ * metric name, e.g. {@code capture.cpu.us}; the name ends in the unit.
+ */
+@Data
+public class AgentTelemetryReport {
+    private Map<String, Histogram> histograms;
+
+    /**
+     * Log-linear buckets: each power of two is split into four, so bucket
+     * {@code 4 * o + q} holds values in
+     * {@code [2^o * (4 + q) / 4, 2^o * (5 + q) / 4)}; 0 and 1 are in bucket 0.
+     * Only non-empty buckets are sent.
+     */
+    @Data
+    public static class Histogram {
+        private long count;
+        private long sum;
+        private long max;
+        private Map<Integer, Long> buckets;
+    }
+}
@@ -0,0 +1,26 @@
+package com.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Percentiles of one agent telemetry metric across all agents that reported
+ * in the requested window. Percentiles are bucket upper bounds, so they
+ * overstate the true value by at most 25%.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentTelemetryStats {
+    private String metric;
+    // Agent reports that included this metric
+    private long reports;
+    // Values recorded by those agents
+    private long count;
+    private double mean;
+    private long p50;
+    private long p90;
+    private long p99;
+    private long max;
+}
@@ -0,0 +1,14 @@
+package com.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppUsageResponse {
+    private String appName;
+    private Long durationMillis;
+    private Long spans;
+}
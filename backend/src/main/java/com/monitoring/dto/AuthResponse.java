@@ -15,6 +15,12 @@ public class AuthResponse {
     private String lastName;
     private String jobRole;
     private String phoneNumber;
+    // Set on login: signed session token for the Authorization header
+    private String accessToken;
+    private Long accessTokenExpiresAt;
+    // Set on login: lets the agent log in again without the password
+    private String reauthToken;
+    private Long reauthTokenExpiresAt;
 
     public static AuthResponse from(User user) {
         return new AuthResponse(
@@ -22,6 +28,10 @@ public class AuthResponse {
                 user.getFirstName(),
                 user.getLastName(),
                 user.getJobRole(),
-                user.getPhoneNumber());
+                user.getPhoneNumber(),
+                null,
+                null,
+                null,
+                null);
     }
 }
@@ -0,0 +1,16 @@
+package com.monitoring.dto;
+
+/**
+ * Caller identity carried in a verified session token. Controllers receive it
+ * as the {@link #ATTRIBUTE} request attribute; it is absent on requests made
+ * without a token.
+ *
+ * @param role        The user's job role at the time the token was issued
+ * @param loginRuleId Assigned login rule, or null if none
+ * @param firstName   The user's first name when the token was issued
+ */
+public record AuthenticatedUser(String userId, String role, Long loginRuleId, String firstName,
+        String lastName, long issuedAtMillis, long expiresAtMillis) {
+
+    public static final String ATTRIBUTE = "com.monitoring.authenticatedUser";
+}
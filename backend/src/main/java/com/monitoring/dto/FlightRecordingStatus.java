@@ -0,0 +1,22 @@
+package com.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * State of the admin JFR recording.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightRecordingStatus {
+    private long id;
+    // NEW, RUNNING, STOPPED or CLOSED
+    private String state;
+    private Instant startTime;
+    private long durationSeconds;
+    private long bytes;
+}
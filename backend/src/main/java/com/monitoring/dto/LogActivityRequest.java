@@ -1,9 +1,12 @@
 package com.monitoring.dto;
 
 import com.monitoring.entity.ActivityLog;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -15,4 +18,29 @@ public class LogActivityRequest {
     private ActivityLog.ActivityStatus activityStatus;
 
     private String metadata;
+
+    /**
+     * Epoch millis at which the agent recorded the status. Set for heartbeats
+     * replayed from the agent's offline outbox.
+     */
+    private Long clientTimestamp;
+
+    /**
+     * Key presses, mouse clicks, mouse distance in pixels and window switches
+     * since the previous heartbeat. Newer agents may append counters.
+     */
+    @Size(max = 8, message = "At most 8 intensity counters")
+    private int[] intensity;
+
+    /**
+     * Foreground window spans finished since the agent's previous batch.
+     */
+    @Size(max = 1000, message = "At most 1000 window spans")
+    private List<@Valid WindowSpanRequest> windowSpans;
+
+    /**
+     * The agent's own resource use, attached to one heartbeat every few
+     * minutes.
+     */
+    private AgentTelemetryReport telemetry;
 }
@@ -0,0 +1,31 @@
+package com.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One versioned change to the presence registry, published on
+ * {@code /topic/presence}. Applying deltas in version order to a snapshot of
+ * version {@code version - 1} of the same {@code epoch} yields the registry
+ * at {@code version}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceDelta {
+
+    public enum Type {
+        UPSERT,
+        REMOVE
+    }
+
+    private long epoch;
+    private long version;
+    private Type type;
+    private UUID sessionId;
+    // Null for REMOVE
+    private PresenceEntry entry;
+}
@@ -0,0 +1,23 @@
+package com.monitoring.dto;
+
+import com.monitoring.entity.ActivityLog;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Live state of one active session in the presence registry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceEntry {
+    private UUID sessionId;
+    private String userId;
+    private ActivityLog.ActivityStatus status;
+    private LocalDateTime lastHeartbeat;
+    private String taskName;
+}
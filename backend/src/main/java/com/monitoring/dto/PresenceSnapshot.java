@@ -0,0 +1,24 @@
+package com.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of {@code GET /api/presence}. Either the full registry
+ * ({@code full = true}, {@code sessions} set) or, when the client asked to
+ * resync from a version the server still retains, only the deltas after it.
+ * Versions are only comparable within one {@code epoch}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceSnapshot {
+    private long epoch;
+    private long version;
+    private boolean full;
+    private List<PresenceEntry> sessions;
+    private List<PresenceDelta> deltas;
+}
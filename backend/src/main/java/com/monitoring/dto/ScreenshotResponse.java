@@ -17,6 +17,9 @@ public class ScreenshotResponse {
     private LocalDateTime capturedAt;
     private Long fileSize;
     private String metadata;
+    private UUID captureGroupId;
+    private Integer displayIndex;
+    private Integer displayCount;
 
     public static ScreenshotResponse from(Screenshot screenshot) {
         return new ScreenshotResponse(
@@ -24,6 +27,9 @@ public class ScreenshotResponse {
                 screenshot.getSessionId(),
                 screenshot.getCapturedAt(),
                 screenshot.getFileSize(),
-                screenshot.getMetadata());
+                screenshot.getMetadata(),
+                screenshot.getCaptureGroupId(),
+                screenshot.getDisplayIndex(),
+                screenshot.getDisplayCount());
     }
 }
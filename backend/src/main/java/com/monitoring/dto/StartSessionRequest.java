@@ -5,7 +5,7 @@ import lombok.Data;
 
 @Data
 public class StartSessionRequest {
-    @NotBlank(message = "User ID is required")
+    // Optional with a session token; the token's user is used
     private String userId;
 
     @NotBlank(message = "Task name is required")
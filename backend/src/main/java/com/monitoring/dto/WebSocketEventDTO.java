@@ -1,11 +1,8 @@
 package com.monitoring.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor
-@AllArgsConstructor
 public class WebSocketEventDTO {
 
     public enum EventType {
@@ -13,6 +10,8 @@ public class WebSocketEventDTO {
         SESSION_UPDATED,
         SESSION_STOPPED,
         ACTIVITY_LOGGED,
+        ACTIVITY_SNAPSHOT,
+        PRESENCE_UPDATED,
         SCREENSHOT_UPLOADED,
         EMPLOYEE_CREATED,
         EMPLOYEE_UPDATED,
@@ -26,39 +25,6 @@ public class WebSocketEventDTO {
         return new WebSocketEventDTO(eventType, payload);
     }
 
-    // Manual Getters and Setters and Constructor
-    // Note: @AllArgsConstructor might not be generating correctly if Lombok fails
-    /*
-     * Wait, I should make sure I have the AllArgsConstructor manually if Lombok is
-     * failing.
-     * But I will rely on standard java here.
-     */
-
-    // Explicit All Args Constructor since Lombok might be failing
-    /*
-     * Actually, standard java doesn't allow duplicate constructors if I define one
-     * that matches signature.
-     * Since I'm uncertain if Lombok works at all, I'll define everything manually.
-     */
-
-    /*
-     * Wait, the @AllArgsConstructor annotation is present in the import.
-     * But if Lombok is broken, I must add it.
-     */
-
-    /*
-     * Redundant if Lombok works, but safe if I remove proper Lombok annotations or
-     * just add manual ones.
-     */
-
-    /* Let's just create a constructor and getters/setters. */
-
-    /*
-     * If I add a manual constructor with 2 args, it conflicts
-     * with @AllArgsConstructor if Lombok WAS working.
-     * But we know it's not.
-     */
-
     public WebSocketEventDTO(EventType eventType, Object payload) {
         this.eventType = eventType;
         this.payload = payload;
@@ -0,0 +1,18 @@
+package com.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outbound queue state of one WebSocket session.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebSocketSessionStats {
+    private String sessionId;
+    private long queuedBytes;
+    private int queuedFrames;
+    private long droppedFrames;
+}
@@ -0,0 +1,23 @@
+package com.monitoring.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * A stretch of time one window was in the foreground on the agent.
+ */
+@Data
+public class WindowSpanRequest {
+    @NotBlank(message = "App is required")
+    private String app;
+
+    private String title;
+
+    // Epoch millis
+    @NotNull(message = "Span start is required")
+    private Long start;
+
+    @NotNull(message = "Span end is required")
+    private Long end;
+}
@@ -0,0 +1,22 @@
+package com.monitoring.dto;
+
+import com.monitoring.entity.WindowSpan;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WindowSpanResponse {
+    private String appName;
+    private String title;
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt;
+
+    public static WindowSpanResponse from(WindowSpan span) {
+        return new WindowSpanResponse(span.getAppName(), span.getTitle(), span.getStartedAt(), span.getEndedAt());
+    }
+}
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -23,7 +24,11 @@ public class ActivityLog {
     @Column(nullable = false, columnDefinition = "uuid")
     private UUID sessionId;
     
-    @CreationTimestamp
+    /**
+     * When the agent observed this status. Heartbeats replayed from an agent's
+     * offline outbox carry their original client timestamp; otherwise this
+     * defaults to the time of insert.
+     */
     @Column(nullable = false, updatable = false)
     private LocalDateTime loggedAt;
     
@@ -33,7 +38,22 @@ public class ActivityLog {
     
     @Column(length = 500)
     private String metadata;
+
+    /**
+     * Input over the heartbeat interval as
+     * {@code [key presses, mouse clicks, mouse distance in pixels, window switches]},
+     * stored as one integer array column. Null for agents that don't report it.
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private int[] intensity;
     
+    @PrePersist
+    void defaultLoggedAt() {
+        if (loggedAt == null) {
+            loggedAt = LocalDateTime.now();
+        }
+    }
+
     public enum ActivityStatus {
         ACTIVE,
         IDLE
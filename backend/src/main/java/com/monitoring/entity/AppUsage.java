@@ -0,0 +1,43 @@
+package com.monitoring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Foreground time per application, session and day, added to as agents
+ * report window spans. Spans crossing midnight count towards both days.
+ */
+@Entity
+@Table(name = "app_usage",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "session_id", "usage_date", "app_name" }),
+        indexes = @Index(columnList = "usage_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, columnDefinition = "uuid")
+    private UUID sessionId;
+
+    @Column(nullable = false)
+    private LocalDate usageDate;
+
+    @Column(nullable = false)
+    private String appName;
+
+    @Column(nullable = false)
+    private long durationMillis;
+
+    // Spans that contributed to this row
+    @Column(nullable = false)
+    private long spans;
+}
@@ -0,0 +1,29 @@
+package com.monitoring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An outstanding re-authentication token, stored as the SHA-256 digest of
+ * the token so the table never holds anything that could be used to log in.
+ * Kept in the database so every node accepts it and it survives restarts.
+ */
+@Entity
+@Table(name = "reauth_tokens", indexes = @Index(columnList = "user_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReauthToken {
+
+    @Id
+    @Column(length = 44)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private long expiresAtMillis;
+}
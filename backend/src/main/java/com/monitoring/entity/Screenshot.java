@@ -4,7 +4,6 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -23,7 +22,10 @@ public class Screenshot {
     @Column(nullable = false, columnDefinition = "uuid")
     private UUID sessionId;
 
-    @CreationTimestamp
+    /**
+     * Client capture time for screenshots replayed from an agent's offline
+     * outbox; otherwise the time of insert.
+     */
     @Column(nullable = false, updatable = false)
     private LocalDateTime capturedAt;
 
@@ -35,4 +37,23 @@ public class Screenshot {
 
     @Column(length = 500)
     private String metadata;
+
+    /**
+     * Shared by all displays captured in the same cycle on multi-monitor setups.
+     */
+    @Column(columnDefinition = "uuid")
+    private UUID captureGroupId;
+
+    @Column
+    private Integer displayIndex;
+
+    @Column
+    private Integer displayCount;
+
+    @PrePersist
+    void defaultCapturedAt() {
+        if (capturedAt == null) {
+            capturedAt = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package com.monitoring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The latest session token revocation of a user: tokens issued before
+ * {@code revokedAtMillis} are rejected. Kept in the database so every node
+ * picks it up and it survives restarts.
+ */
+@Entity
+@Table(name = "token_revocations", indexes = @Index(columnList = "revoked_at_millis"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+    @Id
+    private String userId;
+
+    @Column(nullable = false)
+    private long revokedAtMillis;
+}
@@ -0,0 +1,42 @@
+package com.monitoring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One stretch of a session during which a window was in the foreground, as
+ * reported by the agent. A session has at most one span per start time, so
+ * a batch the agent sends twice is only stored once.
+ */
+@Entity
+@Table(name = "window_spans",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "session_id", "started_at" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WindowSpan {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, columnDefinition = "uuid")
+    private UUID sessionId;
+
+    @Column(nullable = false)
+    private String appName;
+
+    @Column(length = 255)
+    private String title;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime endedAt;
+}
@@ -0,0 +1,19 @@
+package com.monitoring.exception;
+
+/**
+ * The request was refused to protect the server (throttling or an overloaded
+ * worker pool); controllers answer 429 with Retry-After.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,64 @@
+package com.monitoring.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The idle sweep checking one ACTIVE session, including any warning email or
+ * auto-stop it triggers.
+ */
+@Name("com.monitoring.IdleSessionCheck")
+@Label("Idle Session Check")
+@Category({ "Employee Monitoring", "Sessions" })
+@Description("IdleMonitoringService.processSession")
+@Enabled(false)
+@StackTrace(false)
+public class IdleSessionCheckEvent extends Event {
+
+    public static final String NONE = "none";
+    public static final String NO_RECENT_LOGS = "no-recent-logs";
+    public static final String WARNING = "warning";
+    public static final String AUTO_STOP = "auto-stop";
+
+    @Label("Session ID")
+    private String sessionId;
+
+    @Label("Recent Logs")
+    private int recentLogs;
+
+    @Label("Idle Minutes")
+    private int idleMinutes;
+
+    @Label("Action")
+    private String action = NONE;
+
+    private IdleSessionCheckEvent(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Creates and begins the event; commit it when the check ends.
+     */
+    public static IdleSessionCheckEvent start(String sessionId) {
+        IdleSessionCheckEvent event = new IdleSessionCheckEvent(sessionId);
+        event.begin();
+        return event;
+    }
+
+    public void setRecentLogs(int recentLogs) {
+        this.recentLogs = recentLogs;
+    }
+
+    public void setIdleMinutes(int idleMinutes) {
+        this.idleMinutes = idleMinutes;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+}
@@ -0,0 +1,53 @@
+package com.monitoring.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One screenshot upload being stored: session lookup, file write, metadata
+ * insert and broadcast. The file write is also timed on its own.
+ */
+@Name("com.monitoring.ScreenshotSave")
+@Label("Screenshot Save")
+@Category({ "Employee Monitoring", "Screenshots" })
+@Description("ScreenshotService.saveScreenshot")
+@Enabled(false)
+@StackTrace(false)
+public class ScreenshotSaveEvent extends Event {
+
+    @Label("Session ID")
+    private String sessionId;
+
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytes;
+
+    @Label("File Write")
+    @Timespan
+    private long fileWrite;
+
+    private ScreenshotSaveEvent(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Creates and begins the event; commit it when the save ends.
+     */
+    public static ScreenshotSaveEvent start(String sessionId) {
+        ScreenshotSaveEvent event = new ScreenshotSaveEvent(sessionId);
+        event.begin();
+        return event;
+    }
+
+    public void setFileWrite(long bytes, long fileWriteNanos) {
+        this.bytes = bytes;
+        this.fileWrite = fileWriteNanos;
+    }
+}
@@ -0,0 +1,58 @@
+package com.monitoring.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One phase of starting a work session: looking up the user, loading the
+ * login rule named in the session token, checking the rule, stopping the
+ * user's previous ACTIVE sessions, saving the new one, or broadcasting it.
+ */
+@Name("com.monitoring.SessionStartPhase")
+@Label("Session Start Phase")
+@Category({ "Employee Monitoring", "Sessions" })
+@Description("A phase of SessionService.startSession")
+@Enabled(false)
+@StackTrace(false)
+public class SessionStartPhaseEvent extends Event {
+
+    public static final String USER_LOOKUP = "user-lookup";
+    public static final String RULE_LOOKUP = "rule-lookup";
+    public static final String TRACKING_CHECK = "tracking-check";
+    public static final String STOP_PREVIOUS = "stop-previous";
+    public static final String SAVE = "save";
+    public static final String PUBLISH = "publish";
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("User ID")
+    private String userId;
+
+    @Label("Sessions Stopped")
+    @Description("Previous ACTIVE sessions stopped, for the stop-previous phase")
+    private int sessionsStopped;
+
+    private SessionStartPhaseEvent(String phase, String userId) {
+        this.phase = phase;
+        this.userId = userId;
+    }
+
+    /**
+     * Creates and begins the event; commit it when the phase ends.
+     */
+    public static SessionStartPhaseEvent start(String phase, String userId) {
+        SessionStartPhaseEvent event = new SessionStartPhaseEvent(phase, userId);
+        event.begin();
+        return event;
+    }
+
+    public void setSessionsStopped(int sessionsStopped) {
+        this.sessionsStopped = sessionsStopped;
+    }
+}
@@ -0,0 +1,42 @@
+package com.monitoring.repository;
+
+import com.monitoring.dto.AppUsageResponse;
+import com.monitoring.entity.AppUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AppUsageRepository extends JpaRepository<AppUsage, Long> {
+
+    /**
+     * Adds to the row for the session, day and app, creating it if needed, in
+     * one statement: INSERT ... ON CONFLICT DO UPDATE on PostgreSQL, MERGE on
+     * H2.
+     */
+    @Modifying
+    @Query("insert into AppUsage a (sessionId, usageDate, appName, durationMillis, spans) "
+            + "values (:sessionId, :date, :app, :millis, :spans) "
+            + "on conflict (sessionId, usageDate, appName) do update "
+            + "set durationMillis = a.durationMillis + excluded.durationMillis, spans = a.spans + excluded.spans")
+    void addUsage(@Param("sessionId") UUID sessionId, @Param("date") LocalDate date, @Param("app") String app,
+            @Param("millis") long millis, @Param("spans") long spans);
+
+    @Query("select new com.monitoring.dto.AppUsageResponse(a.appName, sum(a.durationMillis), sum(a.spans)) "
+            + "from AppUsage a where a.sessionId = :sessionId "
+            + "group by a.appName order by sum(a.durationMillis) desc")
+    List<AppUsageResponse> sumBySession(@Param("sessionId") UUID sessionId);
+
+    @Query("select new com.monitoring.dto.AppUsageResponse(a.appName, sum(a.durationMillis), sum(a.spans)) "
+            + "from AppUsage a, WorkSession s where s.id = a.sessionId and s.userId = :userId "
+            + "and a.usageDate between :from and :to "
+            + "group by a.appName order by sum(a.durationMillis) desc")
+    List<AppUsageResponse> sumByUser(@Param("userId") String userId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+}
@@ -0,0 +1,30 @@
+package com.monitoring.repository;
+
+import com.monitoring.entity.ReauthToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReauthTokenRepository extends JpaRepository<ReauthToken, String> {
+
+    /**
+     * Deletes the token if it belongs to the user and hasn't expired. Only one
+     * of several concurrent callers, on any node, gets 1.
+     *
+     * @return 1 if the token was valid, else 0
+     */
+    @Modifying
+    @Query("delete from ReauthToken t where t.tokenHash = :hash and t.userId = :userId and t.expiresAtMillis > :now")
+    int redeem(@Param("hash") String tokenHash, @Param("userId") String userId, @Param("now") long now);
+
+    @Modifying
+    @Query("delete from ReauthToken t where t.userId = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("delete from ReauthToken t where t.expiresAtMillis <= :now")
+    int deleteExpired(@Param("now") long now);
+}
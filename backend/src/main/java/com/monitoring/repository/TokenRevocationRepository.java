@@ -0,0 +1,20 @@
+package com.monitoring.repository;
+
+import com.monitoring.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, String> {
+
+    List<TokenRevocation> findByRevokedAtMillisGreaterThan(long cutoff);
+
+    @Modifying
+    @Query("delete from TokenRevocation r where r.revokedAtMillis <= :cutoff")
+    int deleteOlderThan(@Param("cutoff") long cutoff);
+}
@@ -4,6 +4,7 @@ import com.monitoring.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +19,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Used to prevent deletion of rules that are in use.
      */
     long countByLoginRuleId(Long loginRuleId);
+
+    List<User> findByLoginRuleId(Long loginRuleId);
 }
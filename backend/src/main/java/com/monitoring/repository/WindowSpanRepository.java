@@ -0,0 +1,26 @@
+package com.monitoring.repository;
+
+import com.monitoring.entity.WindowSpan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface WindowSpanRepository extends JpaRepository<WindowSpan, Long> {
+
+    /**
+     * Which of the given start times the session already has spans for.
+     */
+    @Query("select w.startedAt from WindowSpan w where w.sessionId = :sessionId and w.startedAt in :starts")
+    Set<LocalDateTime> findStoredStarts(@Param("sessionId") UUID sessionId,
+            @Param("starts") Collection<LocalDateTime> starts);
+
+    List<WindowSpan> findBySessionIdOrderByStartedAtAsc(UUID sessionId);
+}
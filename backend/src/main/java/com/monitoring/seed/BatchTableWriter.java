@@ -0,0 +1,96 @@
+package com.monitoring.seed;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Loads rows with batched JDBC inserts, committing every batch. Used for
+ * databases without COPY, such as H2.
+ */
+final class BatchTableWriter implements SeedTableWriter {
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private final boolean autoCommit;
+    private int column = 1;
+    private int batched;
+
+    BatchTableWriter(Connection connection, int batchSize, String table, String... columns) throws SQLException {
+        this.connection = connection;
+        this.batchSize = Math.max(1, batchSize);
+        this.autoCommit = connection.getAutoCommit();
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        this.statement = connection.prepareStatement(
+                "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")");
+        connection.setAutoCommit(false);
+    }
+
+    @Override
+    public SeedTableWriter uuid(UUID value) throws SQLException {
+        statement.setObject(column++, value);
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter text(String value) throws SQLException {
+        statement.setString(column++, value);
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter number(long value) throws SQLException {
+        statement.setLong(column++, value);
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter bool(boolean value) throws SQLException {
+        statement.setBoolean(column++, value);
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter timestamp(long epochSecond) throws SQLException {
+        statement.setObject(column++, LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC));
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter nullValue(int sqlType) throws SQLException {
+        statement.setNull(column++, sqlType);
+        return this;
+    }
+
+    @Override
+    public void endRow() throws SQLException {
+        statement.addBatch();
+        column = 1;
+        if (++batched == batchSize) {
+            executeBatch();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (batched > 0) {
+                executeBatch();
+            }
+        } finally {
+            statement.close();
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void executeBatch() throws SQLException {
+        statement.executeBatch();
+        connection.commit();
+        batched = 0;
+    }
+}
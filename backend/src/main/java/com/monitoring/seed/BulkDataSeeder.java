@@ -0,0 +1,370 @@
+package com.monitoring.seed;
+
+import com.monitoring.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills the database with production-size synthetic data, so queries,
+ * indexes, partitioning and rollups can be measured at scale. Only active
+ * with the {@code bulk-seed} profile; see application-bulk-seed.yml for the
+ * size settings.
+ *
+ * Each user gets a usual start time, day length and tendency to go idle.
+ * They work on weekdays, miss some days, sometimes split the day at lunch,
+ * and alternate between active and idle streaks within a session. All data
+ * derives from a fixed seed, so two runs with the same settings produce the
+ * same rows.
+ *
+ * Users are split into chunks seeded in parallel, each on its own
+ * connection. On PostgreSQL rows go in through COPY; elsewhere through
+ * batched inserts. Seeding is skipped if the first seed user already exists.
+ */
+@Component
+@Profile("bulk-seed")
+@Order(10) // After the sample data seeders
+@RequiredArgsConstructor
+@Slf4j
+public class BulkDataSeeder implements CommandLineRunner {
+
+    private static final String[] USER_COLUMNS = { "user_id", "password", "first_name", "last_name", "job_role",
+            "phone_number", "status", "created_at" };
+    private static final String[] SESSION_COLUMNS = { "id", "user_id", "start_time", "end_time",
+            "idle_warning_sent", "task_name", "estimated_duration_minutes", "status" };
+    private static final String[] ACTIVITY_COLUMNS = { "session_id", "logged_at", "activity_status", "metadata" };
+    private static final String[] SCREENSHOT_COLUMNS = { "session_id", "captured_at", "file_path", "file_size",
+            "metadata", "capture_group_id", "display_index", "display_count" };
+
+    private static final String[] FIRST_NAMES = { "Alice", "Bob", "Chamari", "Dinesh", "Emma", "Farhan", "Grace",
+            "Hiroshi", "Isuru", "Julia", "Kasun", "Laura", "Mohamed", "Nadia", "Oscar", "Priya" };
+    private static final String[] LAST_NAMES = { "Johnson", "Smith", "Perera", "Fernando", "Brown", "Silva",
+            "Garcia", "Tanaka", "Jayasuriya", "Muller", "Khan", "Wilson" };
+    private static final String[] JOB_ROLES = { "Software Engineer", "QA Engineer", "Product Manager",
+            "Designer", "DevOps Engineer", "Business Analyst", "Support Engineer" };
+    private static final String[] TASKS = { "Feature development", "Code review", "Bug fixing", "Testing",
+            "Documentation", "Meetings", "Design review", "Customer support" };
+    private static final String[] WINDOWS = {
+            "{\"windowTitle\":\"Visual Studio Code\",\"processName\":\"Code.exe\"}",
+            "{\"windowTitle\":\"Chrome - Stack Overflow\",\"processName\":\"chrome.exe\"}",
+            "{\"windowTitle\":\"Slack - Engineering Team\",\"processName\":\"slack.exe\"}",
+            "{\"windowTitle\":\"Figma - Design Review\",\"processName\":\"Figma.exe\"}",
+            "{\"windowTitle\":\"IntelliJ IDEA\",\"processName\":\"idea64.exe\"}",
+            "{\"windowTitle\":\"Microsoft Teams\",\"processName\":\"ms-teams.exe\"}",
+            "{\"windowTitle\":\"Outlook - Inbox\",\"processName\":\"OUTLOOK.EXE\"}" };
+
+    private static final double ABSENCE_RATE = 0.08;
+    private static final double LUNCH_SPLIT_RATE = 0.3;
+    // Chance per heartbeat that an idle user becomes active again
+    private static final double IDLE_RECOVERY_RATE = 0.35;
+
+    private final DataSource dataSource;
+    private final UserRepository userRepository;
+    private final BCryptPasswordEncoder passwordEncoder;
+
+    @Value("${monitoring.seed.bulk.users:10000}")
+    private int users;
+
+    @Value("${monitoring.seed.bulk.days:730}")
+    private int days;
+
+    @Value("${monitoring.seed.bulk.heartbeat-interval-seconds:120}")
+    private int heartbeatIntervalSeconds;
+
+    @Value("${monitoring.seed.bulk.screenshot-interval-minutes:30}")
+    private int screenshotIntervalMinutes;
+
+    // 0 = one per CPU core
+    @Value("${monitoring.seed.bulk.threads:0}")
+    private int threads;
+
+    @Value("${monitoring.seed.bulk.users-per-chunk:50}")
+    private int usersPerChunk;
+
+    // Rows per batch when COPY isn't available
+    @Value("${monitoring.seed.bulk.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${monitoring.seed.bulk.user-prefix:seed-}")
+    private String userPrefix;
+
+    @Value("${monitoring.seed.bulk.password:password123}")
+    private String password;
+
+    @Value("${monitoring.seed.bulk.random-seed:42}")
+    private long randomSeed;
+
+    private final LongAdder sessionRows = new LongAdder();
+    private final LongAdder activityRows = new LongAdder();
+    private final LongAdder screenshotRows = new LongAdder();
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (userRepository.existsByUserId(userId(0))) {
+            log.info("Bulk seed data already present ({} exists), skipping", userId(0));
+            return;
+        }
+
+        boolean copy = supportsCopy();
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        LocalDate firstDay = LocalDate.now().minusDays(days);
+        log.info("Bulk seeding {} users over {} days from {}, heartbeat every {}s, screenshot every {} min, "
+                + "{} threads, {}", users, days, firstDay, heartbeatIntervalSeconds, screenshotIntervalMinutes,
+                workers, copy ? "COPY" : "JDBC batch inserts");
+        long start = System.nanoTime();
+
+        seedUsers(copy, firstDay);
+
+        AtomicInteger usersDone = new AtomicInteger();
+        List<Future<?>> chunks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers)) {
+            for (int from = 0; from < users; from += usersPerChunk) {
+                int chunkStart = from;
+                int chunkEnd = Math.min(users, from + usersPerChunk);
+                chunks.add(executor.submit(() -> {
+                    seedChunk(chunkStart, chunkEnd, firstDay, copy);
+                    logProgress(usersDone.addAndGet(chunkEnd - chunkStart), start);
+                    return null;
+                }));
+            }
+            try {
+                for (Future<?> chunk : chunks) {
+                    chunk.get();
+                }
+            } catch (ExecutionException e) {
+                // Don't start the remaining chunks
+                executor.shutdownNow();
+                throw e;
+            }
+        }
+
+        if (copy) {
+            analyze();
+        }
+        log.info("Bulk seeding done in {}s: {} users, {} sessions, {} activity logs, {} screenshots",
+                (System.nanoTime() - start) / 1_000_000_000, users, sessionRows.sum(), activityRows.sum(),
+                screenshotRows.sum());
+    }
+
+    private void seedUsers(boolean copy, LocalDate firstDay) throws SQLException {
+        // Hashing once keeps BCrypt out of the seeding time
+        String passwordHash = passwordEncoder.encode(password);
+        long createdAt = firstDay.toEpochDay() * 86400;
+
+        try (Connection connection = dataSource.getConnection();
+                SeedTableWriter writer = writer(connection, copy, "users", USER_COLUMNS)) {
+            for (int i = 0; i < users; i++) {
+                SplittableRandom random = userRandom(i);
+                writer.text(userId(i))
+                        .text(passwordHash)
+                        .text(pick(FIRST_NAMES, random))
+                        .text(pick(LAST_NAMES, random))
+                        .text(pick(JOB_ROLES, random))
+                        .text(String.format("07%08d", i))
+                        .text("ACTIVE")
+                        .timestamp(createdAt)
+                        .endRow();
+            }
+        }
+    }
+
+    /**
+     * Sessions of a few users, then their heartbeats and screenshots. Only
+     * the sessions are held in memory; heartbeats are generated while they
+     * are written.
+     */
+    private void seedChunk(int from, int to, LocalDate firstDay, boolean copy) throws SQLException {
+        List<SeedSession> sessions = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            generateSessions(i, firstDay, sessions);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (SeedTableWriter writer = writer(connection, copy, "work_sessions", SESSION_COLUMNS)) {
+                for (SeedSession session : sessions) {
+                    writer.uuid(session.id())
+                            .text(session.userId())
+                            .timestamp(session.start())
+                            .timestamp(session.end())
+                            .bool(false)
+                            .text(session.taskName())
+                            .number(session.estimatedMinutes())
+                            .text("STOPPED")
+                            .endRow();
+                }
+            }
+            sessionRows.add(sessions.size());
+
+            try (SeedTableWriter writer = writer(connection, copy, "activity_logs", ACTIVITY_COLUMNS)) {
+                for (SeedSession session : sessions) {
+                    activityRows.add(writeHeartbeats(session, writer));
+                }
+            }
+
+            try (SeedTableWriter writer = writer(connection, copy, "screenshots", SCREENSHOT_COLUMNS)) {
+                for (SeedSession session : sessions) {
+                    screenshotRows.add(writeScreenshots(session, writer));
+                }
+            }
+        }
+    }
+
+    private void generateSessions(int userIndex, LocalDate firstDay, List<SeedSession> sessions) {
+        SplittableRandom random = userRandom(userIndex);
+        String userId = userId(userIndex);
+        // Skip the name and role drawn by seedUsers
+        pick(FIRST_NAMES, random);
+        pick(LAST_NAMES, random);
+        pick(JOB_ROLES, random);
+
+        int usualStart = 8 * 3600 + random.nextInt(2 * 3600);
+        int usualLength = 7 * 3600 + random.nextInt(2 * 3600);
+        double idleRate = 0.02 + random.nextDouble() * 0.06;
+
+        for (int d = 0; d < days; d++) {
+            LocalDate day = firstDay.plusDays(d);
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY
+                    || random.nextDouble() < ABSENCE_RATE) {
+                continue;
+            }
+            long start = day.toEpochDay() * 86400 + usualStart + (long) (random.nextGaussian() * 1200);
+            long length = Math.max(3600, usualLength + (long) (random.nextGaussian() * 2700));
+            String task = pick(TASKS, random);
+            long estimate = (length / 3600 + 1) * 60;
+
+            if (random.nextDouble() < LUNCH_SPLIT_RATE) {
+                long morning = length * (45 + random.nextInt(10)) / 100;
+                long lunch = 1800 + random.nextInt(1800);
+                sessions.add(new SeedSession(uuid(random), userId, start, start + morning, task, estimate,
+                        idleRate, random.nextLong()));
+                sessions.add(new SeedSession(uuid(random), userId, start + morning + lunch, start + length + lunch,
+                        pick(TASKS, random), estimate, idleRate, random.nextLong()));
+            } else {
+                sessions.add(new SeedSession(uuid(random), userId, start, start + length, task, estimate,
+                        idleRate, random.nextLong()));
+            }
+        }
+    }
+
+    /**
+     * Heartbeats every interval with a couple of seconds of jitter. Activity
+     * alternates between active and idle streaks; users go idle more easily
+     * in the afternoon.
+     */
+    private int writeHeartbeats(SeedSession session, SeedTableWriter writer) throws SQLException {
+        SplittableRandom random = new SplittableRandom(session.seed());
+        boolean active = true;
+        int rows = 0;
+        for (long t = session.start(); t < session.end(); t += heartbeatIntervalSeconds) {
+            int hour = (int) Math.floorMod(t, 86400) / 3600;
+            double idleRate = hour >= 13 && hour < 16 ? session.idleRate() * 1.5 : session.idleRate();
+            if (active ? random.nextDouble() < idleRate : random.nextDouble() < IDLE_RECOVERY_RATE) {
+                active = !active;
+            }
+            writer.uuid(session.id())
+                    .timestamp(t + random.nextInt(3))
+                    .text(active ? "ACTIVE" : "IDLE")
+                    .nullValue(Types.VARCHAR)
+                    .endRow();
+            rows++;
+        }
+        return rows;
+    }
+
+    private int writeScreenshots(SeedSession session, SeedTableWriter writer) throws SQLException {
+        SplittableRandom random = new SplittableRandom(~session.seed());
+        long interval = screenshotIntervalMinutes * 60L;
+        int rows = 0;
+        for (long t = session.start() + interval; t < session.end(); t += interval) {
+            writer.uuid(session.id())
+                    .timestamp(t)
+                    .text("./screenshots/" + session.userId() + "/seed_" + t + ".jpg")
+                    .number(80_000 + random.nextInt(320_000))
+                    .text(pick(WINDOWS, random))
+                    .uuid(uuid(random))
+                    .number(0)
+                    .number(1)
+                    .endRow();
+            rows++;
+        }
+        return rows;
+    }
+
+    private SeedTableWriter writer(Connection connection, boolean copy, String table, String... columns)
+            throws SQLException {
+        return copy ? new CopyTableWriter(connection, table, columns)
+                : new BatchTableWriter(connection, batchSize, table, columns);
+    }
+
+    private boolean supportsCopy() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isWrapperFor(PGConnection.class);
+        }
+    }
+
+    private void analyze() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String table : List.of("users", "work_sessions", "activity_logs", "screenshots")) {
+                statement.execute("ANALYZE " + table);
+            }
+        }
+    }
+
+    private void logProgress(int usersDone, long startNanos) {
+        long seconds = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000_000);
+        long rows = sessionRows.sum() + activityRows.sum() + screenshotRows.sum();
+        log.info("Seeded {}/{} users: {} sessions, {} activity logs, {} screenshots ({} rows/s)", usersDone, users,
+                sessionRows.sum(), activityRows.sum(), screenshotRows.sum(), rows / seconds);
+    }
+
+    private String userId(int index) {
+        return userPrefix + String.format("%05d", index);
+    }
+
+    private SplittableRandom userRandom(int userIndex) {
+        return new SplittableRandom(randomSeed * 1_000_003 + userIndex);
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Random (version 4) UUID from the seeded generator
+    private static UUID uuid(SplittableRandom random) {
+        long most = (random.nextLong() & 0xffff_ffff_ffff_0fffL) | 0x0000_0000_0000_4000L;
+        long least = (random.nextLong() & 0x3fff_ffff_ffff_ffffL) | 0x8000_0000_0000_0000L;
+        return new UUID(most, least);
+    }
+
+    /**
+     * @param start Wall-clock epoch seconds
+     * @param seed  Seed for the session's heartbeats and screenshots
+     */
+    private record SeedSession(UUID id, String userId, long start, long end, String taskName,
+            long estimatedMinutes, double idleRate, long seed) {
+    }
+}
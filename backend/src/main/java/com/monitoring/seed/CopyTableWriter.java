@@ -0,0 +1,153 @@
+package com.monitoring.seed;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Loads rows with PostgreSQL {@code COPY ... FROM STDIN} in CSV format,
+ * sending about a megabyte at a time. The whole table load is one COPY, so
+ * it commits when the writer is closed.
+ */
+final class CopyTableWriter implements SeedTableWriter {
+
+    private static final int FLUSH_CHARS = 1 << 20;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 4096);
+    private boolean firstColumn = true;
+
+    // Heartbeats of a session share its id and mostly its date, so both
+    // are formatted once
+    private UUID lastUuid;
+    private String lastUuidText;
+    private long lastDay = Long.MIN_VALUE;
+    private String lastDayText;
+
+    CopyTableWriter(Connection connection, String table, String... columns) throws SQLException {
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN (FORMAT csv)";
+        this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    }
+
+    @Override
+    public SeedTableWriter uuid(UUID value) {
+        if (value != lastUuid) {
+            lastUuid = value;
+            lastUuidText = value.toString();
+        }
+        separator().append(lastUuidText);
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter text(String value) {
+        separator();
+        if (value.isEmpty()) {
+            // An unquoted empty value would be read as NULL
+            buffer.append("\"\"");
+        } else if (needsQuotes(value)) {
+            buffer.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        } else {
+            buffer.append(value);
+        }
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter number(long value) {
+        separator().append(value);
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter bool(boolean value) {
+        separator().append(value ? 't' : 'f');
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter timestamp(long epochSecond) {
+        long day = Math.floorDiv(epochSecond, 86400);
+        if (day != lastDay) {
+            lastDay = day;
+            lastDayText = LocalDate.ofEpochDay(day) + " ";
+        }
+        int secondOfDay = (int) Math.floorMod(epochSecond, 86400);
+        separator().append(lastDayText);
+        twoDigits(secondOfDay / 3600).append(':');
+        twoDigits(secondOfDay / 60 % 60).append(':');
+        twoDigits(secondOfDay % 60);
+        return this;
+    }
+
+    @Override
+    public SeedTableWriter nullValue(int sqlType) {
+        separator();
+        return this;
+    }
+
+    @Override
+    public void endRow() throws SQLException {
+        buffer.append('\n');
+        firstColumn = true;
+        if (buffer.length() >= FLUSH_CHARS) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private StringBuilder separator() {
+        if (!firstColumn) {
+            buffer.append(',');
+        }
+        firstColumn = false;
+        return buffer;
+    }
+
+    private StringBuilder twoDigits(int value) {
+        return buffer.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.monitoring.seed;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Streams rows into one table for the bulk seeder. Values are set column by
+ * column in the order the writer was created with, then the row is ended.
+ * Closing the writer loads whatever is still buffered.
+ */
+interface SeedTableWriter extends AutoCloseable {
+
+    SeedTableWriter uuid(UUID value) throws SQLException;
+
+    SeedTableWriter text(String value) throws SQLException;
+
+    SeedTableWriter number(long value) throws SQLException;
+
+    SeedTableWriter bool(boolean value) throws SQLException;
+
+    /**
+     * @param epochSecond Wall-clock time as seconds since 1970-01-01T00:00,
+     *                    without a zone, like the LocalDateTime columns
+     */
+    SeedTableWriter timestamp(long epochSecond) throws SQLException;
+
+    /**
+     * @param sqlType The column's {@link java.sql.Types} type
+     */
+    SeedTableWriter nullValue(int sqlType) throws SQLException;
+
+    void endRow() throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,111 @@
+package com.monitoring.service;
+
+import com.monitoring.dto.ActivityLogResponse;
+import com.monitoring.dto.ActivitySnapshot;
+import com.monitoring.dto.WebSocketEventDTO;
+import com.monitoring.entity.ActivityLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fan-out stage between activity ingestion and STOMP.
+ *
+ * Agents heartbeat every few seconds, but the status rarely changes, so only
+ * transitions (or the first heartbeat of a session) are published to
+ * {@code /topic/activity/{sessionId}}. Every tick, a single compact
+ * {@link ActivitySnapshot} on {@code /topic/activity} lists the sessions whose
+ * status differs from the one last published in a snapshot, so dashboards
+ * watching all sessions get one frame per tick with only what changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityEventCoalescer {
+
+    public static final String ACTIVITY_DESTINATION = "/topic/activity";
+
+    // Sessions that haven't reported for this long are forgotten
+    private static final long STALE_MINUTES = 30;
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final Map<UUID, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Map<UUID, ActivityLog.ActivityStatus> reportedSinceTick = new ConcurrentHashMap<>();
+    // Status of each session as of the last snapshot it appeared in
+    private final Map<UUID, ActivityLog.ActivityStatus> published = new ConcurrentHashMap<>();
+
+    private long tick;
+
+    /**
+     * Records a saved heartbeat and publishes it if the session's status changed.
+     */
+    public void onActivity(ActivityLog activityLog) {
+        UUID sessionId = activityLog.getSessionId();
+        ActivityLog.ActivityStatus status = activityLog.getActivityStatus();
+        reportedSinceTick.put(sessionId, status);
+
+        SessionState previous = sessions.put(sessionId, new SessionState(status, System.currentTimeMillis()));
+        if (previous == null || previous.status() != status) {
+            publishTransition(activityLog);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${monitoring.websocket.activity.snapshot-interval-ms:5000}")
+    public void publishSnapshot() {
+        if (!reportedSinceTick.isEmpty()) {
+            Map<UUID, ActivityLog.ActivityStatus> statuses = new HashMap<>();
+            for (UUID sessionId : reportedSinceTick.keySet()) {
+                ActivityLog.ActivityStatus status = reportedSinceTick.remove(sessionId);
+                if (status != null && published.put(sessionId, status) != status) {
+                    statuses.put(sessionId, status);
+                }
+            }
+            if (!statuses.isEmpty()) {
+                send(ACTIVITY_DESTINATION, WebSocketEventDTO.of(WebSocketEventDTO.EventType.ACTIVITY_SNAPSHOT,
+                        new ActivitySnapshot(++tick, LocalDateTime.now(), statuses)));
+            }
+        }
+
+        long cutoff = System.currentTimeMillis() - STALE_MINUTES * 60_000;
+        sessions.values().removeIf(state -> state.lastReportedMillis() < cutoff);
+        published.keySet().retainAll(sessions.keySet());
+    }
+
+    /**
+     * Drops the remembered status, e.g. when the session ends, so a new
+     * heartbeat for the same id is treated as a transition again.
+     */
+    public void forget(UUID sessionId) {
+        sessions.remove(sessionId);
+        reportedSinceTick.remove(sessionId);
+        published.remove(sessionId);
+    }
+
+    private void publishTransition(ActivityLog activityLog) {
+        WebSocketEventDTO event = WebSocketEventDTO.of(WebSocketEventDTO.EventType.ACTIVITY_LOGGED,
+                ActivityLogResponse.from(activityLog));
+        send(ACTIVITY_DESTINATION + "/" + activityLog.getSessionId(), event);
+        log.debug("Published activity transition for session {}: {}",
+                activityLog.getSessionId(), activityLog.getActivityStatus());
+    }
+
+    private void send(String destination, WebSocketEventDTO event) {
+        try {
+            messagingTemplate.convertAndSend(destination, event);
+        } catch (Exception e) {
+            log.error("Failed to publish activity event to {}", destination, e);
+        }
+    }
+
+    private record SessionState(ActivityLog.ActivityStatus status, long lastReportedMillis) {
+    }
+}
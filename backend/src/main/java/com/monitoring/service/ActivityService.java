@@ -1,16 +1,17 @@
 package com.monitoring.service;
 
-import com.monitoring.dto.ActivityLogResponse;
-import com.monitoring.dto.WebSocketEventDTO;
+import com.monitoring.dto.LogActivityRequest;
 import com.monitoring.entity.ActivityLog;
 import com.monitoring.repository.ActivityLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -19,36 +20,71 @@ import java.util.UUID;
 public class ActivityService {
 
     private final ActivityLogRepository activityLogRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ActivityEventCoalescer activityEventCoalescer;
+    private final PresenceRegistry presenceRegistry;
+    private final AppUsageService appUsageService;
+    private final AgentTelemetryService agentTelemetryService;
 
     @Transactional
-    public ActivityLog logActivity(UUID sessionId, ActivityLog.ActivityStatus status, String metadata) {
+    public ActivityLog logActivity(LogActivityRequest request) {
         ActivityLog activityLog = new ActivityLog();
-        activityLog.setSessionId(sessionId);
-        activityLog.setActivityStatus(status);
-        activityLog.setMetadata(metadata);
+        activityLog.setSessionId(request.getSessionId());
+        activityLog.setActivityStatus(request.getActivityStatus());
+        activityLog.setMetadata(request.getMetadata());
+        activityLog.setIntensity(request.getIntensity());
 
         ActivityLog savedLog = activityLogRepository.save(activityLog);
-        log.debug("Logged activity for session {}: {}", sessionId, status);
+        log.debug("Logged activity for session {}: {}", request.getSessionId(), request.getActivityStatus());
+        appUsageService.recordSpans(request.getSessionId(), request.getWindowSpans());
+        agentTelemetryService.record(request.getTelemetry());
 
-        // Broadcast activity log via WebSocket
-        publishActivityEvent(savedLog);
+        // Broadcast status transitions via WebSocket
+        activityEventCoalescer.onActivity(savedLog);
+        presenceRegistry.heartbeat(savedLog);
 
         return savedLog;
     }
 
-    public List<ActivityLog> getActivityLogs(UUID sessionId) {
-        return activityLogRepository.findBySessionIdOrderByLoggedAtAsc(sessionId);
-    }
+    /**
+     * Store a batch of heartbeats, typically replayed from an agent's offline
+     * outbox. Each entry keeps its client timestamp, and only the most recent
+     * entry per session is broadcast so a replay doesn't flood dashboards.
+     */
+    @Transactional
+    public List<ActivityLog> logActivities(List<LogActivityRequest> requests) {
+        List<ActivityLog> logs = new ArrayList<>(requests.size());
+        for (LogActivityRequest request : requests) {
+            ActivityLog activityLog = new ActivityLog();
+            activityLog.setSessionId(request.getSessionId());
+            activityLog.setActivityStatus(request.getActivityStatus());
+            activityLog.setMetadata(request.getMetadata());
+            activityLog.setIntensity(request.getIntensity());
+            activityLog.setLoggedAt(ClientTimestamps.toLocalDateTime(request.getClientTimestamp()));
+            logs.add(activityLog);
+        }
+
+        List<ActivityLog> savedLogs = activityLogRepository.saveAll(logs);
+        log.debug("Logged batch of {} activity entries", savedLogs.size());
+        for (LogActivityRequest request : requests) {
+            appUsageService.recordSpans(request.getSessionId(), request.getWindowSpans());
+            agentTelemetryService.record(request.getTelemetry());
+        }
 
-    private void publishActivityEvent(ActivityLog activityLog) {
-        try {
-            ActivityLogResponse response = ActivityLogResponse.from(activityLog);
-            WebSocketEventDTO event = WebSocketEventDTO.of(WebSocketEventDTO.EventType.ACTIVITY_LOGGED, response);
-            messagingTemplate.convertAndSend("/topic/activity/" + activityLog.getSessionId(), event);
-            log.debug("Published activity event for session {}", activityLog.getSessionId());
-        } catch (Exception e) {
-            log.error("Failed to publish activity event", e);
+        Map<UUID, ActivityLog> latestBySession = new LinkedHashMap<>();
+        for (ActivityLog savedLog : savedLogs) {
+            latestBySession.merge(savedLog.getSessionId(), savedLog,
+                    (current, candidate) -> candidate.getLoggedAt().isBefore(current.getLoggedAt()) ? current
+                            : candidate);
         }
+        for (ActivityLog latest : latestBySession.values()) {
+            activityEventCoalescer.onActivity(latest);
+            presenceRegistry.heartbeat(latest);
+        }
+
+        return savedLogs;
+    }
+
+    public List<ActivityLog> getActivityLogs(UUID sessionId) {
+        return activityLogRepository.findBySessionIdOrderByLoggedAtAsc(sessionId);
     }
 }
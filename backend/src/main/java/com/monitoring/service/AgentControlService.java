@@ -0,0 +1,53 @@
+package com.monitoring.service;
+
+import com.monitoring.dto.AgentControlMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pushes commands to desktop agents over STOMP, so agents learn about session
+ * stops, rule changes and config updates immediately instead of polling.
+ *
+ * Each agent subscribes to {@code /topic/control/{userId}} for its own user and
+ * to {@code /topic/control} for fleet-wide messages. Subscribing to a user's
+ * destination takes that user's session token (see
+ * {@code ControlSubscriptionInterceptor}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgentControlService {
+
+    public static final String CONTROL_DESTINATION = "/topic/control";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public void sessionStopped(String userId, UUID sessionId, String reason) {
+        send(CONTROL_DESTINATION + "/" + userId, AgentControlMessage.sessionStopped(sessionId, reason));
+    }
+
+    public void ruleChanged(String userId, Long loginRuleId) {
+        send(CONTROL_DESTINATION + "/" + userId, AgentControlMessage.ruleChanged(loginRuleId));
+    }
+
+    /**
+     * Broadcast agent settings to every connected agent.
+     */
+    public void configUpdated(Map<String, String> settings) {
+        send(CONTROL_DESTINATION, AgentControlMessage.configUpdated(settings));
+    }
+
+    private void send(String destination, AgentControlMessage message) {
+        try {
+            messagingTemplate.convertAndSend(destination, message);
+            log.debug("Sent {} to {}", message.getCommand(), destination);
+        } catch (Exception e) {
+            log.error("Failed to send agent control message to {}", destination, e);
+        }
+    }
+}
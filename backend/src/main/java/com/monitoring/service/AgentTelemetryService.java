@@ -0,0 +1,175 @@
+package com.monitoring.service;
+
+import com.monitoring.dto.AgentTelemetryReport;
+import com.monitoring.dto.AgentTelemetryStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Fleet-wide view of the telemetry desktop agents report about themselves
+ * (CPU, memory, input rate, HTTP latency, outbox size).
+ *
+ * Reports are merged into one histogram per metric and minute, kept for
+ * {@code retention-minutes}; percentiles over a window come from adding up
+ * the bucket counts of its minutes. The data lives in memory on each node,
+ * so with several replicas each one covers the heartbeats it received.
+ */
+@Service
+@Slf4j
+public class AgentTelemetryService {
+
+    static final int BUCKETS = 256;
+    private static final long MINUTE_MILLIS = 60_000;
+    // Bounds what a misbehaving agent can make the backend keep
+    private static final int MAX_METRICS = 64;
+    private static final Pattern METRIC_NAME = Pattern.compile("[a-z0-9][a-z0-9._-]{0,63}");
+
+    @Value("${monitoring.agent-telemetry.retention-minutes:60}")
+    private int retentionMinutes;
+
+    private final ConcurrentNavigableMap<Long, Map<String, FleetHistogram>> minutes = new ConcurrentSkipListMap<>();
+
+    public void record(AgentTelemetryReport report) {
+        if (report == null || report.getHistograms() == null) {
+            return;
+        }
+        Map<String, FleetHistogram> slot = minutes.computeIfAbsent(currentMinute(),
+                minute -> new ConcurrentHashMap<>());
+        for (Map.Entry<String, AgentTelemetryReport.Histogram> entry : report.getHistograms().entrySet()) {
+            String metric = entry.getKey();
+            if (metric == null || entry.getValue() == null || !METRIC_NAME.matcher(metric).matches()) {
+                continue;
+            }
+            if (slot.size() >= MAX_METRICS && !slot.containsKey(metric)) {
+                log.debug("Ignoring agent telemetry metric {}: too many distinct metrics", metric);
+                continue;
+            }
+            slot.computeIfAbsent(metric, name -> new FleetHistogram()).merge(entry.getValue());
+        }
+    }
+
+    /**
+     * Percentiles per metric over the last {@code windowMinutes} minutes,
+     * capped at the retention.
+     */
+    public List<AgentTelemetryStats> getFleetStats(int windowMinutes) {
+        long from = currentMinute() - Math.min(Math.max(1, windowMinutes), retentionMinutes) + 1;
+        Map<String, FleetHistogram> merged = new TreeMap<>();
+        for (Map<String, FleetHistogram> slot : minutes.tailMap(from).values()) {
+            slot.forEach((metric, histogram) -> merged.computeIfAbsent(metric, name -> new FleetHistogram())
+                    .add(histogram));
+        }
+        return merged.entrySet().stream()
+                .map(entry -> entry.getValue().stats(entry.getKey()))
+                .toList();
+    }
+
+    @Scheduled(fixedDelay = MINUTE_MILLIS)
+    public void evictExpired() {
+        minutes.headMap(currentMinute() - retentionMinutes, true).clear();
+    }
+
+    /**
+     * The largest value bucket {@code bucket} can hold.
+     */
+    static long bucketMax(int bucket) {
+        int octave = bucket / 4;
+        int quarter = bucket % 4;
+        if (octave == 0) {
+            return 1;
+        }
+        if (octave == 1) {
+            // Only 2 and 3 fall into this octave
+            return quarter < 2 ? 2 : 3;
+        }
+        if (octave >= 61) {
+            return Long.MAX_VALUE;
+        }
+        return (5L + quarter) * (1L << (octave - 2)) - 1;
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / MINUTE_MILLIS;
+    }
+
+    private static final class FleetHistogram {
+        private final long[] counts = new long[BUCKETS];
+        private long reports;
+        private long count;
+        private long sum;
+        private long max;
+
+        synchronized void merge(AgentTelemetryReport.Histogram histogram) {
+            if (histogram.getBuckets() == null) {
+                return;
+            }
+            long merged = 0;
+            for (Map.Entry<Integer, Long> bucket : histogram.getBuckets().entrySet()) {
+                Integer index = bucket.getKey();
+                Long bucketCount = bucket.getValue();
+                if (index != null && index >= 0 && index < BUCKETS && bucketCount != null && bucketCount > 0) {
+                    counts[index] += bucketCount;
+                    merged += bucketCount;
+                }
+            }
+            if (merged == 0) {
+                return;
+            }
+            reports++;
+            count += merged;
+            sum += Math.max(0, histogram.getSum());
+            max = Math.max(max, histogram.getMax());
+        }
+
+        void add(FleetHistogram other) {
+            long[] otherCounts;
+            long otherReports;
+            long otherCount;
+            long otherSum;
+            long otherMax;
+            synchronized (other) {
+                otherCounts = other.counts.clone();
+                otherReports = other.reports;
+                otherCount = other.count;
+                otherSum = other.sum;
+                otherMax = other.max;
+            }
+            synchronized (this) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts[i] += otherCounts[i];
+                }
+                reports += otherReports;
+                count += otherCount;
+                sum += otherSum;
+                max = Math.max(max, otherMax);
+            }
+        }
+
+        synchronized AgentTelemetryStats stats(String metric) {
+            return new AgentTelemetryStats(metric, reports, count, count > 0 ? (double) sum / count : 0,
+                    percentile(0.50), percentile(0.90), percentile(0.99), max);
+        }
+
+        private long percentile(double quantile) {
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketMax(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
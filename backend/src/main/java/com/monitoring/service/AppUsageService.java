@@ -0,0 +1,124 @@
+package com.monitoring.service;
+
+import com.monitoring.dto.AppUsageResponse;
+import com.monitoring.dto.WindowSpanRequest;
+import com.monitoring.dto.WindowSpanResponse;
+import com.monitoring.entity.WindowSpan;
+import com.monitoring.repository.AppUsageRepository;
+import com.monitoring.repository.WindowSpanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stores the foreground window spans agents send with heartbeats and keeps
+ * time per application, session and day up to date as they arrive, so usage
+ * queries read a few pre-summed rows instead of parsing window metadata.
+ *
+ * Spans already stored for the session with the same start time are
+ * skipped, together with their usage, so a batch the agent replays after a
+ * lost response isn't counted twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppUsageService {
+
+    private static final int MAX_NAME_LENGTH = 255;
+    // Longer spans come from a broken agent clock
+    private static final Duration MAX_SPAN = Duration.ofDays(1);
+
+    private final WindowSpanRepository windowSpanRepository;
+    private final AppUsageRepository appUsageRepository;
+
+    /**
+     * Runs in the caller's transaction, so spans are stored together with the
+     * heartbeat that carried them.
+     */
+    @Transactional
+    public void recordSpans(UUID sessionId, List<WindowSpanRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return;
+        }
+        List<WindowSpan> spans = new ArrayList<>(requests.size());
+        for (WindowSpanRequest request : requests) {
+            LocalDateTime start = ClientTimestamps.toLocalDateTime(request.getStart());
+            LocalDateTime end = ClientTimestamps.toLocalDateTime(request.getEnd());
+            if (!start.isBefore(end) || Duration.between(start, end).compareTo(MAX_SPAN) > 0) {
+                log.debug("Ignoring window span {} - {} for session {}", start, end, sessionId);
+                continue;
+            }
+            spans.add(new WindowSpan(null, sessionId, truncate(request.getApp()), truncate(request.getTitle()),
+                    start, end));
+        }
+        if (spans.isEmpty()) {
+            return;
+        }
+
+        // Drop spans stored before, or twice in this batch. One query covers the
+        // batch; the unique constraint still rejects a replay racing the original
+        Set<LocalDateTime> seen = new HashSet<>(windowSpanRepository.findStoredStarts(sessionId,
+                spans.stream().map(WindowSpan::getStartedAt).toList()));
+        if (spans.removeIf(span -> !seen.add(span.getStartedAt()))) {
+            log.debug("Skipping window spans already stored for session {}", sessionId);
+        }
+        windowSpanRepository.saveAll(spans);
+
+        Map<UsageKey, long[]> usage = new HashMap<>();
+        for (WindowSpan span : spans) {
+            String app = span.getAppName();
+            LocalDateTime end = span.getEndedAt();
+
+            // Split at midnight so each day gets its own share
+            LocalDateTime pieceStart = span.getStartedAt();
+            while (pieceStart.isBefore(end)) {
+                LocalDate day = pieceStart.toLocalDate();
+                LocalDateTime nextDay = day.plusDays(1).atStartOfDay();
+                LocalDateTime pieceEnd = end.isBefore(nextDay) ? end : nextDay;
+                long[] totals = usage.computeIfAbsent(new UsageKey(day, app), key -> new long[2]);
+                totals[0] += Duration.between(pieceStart, pieceEnd).toMillis();
+                totals[1]++;
+                pieceStart = pieceEnd;
+            }
+        }
+        usage.forEach((key, totals) ->
+                appUsageRepository.addUsage(sessionId, key.day(), key.app(), totals[0], totals[1]));
+    }
+
+    public List<AppUsageResponse> getSessionUsage(UUID sessionId) {
+        return appUsageRepository.sumBySession(sessionId);
+    }
+
+    /**
+     * Time per application over all of a user's sessions between two days,
+     * inclusive.
+     */
+    public List<AppUsageResponse> getUserUsage(String userId, LocalDate from, LocalDate to) {
+        return appUsageRepository.sumByUser(userId, from, to);
+    }
+
+    public List<WindowSpanResponse> getTimeline(UUID sessionId) {
+        return windowSpanRepository.findBySessionIdOrderByStartedAtAsc(sessionId).stream()
+                .map(WindowSpanResponse::from)
+                .toList();
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_NAME_LENGTH ? value.substring(0, MAX_NAME_LENGTH) : value;
+    }
+
+    private record UsageKey(LocalDate day, String app) {
+    }
+}
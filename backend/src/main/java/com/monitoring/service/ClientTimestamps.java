@@ -0,0 +1,24 @@
+package com.monitoring.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Converts agent-supplied epoch millis into server-local timestamps.
+ * Timestamps ahead of the server clock (agent clock skew) are clamped to now.
+ */
+final class ClientTimestamps {
+
+    private ClientTimestamps() {
+    }
+
+    static LocalDateTime toLocalDateTime(Long epochMillis) {
+        LocalDateTime now = LocalDateTime.now();
+        if (epochMillis == null) {
+            return now;
+        }
+        LocalDateTime clientTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+        return clientTime.isAfter(now) ? now : clientTime;
+    }
+}
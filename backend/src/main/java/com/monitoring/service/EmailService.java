@@ -2,6 +2,8 @@ package com.monitoring.service;
 
 import com.google.api.services.gmail.Gmail;
 import com.google.api.services.gmail.model.Message;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,6 +27,7 @@ import java.util.UUID;
 public class EmailService {
 
     private final Gmail gmailService;
+    private final MeterRegistry meterRegistry;
 
     @Value("${monitoring.admin.email}")
     private String adminEmails;
@@ -47,7 +50,7 @@ public class EmailService {
             String[] cc = parseEmailList(ccEmails);
             String[] bcc = parseEmailList(bccEmails);
 
-            sendHtmlEmail(to, cc, bcc, subject, body);
+            timedSend("idle-warning", to, cc, bcc, subject, body);
             log.info("Idle warning email sent for user {} ({})", userId, sessionId);
         } catch (Exception e) {
             log.error("Failed to send idle warning email for user {}", userId, e);
@@ -65,13 +68,29 @@ public class EmailService {
             String[] cc = parseEmailList(ccEmails);
             String[] bcc = parseEmailList(bccEmails);
 
-            sendHtmlEmail(to, cc, bcc, subject, body);
+            timedSend("auto-stop", to, cc, bcc, subject, body);
             log.info("Auto-stop notification email sent for user {} ({})", userId, sessionId);
         } catch (Exception e) {
             log.error("Failed to send auto-stop email for user {}", userId, e);
         }
     }
 
+    /**
+     * Sends through Gmail, timed as {@code monitoring.email.send} tagged with
+     * the email type and whether the send succeeded.
+     */
+    private void timedSend(String type, String[] to, String[] cc, String[] bcc, String subject, String htmlBody)
+            throws MessagingException, IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            sendHtmlEmail(to, cc, bcc, subject, htmlBody);
+            outcome = "success";
+        } finally {
+            sample.stop(meterRegistry.timer("monitoring.email.send", "type", type, "outcome", outcome));
+        }
+    }
+
     private void sendHtmlEmail(String[] to, String[] cc, String[] bcc, String subject, String htmlBody)
             throws MessagingException, IOException {
 
@@ -109,7 +128,8 @@ public class EmailService {
         return emailString.split("\\s*,\\s*");
     }
 
-    private String buildIdleWarningEmailBody(UUID sessionId, String userId, String firstName,
+    // Body builders are package-private for the benchmarks
+    String buildIdleWarningEmailBody(UUID sessionId, String userId, String firstName,
             String lastName, String jobRole, int idleMinutes) {
         String currentTime = LocalDateTime.now().format(formatter);
 
@@ -165,7 +185,7 @@ public class EmailService {
                 firstName, lastName, jobRole, userId, sessionId, idleMinutes, currentTime);
     }
 
-    private String buildAutoStopEmailBody(UUID sessionId, String userId, String firstName,
+    String buildAutoStopEmailBody(UUID sessionId, String userId, String firstName,
             String lastName, String jobRole, int idleMinutes) {
         String currentTime = LocalDateTime.now().format(formatter);
 
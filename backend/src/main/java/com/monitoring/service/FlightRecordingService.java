@@ -0,0 +1,132 @@
+package com.monitoring.service;
+
+import com.monitoring.dto.FlightRecordingStatus;
+import com.monitoring.profiling.IdleSessionCheckEvent;
+import com.monitoring.profiling.ScreenshotSaveEvent;
+import com.monitoring.profiling.SessionStartPhaseEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Runs one bounded JDK Flight Recorder recording at a time, started and
+ * dumped over the admin API, so production can be profiled without attaching
+ * an agent or shelling into the host.
+ *
+ * Recordings use a built-in JFR configuration plus the application's own
+ * events (session start phases, screenshot saves, idle checks), which are off
+ * otherwise. Events that record the process environment, system properties
+ * or command lines are always off, since those hold the database password
+ * and the token secret. Each recording stops by itself after its duration
+ * and never keeps more than {@code max-size-mb} on disk.
+ */
+@Service
+@Slf4j
+public class FlightRecordingService implements DisposableBean {
+
+    private static final String RECORDING_NAME = "monitoring-admin";
+    // Enabled by the built-in configurations; they record environment
+    // variables and command lines (ours and every other process's) verbatim
+    private static final String[] SECRET_EVENTS = { "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty", "jdk.JVMInformation", "jdk.SystemProcess" };
+
+    @Value("${monitoring.profiling.settings:default}")
+    private String settings;
+
+    @Value("${monitoring.profiling.max-duration-seconds:600}")
+    private long maxDurationSeconds;
+
+    @Value("${monitoring.profiling.max-size-mb:100}")
+    private long maxSizeMegabytes;
+
+    // The latest recording, kept after it stops so it can still be dumped
+    private Recording recording;
+
+    public synchronized FlightRecordingStatus start(long durationSeconds) throws IOException {
+        if (durationSeconds <= 0 || durationSeconds > maxDurationSeconds) {
+            throw new IllegalArgumentException(
+                    "Duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        discard();
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (ParseException e) {
+            throw new IOException("Invalid JFR settings: " + settings, e);
+        }
+
+        Recording started = new Recording(configuration);
+        started.setName(RECORDING_NAME);
+        started.enable(SessionStartPhaseEvent.class);
+        started.enable(ScreenshotSaveEvent.class);
+        started.enable(IdleSessionCheckEvent.class);
+        for (String event : SECRET_EVENTS) {
+            started.disable(event);
+        }
+        started.setDuration(Duration.ofSeconds(durationSeconds));
+        started.setMaxSize(maxSizeMegabytes * 1024 * 1024);
+        started.setToDisk(true);
+        started.start();
+        recording = started;
+        log.info("Started JFR recording {} ({} settings) for {} s", started.getId(), settings, durationSeconds);
+        return status(started);
+    }
+
+    public synchronized Optional<FlightRecordingStatus> getStatus() {
+        return Optional.ofNullable(recording).map(FlightRecordingService::status);
+    }
+
+    /**
+     * Copies what has been recorded so far, whether or not the recording is
+     * still running, to a temporary file the caller must delete.
+     */
+    public synchronized Optional<Path> dump() throws IOException {
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            return Optional.empty();
+        }
+        Path file = Files.createTempFile("monitoring-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Stops the recording, if any, and frees its disk space.
+     */
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        discard();
+    }
+
+    private static FlightRecordingStatus status(Recording recording) {
+        Duration duration = recording.getDuration();
+        return new FlightRecordingStatus(recording.getId(), recording.getState().name(), recording.getStartTime(),
+                duration != null ? duration.toSeconds() : 0, recording.getSize());
+    }
+}
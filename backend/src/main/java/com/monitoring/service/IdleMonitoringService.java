@@ -2,9 +2,12 @@ package com.monitoring.service;
 
 import com.monitoring.entity.ActivityLog;
 import com.monitoring.entity.WorkSession;
+import com.monitoring.profiling.IdleSessionCheckEvent;
 import com.monitoring.repository.ActivityLogRepository;
 import com.monitoring.repository.SessionRepository;
 import com.monitoring.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +29,7 @@ public class IdleMonitoringService {
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final SessionService sessionService;
+    private final MeterRegistry meterRegistry;
 
     @Value("${monitoring.idle.warning-minutes:30}")
     private int warningMinutes;
@@ -41,6 +45,7 @@ public class IdleMonitoringService {
     @Transactional
     public void checkIdleSessions() {
         log.info("=== CHECKING FOR IDLE SESSIONS ===");
+        Timer.Sample sweep = Timer.start(meterRegistry);
 
         List<WorkSession> activeSessions = sessionRepository
                 .findByStatusOrderByStartTimeDesc(WorkSession.SessionStatus.ACTIVE);
@@ -62,9 +67,21 @@ public class IdleMonitoringService {
                 log.error("Error processing session {}", session.getId(), e);
             }
         }
+
+        meterRegistry.summary("monitoring.idle.sweep.sessions").record(activeSessions.size());
+        sweep.stop(meterRegistry.timer("monitoring.idle.sweep"));
     }
 
     private void processSession(WorkSession session) {
+        IdleSessionCheckEvent event = IdleSessionCheckEvent.start(session.getId().toString());
+        try {
+            checkSession(session, event);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private void checkSession(WorkSession session, IdleSessionCheckEvent event) {
         log.info("Processing session {} for user {}", session.getId(), session.getUserId());
 
         // Get the most recent activity logs (last 15 minutes)
@@ -72,15 +89,18 @@ public class IdleMonitoringService {
         List<ActivityLog> recentLogs = activityLogRepository
                 .findBySessionIdAndLoggedAtAfterOrderByLoggedAtDesc(session.getId(), fifteenMinutesAgo);
 
+        event.setRecentLogs(recentLogs.size());
         if (recentLogs.isEmpty()) {
             log.info("No recent activity logs for session {}, skipping", session.getId());
+            event.setAction(IdleSessionCheckEvent.NO_RECENT_LOGS);
             return;
         }
 
         log.info("Found {} recent activity logs for session {}", recentLogs.size(), session.getId());
 
         // Check if user has been continuously idle
-        int continuousIdleMinutes = calculateContinuousIdleMinutes(recentLogs);
+        int continuousIdleMinutes = calculateContinuousIdleMinutes(recentLogs, LocalDateTime.now());
+        event.setIdleMinutes(continuousIdleMinutes);
 
         log.info("Session {} has {} continuous idle minutes (warning threshold: {}, auto-stop threshold: {})",
                 session.getId(), continuousIdleMinutes, warningMinutes, autoStopMinutes);
@@ -88,6 +108,7 @@ public class IdleMonitoringService {
         // Auto-stop if idle for configured threshold (default 60 minutes)
         if (continuousIdleMinutes >= autoStopMinutes) {
             log.info("Session {} exceeds auto-stop threshold, stopping session", session.getId());
+            event.setAction(IdleSessionCheckEvent.AUTO_STOP);
             autoStopSession(session, continuousIdleMinutes);
             return;
         }
@@ -96,6 +117,7 @@ public class IdleMonitoringService {
         // not already sent
         if (continuousIdleMinutes >= warningMinutes && !Boolean.TRUE.equals(session.getIdleWarningSent())) {
             log.info("Session {} exceeds warning threshold and warning not sent, sending warning", session.getId());
+            event.setAction(IdleSessionCheckEvent.WARNING);
             sendIdleWarning(session, continuousIdleMinutes);
         } else if (continuousIdleMinutes >= warningMinutes) {
             log.info("Session {} exceeds warning threshold but warning already sent", session.getId());
@@ -104,13 +126,17 @@ public class IdleMonitoringService {
         }
     }
 
-    private int calculateContinuousIdleMinutes(List<ActivityLog> logs) {
+    /**
+     * Package-private for the benchmarks.
+     *
+     * @param logs Recent logs, most recent first
+     */
+    static int calculateContinuousIdleMinutes(List<ActivityLog> logs, LocalDateTime now) {
         if (logs.isEmpty()) {
             return 0;
         }
 
         // Check from most recent backwards
-        LocalDateTime now = LocalDateTime.now();
         LocalDateTime lastActiveTime = null;
 
         for (ActivityLog log : logs) {
@@ -169,7 +195,7 @@ public class IdleMonitoringService {
 
         // Stop the session
         try {
-            sessionService.stopSession(session.getId());
+            sessionService.stopSession(session.getId(), "IDLE_TIMEOUT");
             log.info("Session {} automatically stopped", session.getId());
         } catch (Exception e) {
             log.error("Failed to auto-stop session {}", session.getId(), e);
@@ -19,6 +19,7 @@ import java.time.*;
 import java.time.format.TextStyle;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +31,7 @@ public class LoginRuleService {
     private final LoginRuleRepository loginRuleRepository;
     private final LoginRuleScheduleRepository scheduleRepository;
     private final UserRepository userRepository;
+    private final AgentControlService agentControlService;
 
     @Value("${app.timezone:UTC}")
     private String timeZoneId;
@@ -78,7 +80,18 @@ public class LoginRuleService {
             return true; // Fail-safe: allow if no rule
         }
 
-        LoginRule rule = user.getLoginRule();
+        return isTrackingAllowed(user.getLoginRule());
+    }
+
+    /**
+     * Same check for a rule that is already known, e.g. from the caller's
+     * session token. A null rule allows tracking.
+     */
+    public boolean isTrackingAllowed(LoginRule rule) {
+        if (rule == null) {
+            return true;
+        }
+
         ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault());
 
         return evaluateRule(rule, now);
@@ -88,11 +101,14 @@ public class LoginRuleService {
      * Get a human-readable message about when tracking will next be allowed.
      */
     public String getNextAllowedWindow(User user) {
-        if (user.getLoginRule() == null) {
+        return getNextAllowedWindow(user.getLoginRule());
+    }
+
+    public String getNextAllowedWindow(LoginRule rule) {
+        if (rule == null) {
             return "No restrictions apply.";
         }
 
-        LoginRule rule = user.getLoginRule();
         ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault());
 
         if (rule.getRuleType() == LoginRule.RuleType.ALL_DAYS) {
@@ -146,9 +162,9 @@ public class LoginRuleService {
     }
 
     /**
-     * Core rule evaluation logic.
+     * Core rule evaluation logic. Package-private for the benchmarks.
      */
-    private boolean evaluateRule(LoginRule rule, ZonedDateTime now) {
+    boolean evaluateRule(LoginRule rule, ZonedDateTime now) {
         switch (rule.getRuleType()) {
             case ALL_DAYS:
                 return true;
@@ -202,6 +218,10 @@ public class LoginRuleService {
                 .collect(Collectors.toList());
     }
 
+    public Optional<LoginRule> findRule(Long id) {
+        return loginRuleRepository.findById(id);
+    }
+
     /**
      * Get a specific login rule by ID.
      */
@@ -303,6 +323,11 @@ public class LoginRuleService {
 
         LoginRule savedRule = loginRuleRepository.save(rule);
         log.info("Updated login rule: {} ({})", savedRule.getRuleName(), savedRule.getRuleType());
+
+        // Let agents of affected employees re-evaluate the rule right away
+        for (User user : userRepository.findByLoginRuleId(savedRule.getId())) {
+            agentControlService.ruleChanged(user.getUserId(), savedRule.getId());
+        }
         return LoginRuleResponse.from(savedRule);
     }
 
@@ -0,0 +1,89 @@
+package com.monitoring.service;
+
+import com.monitoring.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits failed login attempts per user ID and per client address within a
+ * fixed window, so password guessing can't burn the hashing pool.
+ * A successful login clears the user's counter.
+ */
+@Component
+public class LoginThrottle {
+
+    @Value("${monitoring.auth.throttle.max-failures-per-user:5}")
+    private int maxFailuresPerUser;
+
+    @Value("${monitoring.auth.throttle.max-failures-per-address:50}")
+    private int maxFailuresPerAddress;
+
+    @Value("${monitoring.auth.throttle.window-minutes:15}")
+    private long windowMinutes;
+
+    private final Map<String, Window> failures = new ConcurrentHashMap<>();
+
+    /**
+     * @throws TooManyRequestsException if the user or address is locked out
+     */
+    public void checkAllowed(String userId, String address) {
+        long now = System.currentTimeMillis();
+        long retryAfter = Math.max(lockedFor(userKey(userId), maxFailuresPerUser, now),
+                lockedFor(addressKey(address), maxFailuresPerAddress, now));
+        if (retryAfter > 0) {
+            long minutes = Math.max(1, (retryAfter + 59) / 60);
+            throw new TooManyRequestsException(
+                    "Too many failed login attempts, try again in " + minutes + " minute(s)", retryAfter);
+        }
+    }
+
+    public void recordFailure(String userId, String address) {
+        long now = System.currentTimeMillis();
+        increment(userKey(userId), now);
+        increment(addressKey(address), now);
+    }
+
+    public void recordSuccess(String userId) {
+        failures.remove(userKey(userId));
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis();
+        failures.values().removeIf(window -> window.startMillis() < cutoff);
+    }
+
+    private long lockedFor(String key, int maxFailures, long now) {
+        Window window = failures.get(key);
+        if (window == null || window.count() < maxFailures) {
+            return 0;
+        }
+        long remainingMillis = window.startMillis() + windowMillis() - now;
+        return remainingMillis > 0 ? (remainingMillis + 999) / 1000 : 0;
+    }
+
+    private void increment(String key, long now) {
+        failures.compute(key, (k, window) -> window == null || window.startMillis() + windowMillis() <= now
+                ? new Window(now, 1)
+                : new Window(window.startMillis(), window.count() + 1));
+    }
+
+    private long windowMillis() {
+        return windowMinutes * 60_000;
+    }
+
+    private static String userKey(String userId) {
+        return "user:" + userId;
+    }
+
+    private static String addressKey(String address) {
+        return "address:" + address;
+    }
+
+    private record Window(long startMillis, int count) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.monitoring.service;
+
+import com.monitoring.dto.PresenceDelta;
+import com.monitoring.dto.PresenceEntry;
+import com.monitoring.dto.PresenceSnapshot;
+import com.monitoring.dto.WebSocketEventDTO;
+import com.monitoring.entity.ActivityLog;
+import com.monitoring.entity.WorkSession;
+import com.monitoring.repository.SessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory view of who is working right now: one entry per active session
+ * with its latest activity status, last heartbeat and task.
+ *
+ * Every change that matters to a dashboard (session started or stopped,
+ * ACTIVE/IDLE transition) bumps the registry version and is published as a
+ * {@link PresenceDelta} on {@code /topic/presence}. Heartbeats that don't
+ * change the status only refresh {@code lastHeartbeat} and are not versioned.
+ * Recent deltas are retained so a reconnecting client can catch up from the
+ * last version it saw instead of refetching the whole registry.
+ *
+ * Versions restart at 0 with the process, so every snapshot and delta also
+ * carries the registry's epoch (its startup time in millis); a client whose
+ * epoch differs gets the full registry.
+ *
+ * The registry and its version counter live in this node's memory, so
+ * versioning assumes a single node with the simple broker. With the broker
+ * relay, each replica only sees the sessions it handled and publishes deltas
+ * with its own version sequence on the shared topic; a warning is logged at
+ * startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PresenceRegistry {
+
+    public static final String PRESENCE_DESTINATION = "/topic/presence";
+
+    private final SessionRepository sessionRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${monitoring.presence.delta-retention:1000}")
+    private int deltaRetention;
+
+    @Value("${monitoring.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    // Guarded by this
+    private final Map<UUID, PresenceEntry> entries = new HashMap<>();
+    private final Deque<PresenceDelta> recentDeltas = new ArrayDeque<>();
+    private final long epoch = System.currentTimeMillis();
+    private long version;
+
+    /**
+     * Seeds the registry with sessions that were active before a restart.
+     * Their status is unknown until the next heartbeat.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        List<WorkSession> activeSessions = sessionRepository
+                .findByStatusOrderByStartTimeDesc(WorkSession.SessionStatus.ACTIVE);
+        for (WorkSession session : activeSessions) {
+            entries.put(session.getId(), new PresenceEntry(session.getId(), session.getUserId(), null, null,
+                    session.getTaskName()));
+        }
+        log.info("Presence registry loaded {} active sessions", activeSessions.size());
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            log.warn("Presence is tracked per node; with the broker relay, /topic/presence and "
+                    + "GET /api/presence only reflect sessions handled by this node");
+        }
+    }
+
+    public synchronized void sessionStarted(WorkSession session) {
+        PresenceEntry entry = new PresenceEntry(session.getId(), session.getUserId(),
+                ActivityLog.ActivityStatus.ACTIVE, null, session.getTaskName());
+        entries.put(session.getId(), entry);
+        publish(PresenceDelta.Type.UPSERT, session.getId(), entry);
+    }
+
+    public synchronized void sessionStopped(UUID sessionId) {
+        if (entries.remove(sessionId) != null) {
+            publish(PresenceDelta.Type.REMOVE, sessionId, null);
+        }
+    }
+
+    public synchronized void heartbeat(ActivityLog activityLog) {
+        PresenceEntry current = entries.get(activityLog.getSessionId());
+        if (current == null) {
+            // Stopped session or one this node hasn't seen start
+            return;
+        }
+        if (current.getLastHeartbeat() != null && activityLog.getLoggedAt().isBefore(current.getLastHeartbeat())) {
+            // Late entry from an agent's offline outbox
+            return;
+        }
+
+        PresenceEntry updated = new PresenceEntry(current.getSessionId(), current.getUserId(),
+                activityLog.getActivityStatus(), activityLog.getLoggedAt(), current.getTaskName());
+        entries.put(updated.getSessionId(), updated);
+        if (current.getStatus() != updated.getStatus()) {
+            publish(PresenceDelta.Type.UPSERT, updated.getSessionId(), updated);
+        }
+    }
+
+    /**
+     * Full registry at the current version.
+     */
+    public synchronized PresenceSnapshot snapshot() {
+        return new PresenceSnapshot(epoch, version, true, new ArrayList<>(entries.values()), List.of());
+    }
+
+    /**
+     * Deltas after {@code sinceVersion} of {@code sinceEpoch}, or the full
+     * registry if the epoch is another one (the client's version is from
+     * before a restart) or some of the deltas are no longer retained.
+     */
+    public synchronized PresenceSnapshot changesSince(long sinceEpoch, long sinceVersion) {
+        long oldestRetained = recentDeltas.isEmpty() ? version + 1 : recentDeltas.peekFirst().getVersion();
+        if (sinceEpoch != epoch || sinceVersion > version || sinceVersion < oldestRetained - 1) {
+            return snapshot();
+        }
+        List<PresenceDelta> deltas = new ArrayList<>();
+        for (PresenceDelta delta : recentDeltas) {
+            if (delta.getVersion() > sinceVersion) {
+                deltas.add(delta);
+            }
+        }
+        return new PresenceSnapshot(epoch, version, false, List.of(), deltas);
+    }
+
+    private void publish(PresenceDelta.Type type, UUID sessionId, PresenceEntry entry) {
+        PresenceDelta delta = new PresenceDelta(epoch, ++version, type, sessionId, entry);
+        recentDeltas.addLast(delta);
+        while (recentDeltas.size() > deltaRetention) {
+            recentDeltas.removeFirst();
+        }
+
+        // Sent while holding the lock so deltas reach the broker in version order
+        try {
+            messagingTemplate.convertAndSend(PRESENCE_DESTINATION,
+                    WebSocketEventDTO.of(WebSocketEventDTO.EventType.PRESENCE_UPDATED, delta));
+        } catch (Exception e) {
+            log.error("Failed to publish presence delta {}", delta.getVersion(), e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.monitoring.service;
+
+import com.monitoring.entity.ReauthToken;
+import com.monitoring.repository.ReauthTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Short-lived opaque tokens that let an agent log back in (after a restart or
+ * a dropped connection) without sending the password through BCrypt again.
+ *
+ * Tokens are random, stored only as SHA-256 digests and single use: every
+ * successful re-authentication consumes the token and issues a new one. They
+ * live in the {@code reauth_tokens} table, so they survive a restart and any
+ * node can redeem them.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReauthTokenService {
+
+    private final SecureRandom random = new SecureRandom();
+    private final ReauthTokenRepository reauthTokenRepository;
+
+    @Value("${monitoring.auth.reauth-token-ttl-minutes:480}")
+    private long ttlMinutes;
+
+    public IssuedToken issue(String userId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long expiresAt = System.currentTimeMillis() + ttlMinutes * 60_000;
+        reauthTokenRepository.save(new ReauthToken(digest(token), userId, expiresAt));
+        return new IssuedToken(token, expiresAt);
+    }
+
+    /**
+     * Consumes the token.
+     *
+     * @return true if it was issued to this user and hasn't expired
+     */
+    @Transactional
+    public boolean redeem(String userId, String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        return reauthTokenRepository.redeem(digest(token), userId, System.currentTimeMillis()) > 0;
+    }
+
+    /**
+     * Drops all tokens of a user, e.g. after a password change.
+     */
+    @Transactional
+    public void revokeAll(String userId) {
+        reauthTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    @Transactional
+    public void purgeExpired() {
+        reauthTokenRepository.deleteExpired(System.currentTimeMillis());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record IssuedToken(String token, long expiresAtMillis) {
+    }
+}
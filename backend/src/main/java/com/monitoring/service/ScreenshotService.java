@@ -4,8 +4,12 @@ import com.monitoring.dto.ScreenshotResponse;
 import com.monitoring.dto.WebSocketEventDTO;
 import com.monitoring.entity.Screenshot;
 import com.monitoring.entity.WorkSession;
+import com.monitoring.profiling.ScreenshotSaveEvent;
 import com.monitoring.repository.ScreenshotRepository;
 import com.monitoring.repository.SessionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -30,12 +34,37 @@ public class ScreenshotService {
     private final ScreenshotRepository screenshotRepository;
     private final SessionRepository sessionRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
 
     @Value("${monitoring.screenshot.storage-path}")
     private String storagePath;
 
     @Transactional
     public Screenshot saveScreenshot(UUID sessionId, MultipartFile file, String metadata) throws IOException {
+        return saveScreenshot(sessionId, file, metadata, null, null, null, null);
+    }
+
+    /**
+     * Save a screenshot that may be one display of a multi-monitor capture.
+     * Frames from the same capture cycle share a captureGroupId. Screenshots
+     * replayed from an agent's offline outbox carry their client capture time.
+     */
+    @Transactional
+    public Screenshot saveScreenshot(UUID sessionId, MultipartFile file, String metadata,
+            UUID captureGroupId, Integer displayIndex, Integer displayCount, Long clientTimestamp)
+            throws IOException {
+        ScreenshotSaveEvent event = ScreenshotSaveEvent.start(sessionId.toString());
+        try {
+            return storeScreenshot(sessionId, file, metadata, captureGroupId, displayIndex, displayCount,
+                    clientTimestamp, event);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private Screenshot storeScreenshot(UUID sessionId, MultipartFile file, String metadata,
+            UUID captureGroupId, Integer displayIndex, Integer displayCount, Long clientTimestamp,
+            ScreenshotSaveEvent event) throws IOException {
         // Get session to extract userId
         WorkSession session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Session not found: " + sessionId));
@@ -55,11 +84,18 @@ public class ScreenshotService {
         String extension = originalFilename != null && originalFilename.contains(".")
                 ? originalFilename.substring(originalFilename.lastIndexOf("."))
                 : ".png";
-        String filename = sessionId + "_" + System.currentTimeMillis() + extension;
+        String filename = sessionId + "_" + System.currentTimeMillis()
+                + (displayIndex != null ? "_d" + displayIndex : "") + extension;
 
         // Save file to disk
         Path filePath = storageDir.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        long writeStarted = System.nanoTime();
+        long written = Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        event.setFileWrite(written, System.nanoTime() - writeStarted);
+        DistributionSummary.builder("monitoring.screenshots.written")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry)
+                .record(written);
 
         // Save metadata to database
         Screenshot screenshot = new Screenshot();
@@ -67,6 +103,12 @@ public class ScreenshotService {
         screenshot.setFilePath(filePath.toString());
         screenshot.setFileSize(file.getSize());
         screenshot.setMetadata(metadata);
+        screenshot.setCaptureGroupId(captureGroupId);
+        screenshot.setDisplayIndex(displayIndex);
+        screenshot.setDisplayCount(displayCount);
+        if (clientTimestamp != null) {
+            screenshot.setCapturedAt(ClientTimestamps.toLocalDateTime(clientTimestamp));
+        }
 
         Screenshot savedScreenshot = screenshotRepository.save(screenshot);
         log.info("Saved screenshot {} for session {} (user: {}) at {}",
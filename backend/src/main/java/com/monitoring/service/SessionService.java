@@ -1,10 +1,13 @@
 package com.monitoring.service;
 
+import com.monitoring.dto.AuthenticatedUser;
 import com.monitoring.dto.SessionResponse;
 import com.monitoring.dto.WebSocketEventDTO;
+import com.monitoring.entity.LoginRule;
 import com.monitoring.entity.User;
 import com.monitoring.entity.WorkSession;
 import com.monitoring.exception.TrackingNotAllowedException;
+import com.monitoring.profiling.SessionStartPhaseEvent;
 import com.monitoring.repository.SessionRepository;
 import com.monitoring.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +35,9 @@ public class SessionService {
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final LoginRuleService loginRuleService;
+    private final AgentControlService agentControlService;
+    private final ActivityEventCoalescer activityEventCoalescer;
+    private final PresenceRegistry presenceRegistry;
 
     @Transactional
     public WorkSession startSession(String userId, String taskName, Long estimatedDurationMinutes) {
@@ -41,29 +47,87 @@ public class SessionService {
                 userId, taskName, estimatedDurationMinutes);
 
         // Get user and check if tracking is allowed
-        User user = userRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+        SessionStartPhaseEvent lookup = SessionStartPhaseEvent.start(SessionStartPhaseEvent.USER_LOOKUP, userId);
+        User user;
+        try {
+            user = userRepository.findByUserId(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+        } finally {
+            lookup.commit();
+        }
 
-        // Check if tracking is allowed based on login rule
-        if (!loginRuleService.isTrackingAllowed(user)) {
-            String nextWindow = loginRuleService.getNextAllowedWindow(user);
-            throw new TrackingNotAllowedException(
-                    "Tracking is not permitted at this time. " + nextWindow,
-                    nextWindow);
+        checkTrackingAllowed(userId, user.getLoginRule());
+        return openSession(userId, taskName, estimatedDurationMinutes, null);
+    }
+
+    /**
+     * Start a session for the caller of a token-authenticated request. The
+     * token carries the user's login rule and name, so the user row isn't read.
+     */
+    @Transactional
+    public WorkSession startSession(AuthenticatedUser caller, String taskName, Long estimatedDurationMinutes) {
+        LoginRule rule = null;
+        if (caller.loginRuleId() != null) {
+            SessionStartPhaseEvent lookup = SessionStartPhaseEvent.start(SessionStartPhaseEvent.RULE_LOOKUP,
+                    caller.userId());
+            try {
+                rule = loginRuleService.findRule(caller.loginRuleId()).orElse(null);
+            } finally {
+                lookup.commit();
+            }
+            if (rule == null) {
+                // Rule deleted since the token was issued; use the current assignment
+                return startSession(caller.userId(), taskName, estimatedDurationMinutes);
+            }
         }
 
-        // Auto-stop any existing ACTIVE sessions for this user
-        List<WorkSession> activeSessions = sessionRepository
-                .findByUserIdAndStatus(userId, WorkSession.SessionStatus.ACTIVE);
+        checkTrackingAllowed(caller.userId(), rule);
+        return openSession(caller.userId(), taskName, estimatedDurationMinutes, caller);
+    }
 
-        for (WorkSession activeSession : activeSessions) {
-            activeSession.setEndTime(LocalDateTime.now());
-            activeSession.setStatus(WorkSession.SessionStatus.STOPPED);
-            sessionRepository.save(activeSession);
-            log.info("Auto-stopped previous session {} for user {}", activeSession.getId(), userId);
+    private void checkTrackingAllowed(String userId, LoginRule rule) {
+        SessionStartPhaseEvent event = SessionStartPhaseEvent.start(SessionStartPhaseEvent.TRACKING_CHECK, userId);
+        try {
+            // Check if tracking is allowed based on login rule
+            if (!loginRuleService.isTrackingAllowed(rule)) {
+                String nextWindow = loginRuleService.getNextAllowedWindow(rule);
+                throw new TrackingNotAllowedException(
+                        "Tracking is not permitted at this time. " + nextWindow,
+                        nextWindow);
+            }
+        } finally {
+            event.commit();
+        }
+    }
 
-            // Broadcast session stop for the auto-stopped session
-            publishSessionEvent(WebSocketEventDTO.EventType.SESSION_STOPPED, activeSession);
+    private WorkSession openSession(String userId, String taskName, Long estimatedDurationMinutes,
+            AuthenticatedUser caller) {
+        // Auto-stop any existing ACTIVE sessions for this user
+        SessionStartPhaseEvent stopPrevious = SessionStartPhaseEvent.start(SessionStartPhaseEvent.STOP_PREVIOUS,
+                userId);
+        try {
+            List<WorkSession> activeSessions = sessionRepository
+                    .findByUserIdAndStatus(userId, WorkSession.SessionStatus.ACTIVE);
+
+            for (WorkSession activeSession : activeSessions) {
+                activeSession.setEndTime(LocalDateTime.now());
+                activeSession.setStatus(WorkSession.SessionStatus.STOPPED);
+                sessionRepository.save(activeSession);
+                log.info("Auto-stopped previous session {} for user {}", activeSession.getId(), userId);
+
+                // Broadcast session stop for the auto-stopped session
+                publishSessionEvent(WebSocketEventDTO.EventType.SESSION_STOPPED, activeSession, caller);
+                agentControlService.sessionStopped(userId, activeSession.getId(), "REPLACED");
+                activityEventCoalescer.forget(activeSession.getId());
+                presenceRegistry.sessionStopped(activeSession.getId());
+            }
+            if (!activeSessions.isEmpty()) {
+                // Write the updates now so this phase, not the commit, carries their cost
+                sessionRepository.flush();
+            }
+            stopPrevious.setSessionsStopped(activeSessions.size());
+        } finally {
+            stopPrevious.commit();
         }
 
         // Create new session
@@ -73,7 +137,14 @@ public class SessionService {
         session.setEstimatedDurationMinutes(estimatedDurationMinutes);
         session.setStatus(WorkSession.SessionStatus.ACTIVE);
 
-        WorkSession savedSession = sessionRepository.save(session);
+        SessionStartPhaseEvent save = SessionStartPhaseEvent.start(SessionStartPhaseEvent.SAVE, userId);
+        WorkSession savedSession;
+        try {
+            // The id is generated in memory, so without a flush the INSERT would wait for the commit
+            savedSession = sessionRepository.saveAndFlush(session);
+        } finally {
+            save.commit();
+        }
 
         // DEBUG: Log saved session data
         log.info("Saved session to database - sessionId: {}, taskName: '{}', estimatedDuration: {}",
@@ -83,13 +154,38 @@ public class SessionService {
         log.info("Started new session {} for user {} with task: {}", savedSession.getId(), userId, taskName);
 
         // Broadcast session creation via WebSocket
-        publishSessionEvent(WebSocketEventDTO.EventType.SESSION_CREATED, savedSession);
+        SessionStartPhaseEvent publish = SessionStartPhaseEvent.start(SessionStartPhaseEvent.PUBLISH, userId);
+        try {
+            publishSessionEvent(WebSocketEventDTO.EventType.SESSION_CREATED, savedSession, caller);
+            presenceRegistry.sessionStarted(savedSession);
+        } finally {
+            publish.commit();
+        }
 
         return savedSession;
     }
 
+    /**
+     * @param caller The token's user, whose name is used in the broadcast
+     *               when it's their own session; null without a token
+     */
+    @Transactional
+    public WorkSession stopSession(UUID sessionId, AuthenticatedUser caller) {
+        return stopSession(sessionId, "STOPPED", caller);
+    }
+
     @Transactional
-    public WorkSession stopSession(UUID sessionId) {
+    public WorkSession stopSession(UUID sessionId, String reason) {
+        return stopSession(sessionId, reason, null);
+    }
+
+    /**
+     * Stop a session and tell the owning agent right away.
+     *
+     * @param reason Why the session stopped, e.g. IDLE_TIMEOUT; passed on to
+     *               the agent
+     */
+    private WorkSession stopSession(UUID sessionId, String reason, AuthenticatedUser caller) {
         WorkSession session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Session not found: " + sessionId));
 
@@ -104,7 +200,10 @@ public class SessionService {
         log.info("Stopped session {}", sessionId);
 
         // Broadcast session stop via WebSocket
-        publishSessionEvent(WebSocketEventDTO.EventType.SESSION_STOPPED, savedSession);
+        publishSessionEvent(WebSocketEventDTO.EventType.SESSION_STOPPED, savedSession, caller);
+        agentControlService.sessionStopped(savedSession.getUserId(), sessionId, reason);
+        activityEventCoalescer.forget(sessionId);
+        presenceRegistry.sessionStopped(sessionId);
 
         return savedSession;
     }
@@ -187,16 +286,31 @@ public class SessionService {
                 .build();
     }
 
-    private void publishSessionEvent(WebSocketEventDTO.EventType eventType, WorkSession session) {
-        try {
-            SessionResponse response = SessionResponse.from(session);
-
-            // Fetch and populate user details
+    /**
+     * The session with its user's name and role. These come from the caller's
+     * token when the session is the caller's own, so agent requests don't read
+     * the users table; otherwise the user is looked up.
+     */
+    public SessionResponse toResponse(WorkSession session, AuthenticatedUser caller) {
+        SessionResponse response = SessionResponse.from(session);
+        if (caller != null && caller.userId().equals(session.getUserId())) {
+            response.setFirstName(caller.firstName());
+            response.setLastName(caller.lastName());
+            response.setJobRole(caller.role());
+        } else {
             userRepository.findByUserId(session.getUserId()).ifPresent(user -> {
                 response.setFirstName(user.getFirstName());
                 response.setLastName(user.getLastName());
                 response.setJobRole(user.getJobRole());
             });
+        }
+        return response;
+    }
+
+    private void publishSessionEvent(WebSocketEventDTO.EventType eventType, WorkSession session,
+            AuthenticatedUser caller) {
+        try {
+            SessionResponse response = toResponse(session, caller);
 
             WebSocketEventDTO event = WebSocketEventDTO.of(eventType, response);
             messagingTemplate.convertAndSend("/topic/sessions", event);
@@ -0,0 +1,217 @@
+package com.monitoring.service;
+
+import com.monitoring.dto.AuthenticatedUser;
+import com.monitoring.entity.TokenRevocation;
+import com.monitoring.entity.User;
+import com.monitoring.repository.TokenRevocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and verifies stateless session tokens: a compact binary payload
+ * (userId, role, loginRuleId, first and last name, issue and expiry time)
+ * followed by its HMAC-SHA256, both base64url encoded. Verifying one is a MAC over a few
+ * dozen bytes, so resolving the caller of a request needs no database access.
+ *
+ * Tokens can't be withdrawn individually; {@link #revokeIssuedBefore} rejects
+ * all tokens of a user issued up to now, e.g. when their password or login
+ * rule changes. Revocations are stored in {@code token_revocations} for one
+ * token lifetime and mirrored in memory, so verifying stays free of database
+ * access; each node reloads the table every
+ * {@code monitoring.auth.token.revocation-refresh-ms}, which bounds how long
+ * a revoked token is still accepted by other nodes.
+ */
+@Service
+@Slf4j
+public class SessionTokenService {
+
+    private static final byte VERSION = 1;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+
+    private final Mac prototype;
+    private final long ttlMillis;
+    private final TokenRevocationRepository revocationRepository;
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public SessionTokenService(@Value("${monitoring.auth.token.secret:}") String secret,
+            @Value("${monitoring.auth.token.ttl-minutes:60}") long ttlMinutes,
+            TokenRevocationRepository revocationRepository) {
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.revocationRepository = revocationRepository;
+
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            log.warn("monitoring.auth.token.secret is not set; using a random key, so session tokens "
+                    + "are invalidated on restart and not accepted by other nodes");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+            if (key.length < 32) {
+                throw new IllegalStateException("monitoring.auth.token.secret must be at least 32 bytes");
+            }
+        }
+
+        try {
+            // Initialised once; each call works on a clone, which skips the key setup
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    public IssuedToken issue(User user) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        byte[] userId = user.getUserId().getBytes(StandardCharsets.UTF_8);
+        byte[] role = bytes(user.getJobRole());
+        Long loginRuleId = user.getLoginRule() != null ? user.getLoginRule().getId() : null;
+        byte[] firstName = bytes(user.getFirstName());
+        byte[] lastName = bytes(user.getLastName());
+
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 + 8 + 8 + 2 + userId.length + 2 + role.length
+                + 2 + firstName.length + 2 + lastName.length)
+                .put(VERSION)
+                .putLong(now)
+                .putLong(expiresAt)
+                .putLong(loginRuleId != null ? loginRuleId : -1)
+                .putShort((short) userId.length).put(userId)
+                .putShort((short) role.length).put(role)
+                .putShort((short) firstName.length).put(firstName)
+                .putShort((short) lastName.length).put(lastName);
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String token = encoder.encodeToString(payload.array()) + "." + encoder.encodeToString(mac(payload.array()));
+        return new IssuedToken(token, expiresAt);
+    }
+
+    /**
+     * @return the caller, if the token is authentic, unexpired and not revoked
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return Optional.empty();
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            payload = decoder.decode(token.substring(0, dot));
+            signature = decoder.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (signature.length != MAC_LENGTH || !MessageDigest.isEqual(signature, mac(payload))) {
+            return Optional.empty();
+        }
+
+        AuthenticatedUser user;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            byte version = buffer.get();
+            if (version != VERSION) {
+                return Optional.empty();
+            }
+            long issuedAt = buffer.getLong();
+            long expiresAt = buffer.getLong();
+            long loginRuleId = buffer.getLong();
+            String userId = readString(buffer);
+            String role = readString(buffer);
+            String firstName = readString(buffer);
+            String lastName = readString(buffer);
+            user = new AuthenticatedUser(userId, role, loginRuleId >= 0 ? loginRuleId : null, firstName, lastName,
+                    issuedAt, expiresAt);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (user.expiresAtMillis() <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        Long revoked = revokedBefore.get(user.userId());
+        if (revoked != null && user.issuedAtMillis() < revoked) {
+            return Optional.empty();
+        }
+        return Optional.of(user);
+    }
+
+    /**
+     * Rejects every token of the user issued before now. The user's agent
+     * gets 401 and fetches a new token through re-authentication.
+     */
+    public void revokeIssuedBefore(String userId) {
+        long now = System.currentTimeMillis();
+        revocationRepository.save(new TokenRevocation(userId, now));
+        revokedBefore.merge(userId, now, Math::max);
+    }
+
+    /**
+     * Picks up revocations made on other nodes, and on startup those made
+     * before a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${monitoring.auth.token.revocation-refresh-ms:5000}")
+    public void refreshRevocations() {
+        // Tokens older than one lifetime have expired anyway
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        for (TokenRevocation revocation : revocationRepository.findByRevokedAtMillisGreaterThan(cutoff)) {
+            revokedBefore.merge(revocation.getUserId(), revocation.getRevokedAtMillis(), Math::max);
+        }
+        revokedBefore.values().removeIf(revokedAt -> revokedAt <= cutoff);
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    @Transactional
+    public void purgeRevocations() {
+        revocationRepository.deleteOlderThan(System.currentTimeMillis() - ttlMillis);
+    }
+
+    private byte[] mac(byte[] data) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC provider does not support cloning", e);
+        }
+        return mac.doFinal(data);
+    }
+
+    private static byte[] bytes(String value) {
+        return (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Truncated token");
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    public record IssuedToken(String token, long expiresAtMillis) {
+    }
+}
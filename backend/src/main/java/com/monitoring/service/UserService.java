@@ -10,19 +10,25 @@ import com.monitoring.entity.User;
 import com.monitoring.repository.LoginRuleRepository;
 import com.monitoring.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserService {
 
     private final UserRepository userRepository;
     private final LoginRuleRepository loginRuleRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final AgentControlService agentControlService;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottle loginThrottle;
+    private final ReauthTokenService reauthTokenService;
+    private final SessionTokenService sessionTokenService;
 
     public AuthResponse signup(SignupRequest request) {
         // Check if user already exists
@@ -33,7 +39,7 @@ public class UserService {
         // Create new user with encrypted password
         User user = new User();
         user.setUserId(request.getUserId());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setJobRole(request.getJobRole());
@@ -43,16 +49,71 @@ public class UserService {
         return AuthResponse.from(savedUser);
     }
 
-    public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByUserId(request.getUserId())
-                .orElseThrow(() -> new IllegalArgumentException("Invalid user ID or password"));
+    /**
+     * @param clientAddress Caller's address, for throttling failed attempts
+     */
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        loginThrottle.checkAllowed(request.getUserId(), clientAddress);
+
+        User user = userRepository.findByUserId(request.getUserId()).orElse(null);
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (user == null || !passwordHashingService.matches(request.getPassword(), user.getPassword())) {
+            loginThrottle.recordFailure(request.getUserId(), clientAddress);
             throw new IllegalArgumentException("Invalid user ID or password");
         }
+        loginThrottle.recordSuccess(user.getUserId());
+
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            rehash(user, request.getPassword());
+        }
+
+        return withTokens(user);
+    }
+
+    /**
+     * Log in again with a token from a previous login instead of the password.
+     * The token is consumed and a fresh one returned.
+     */
+    public AuthResponse reauthenticate(String userId, String token, String clientAddress) {
+        loginThrottle.checkAllowed(userId, clientAddress);
+
+        if (!reauthTokenService.redeem(userId, token)) {
+            loginThrottle.recordFailure(userId, clientAddress);
+            throw new IllegalArgumentException("Invalid or expired re-authentication token");
+        }
+        User user = userRepository.findByUserId(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid or expired re-authentication token"));
+
+        return withTokens(user);
+    }
+
+    private AuthResponse withTokens(User user) {
+        SessionTokenService.IssuedToken session = sessionTokenService.issue(user);
+        ReauthTokenService.IssuedToken reauth = reauthTokenService.issue(user.getUserId());
+        AuthResponse response = AuthResponse.from(user);
+        response.setAccessToken(session.token());
+        response.setAccessTokenExpiresAt(session.expiresAtMillis());
+        response.setReauthToken(reauth.token());
+        response.setReauthTokenExpiresAt(reauth.expiresAtMillis());
+        return response;
+    }
 
-        return AuthResponse.from(user);
+    /**
+     * Upgrade a hash made with an older cost factor, in the background so the
+     * login doesn't pay for a second BCrypt round.
+     */
+    private void rehash(User user, String rawPassword) {
+        Long id = user.getId();
+        String previousHash = user.getPassword();
+        passwordHashingService.rehashAsync(rawPassword, newHash -> userRepository.findById(id)
+                // Skip if the password was changed meanwhile
+                .filter(current -> previousHash.equals(current.getPassword()))
+                .ifPresent(current -> {
+                    current.setPassword(newHash);
+                    userRepository.save(current);
+                    log.info("Upgraded password hash for user {}", current.getUserId());
+                }));
     }
 
     // Employee Management Methods
@@ -78,7 +139,7 @@ public class UserService {
         // Create new employee
         User user = new User();
         user.setUserId(request.getUserId());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setJobRole(request.getJobRole());
@@ -105,6 +166,12 @@ public class UserService {
     public EmployeeResponse updateEmployee(Long id, EmployeeRequest request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Employee not found with ID: " + id));
+        Long previousRuleId = user.getLoginRule() != null ? user.getLoginRule().getId() : null;
+        String previousUserId = user.getUserId();
+        String previousRole = user.getJobRole();
+        String previousFirstName = user.getFirstName();
+        String previousLastName = user.getLastName();
+        boolean passwordChanged = request.getPassword() != null && !request.getPassword().isEmpty();
 
         // Check if userId is being changed and if it already exists
         if (!user.getUserId().equals(request.getUserId()) &&
@@ -113,10 +180,11 @@ public class UserService {
         }
 
         // Update employee details
-        user.setUserId(request.getUserId());
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+        if (passwordChanged) {
+            reauthTokenService.revokeAll(user.getUserId());
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
         }
+        user.setUserId(request.getUserId());
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setJobRole(request.getJobRole());
@@ -134,14 +202,26 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        boolean ruleChanged = request.getLoginRuleId() != null && !request.getLoginRuleId().equals(previousRuleId);
+        // Session tokens carry userId, role, rule and name; stale ones must be refreshed
+        if (passwordChanged || ruleChanged || !previousUserId.equals(updatedUser.getUserId())
+                || !Objects.equals(previousRole, updatedUser.getJobRole())
+                || !Objects.equals(previousFirstName, updatedUser.getFirstName())
+                || !Objects.equals(previousLastName, updatedUser.getLastName())) {
+            sessionTokenService.revokeIssuedBefore(previousUserId);
+        }
+        if (ruleChanged) {
+            agentControlService.ruleChanged(updatedUser.getUserId(), request.getLoginRuleId());
+        }
         return EmployeeResponse.from(updatedUser);
     }
 
     public void deleteEmployee(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new IllegalArgumentException("Employee not found with ID: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Employee not found with ID: " + id));
         userRepository.deleteById(id);
+        reauthTokenService.revokeAll(user.getUserId());
+        sessionTokenService.revokeIssuedBefore(user.getUserId());
     }
 
     public EmployeeResponse getEmployeeByUserId(String userId) {
@@ -0,0 +1,133 @@
+package com.monitoring.agent.monitor;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode time and bytes per frame for each screenshot encoder configuration.
+ *
+ * Frames are synthetic but desktop-like (window chrome, text lines, a gradient
+ * and a photo-like noisy region) and generated from a fixed seed, so runs are
+ * comparable across machines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScreenshotEncoderBenchmark {
+
+    @Param({ "1920x1080", "3840x2160" })
+    public String resolution;
+
+    @Param({ "png", "jpeg:0.75", "jpeg:0.5", "jpeg:0.75@0.5" })
+    public String encoding;
+
+    private BufferedImage frame;
+    private ScreenshotEncoder encoder;
+
+    /**
+     * Reports the size of the last encoded frame next to the timing results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FrameSize {
+        public long bytesPerFrame;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] size = resolution.split("x");
+        frame = syntheticDesktop(Integer.parseInt(size[0]), Integer.parseInt(size[1]), 42L);
+
+        // Encoding spec: format[:quality][@scale]
+        String spec = encoding;
+        double scale = 1.0;
+        if (spec.contains("@")) {
+            scale = Double.parseDouble(spec.substring(spec.indexOf('@') + 1));
+            spec = spec.substring(0, spec.indexOf('@'));
+        }
+        float quality = 0.75f;
+        if (spec.contains(":")) {
+            quality = Float.parseFloat(spec.substring(spec.indexOf(':') + 1));
+            spec = spec.substring(0, spec.indexOf(':'));
+        }
+        encoder = new ImageIOScreenshotEncoder(spec, quality, scale);
+    }
+
+    @Benchmark
+    public int encode(FrameSize frameSize) throws IOException {
+        ScreenshotEncoder.EncodedImage image = encoder.encode(frame);
+        frameSize.bytesPerFrame = image.length();
+        return image.length();
+    }
+
+    static BufferedImage syntheticDesktop(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setPaint(new GradientPaint(0, 0, new Color(30, 60, 110), width, height, new Color(90, 140, 190)));
+            g.fillRect(0, 0, width, height);
+
+            // A few overlapping windows with title bars and text
+            g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, Math.max(10, height / 80)));
+            for (int w = 0; w < 4; w++) {
+                int x = random.nextInt(width / 3);
+                int y = random.nextInt(height / 3);
+                int ww = width / 2 + random.nextInt(width / 4);
+                int wh = height / 2 + random.nextInt(height / 4);
+                g.setColor(Color.WHITE);
+                g.fillRect(x, y, ww, wh);
+                g.setColor(new Color(45, 45, 48));
+                g.fillRect(x, y, ww, 28);
+                g.setColor(Color.DARK_GRAY);
+                int lineHeight = g.getFontMetrics().getHeight();
+                for (int line = 1; line * lineHeight < wh - 40; line++) {
+                    g.drawString(randomText(random, 20 + random.nextInt(80)), x + 8, y + 28 + line * lineHeight);
+                }
+            }
+
+            // Photo-like region that compresses poorly
+            int px = width - width / 4;
+            int py = height - height / 4;
+            for (int y = py; y < height; y++) {
+                for (int x = px; x < width; x++) {
+                    image.setRGB(x, y, random.nextInt(0xFFFFFF));
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.monitoring.agent.loadtest;
+
+import com.monitoring.agent.client.BackendResponseException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters for one backend endpoint, recorded
+ * by all virtual agents at once. Each step of the run reads and resets them
+ * with {@link #interval()}.
+ */
+final class EndpointStats {
+
+    // Latencies above a minute are clamped; the harness timeouts are shorter
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Recorder latency = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param intendedStartNanos When the call should have started. For
+     *                           scheduled calls this is the schedule, not the
+     *                           actual start, so a stalled agent doesn't hide
+     *                           the delay it suffered (coordinated omission).
+     */
+    void success(long intendedStartNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+        latency.recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+    }
+
+    /**
+     * Counts a failed call; 429 and 503 answers are counted as shed load,
+     * anything else as an error.
+     */
+    void failure(IOException error) {
+        if (error instanceof BackendResponseException response
+                && (response.getStatusCode() == 429 || response.getStatusCode() == 503)) {
+            shed.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    Interval interval() {
+        return new Interval(name, latency.getIntervalHistogram(), errors.sumThenReset(), shed.sumThenReset());
+    }
+
+    /**
+     * What an endpoint did since the previous interval. Latencies are in
+     * microseconds.
+     */
+    record Interval(String name, Histogram latency, long errors, long shed) {
+
+        long successes() {
+            return latency.getTotalCount();
+        }
+
+        long calls() {
+            return successes() + errors + shed;
+        }
+
+        double failureRate() {
+            long calls = calls();
+            return calls == 0 ? 0 : (double) (errors + shed) / calls;
+        }
+
+        double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.monitoring.agent.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless load generator that simulates a fleet of desktop agents against a
+ * running backend, to find how many agents one backend can hold.
+ *
+ * The run steps through increasing agent counts. Each step starts the extra
+ * agents over the ramp period, holds for the step duration, then prints
+ * per-endpoint latency percentiles and writes the full histograms to the
+ * report directory. A step is saturated when an endpoint fails more often
+ * than allowed, the heartbeat p99 exceeds the SLO, or the backend accepts
+ * less than 90% of the heartbeats the agents offer. The saturation point lies
+ * between the last healthy step and the first saturated one.
+ *
+ * Usage: {@code mvn -Ploadtest compile exec:exec -Dloadtest.args="agents=100,500,1000 step.seconds=120"};
+ * see {@link LoadTestConfig} for the settings.
+ */
+public final class LoadTest {
+
+    // Share of the offered heartbeat rate the backend must accept
+    private static final double MIN_HEARTBEAT_THROUGHPUT = 0.9;
+
+    private final LoadTestConfig config;
+    private final LoadTestStats stats = new LoadTestStats();
+    private final CountDownLatch stopSignal = new CountDownLatch(1);
+    private final List<Thread> agents = new ArrayList<>();
+
+    private LoadTest(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+        System.out.println("Load test: " + config);
+        new LoadTest(config).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        Files.createDirectories(config.reportDir());
+
+        StepResult lastHealthy = null;
+        StepResult saturated = null;
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int step = 0; step < config.agentSteps().length; step++) {
+                int target = config.agentSteps()[step];
+                rampTo(target, httpExecutor);
+                List<EndpointStats.Interval> ramp = intervals();
+
+                long holdStart = System.nanoTime();
+                Thread.sleep(config.stepDuration());
+                List<EndpointStats.Interval> hold = intervals();
+                double holdSeconds = (System.nanoTime() - holdStart) / 1e9;
+
+                StepResult result = evaluate(target, ramp, hold, holdSeconds);
+                report(step + 1, result);
+                if (result.saturation() != null) {
+                    saturated = result;
+                    if (config.stopOnSaturation()) {
+                        break;
+                    }
+                } else if (saturated == null) {
+                    lastHealthy = result;
+                }
+            }
+
+            stopAgents();
+        }
+
+        System.out.println();
+        if (saturated == null) {
+            System.out.printf("No saturation up to %d agents%n", lastHealthy.agents());
+        } else if (lastHealthy == null) {
+            System.out.printf("Saturated at the first step, %d agents: %s%n", saturated.agents(),
+                    saturated.saturation());
+        } else {
+            System.out.printf("Saturation point: between %d and %d agents (%d agents: %s)%n",
+                    lastHealthy.agents(), saturated.agents(), saturated.agents(), saturated.saturation());
+        }
+        System.out.println("Histograms written to " + config.reportDir().toAbsolutePath());
+    }
+
+    /**
+     * Starts agents, evenly spread over the ramp period, until {@code target}
+     * are running.
+     */
+    private void rampTo(int target, ExecutorService httpExecutor) throws InterruptedException {
+        int toStart = target - agents.size();
+        long rampNanos = config.rampDuration().toNanos();
+        long rampStart = System.nanoTime();
+        for (int i = 0; i < toStart; i++) {
+            long due = rampStart + rampNanos * i / toStart;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            int index = agents.size();
+            VirtualAgent agent = new VirtualAgent(index, config, stats, stopSignal, httpExecutor);
+            agents.add(Thread.ofVirtual().name("agent-" + index).start(agent));
+        }
+        long rest = rampStart + rampNanos - System.nanoTime();
+        if (rest > 0) {
+            TimeUnit.NANOSECONDS.sleep(rest);
+        }
+    }
+
+    private void stopAgents() throws IOException, InterruptedException {
+        System.out.printf("%nStopping %d agents%n", agents.size());
+        stopSignal.countDown();
+        long deadline = System.nanoTime() + config.controlTimeout().multipliedBy(2).toNanos();
+        for (Thread agent : agents) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !agent.join(Duration.ofNanos(remaining))) {
+                System.out.println("Some agents did not stop their session in time");
+                break;
+            }
+        }
+        report(0, new StepResult(agents.size(), intervals(), 0, 0, null));
+    }
+
+    private List<EndpointStats.Interval> intervals() {
+        return stats.all().stream().map(EndpointStats::interval).toList();
+    }
+
+    private StepResult evaluate(int agentCount, List<EndpointStats.Interval> ramp,
+            List<EndpointStats.Interval> hold, double holdSeconds) {
+        List<EndpointStats.Interval> step = new ArrayList<>();
+        for (int i = 0; i < ramp.size(); i++) {
+            Histogram latency = ramp.get(i).latency().copy();
+            latency.add(hold.get(i).latency());
+            step.add(new EndpointStats.Interval(ramp.get(i).name(), latency,
+                    ramp.get(i).errors() + hold.get(i).errors(), ramp.get(i).shed() + hold.get(i).shed()));
+        }
+
+        double offered = agentCount / (double) config.heartbeatInterval().toSeconds();
+        EndpointStats.Interval heartbeats = hold.get(stats.all().indexOf(stats.heartbeat()));
+        double achieved = heartbeats.successes() / holdSeconds;
+
+        String saturation = null;
+        for (EndpointStats.Interval endpoint : step) {
+            if (endpoint.failureRate() > config.maxFailureRate()) {
+                saturation = String.format("%s failure rate %.1f%%", endpoint.name(), endpoint.failureRate() * 100);
+                break;
+            }
+        }
+        if (saturation == null && heartbeats.percentileMillis(99) > config.sloP99Millis()) {
+            saturation = String.format("heartbeat p99 %.0f ms over the %.0f ms SLO",
+                    heartbeats.percentileMillis(99), config.sloP99Millis());
+        }
+        if (saturation == null && achieved < offered * MIN_HEARTBEAT_THROUGHPUT) {
+            saturation = String.format("%.1f of %.1f heartbeats/s accepted", achieved, offered);
+        }
+        return new StepResult(agentCount, step, offered, achieved, saturation);
+    }
+
+    /**
+     * Prints the step's percentile table and writes each endpoint's full
+     * histogram, in milliseconds, as an HdrHistogram percentile file.
+     *
+     * @param step Step number, or 0 for the shutdown phase
+     */
+    private void report(int step, StepResult result) throws IOException {
+        System.out.println();
+        if (step == 0) {
+            System.out.printf("Shutdown, %d agents%n", result.agents());
+        } else {
+            System.out.printf("Step %d: %d agents, %.1f heartbeats/s offered, %.1f accepted%s%n", step,
+                    result.agents(), result.offeredHeartbeats(), result.achievedHeartbeats(),
+                    result.saturation() == null ? "" : " - SATURATED: " + result.saturation());
+        }
+        System.out.printf("%-14s %8s %7s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "errors", "shed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        String prefix = step == 0 ? "shutdown" : String.format("step%02d-%d", step, result.agents());
+        for (EndpointStats.Interval endpoint : result.endpoints()) {
+            if (endpoint.calls() == 0) {
+                continue;
+            }
+            System.out.printf("%-14s %8d %7d %6d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint.name(), endpoint.successes(), endpoint.errors(), endpoint.shed(),
+                    endpoint.percentileMillis(50), endpoint.percentileMillis(90), endpoint.percentileMillis(99),
+                    endpoint.percentileMillis(99.9), endpoint.latency().getMaxValue() / 1000.0);
+
+            Path file = config.reportDir().resolve(prefix + "-" + endpoint.name() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                endpoint.latency().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    /**
+     * @param saturation Why the step counts as saturated, or null if it doesn't
+     */
+    private record StepResult(int agents, List<EndpointStats.Interval> endpoints, double offeredHeartbeats,
+            double achievedHeartbeats, String saturation) {
+    }
+}
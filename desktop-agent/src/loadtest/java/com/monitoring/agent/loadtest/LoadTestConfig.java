@@ -0,0 +1,101 @@
+package com.monitoring.agent.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Load test settings. Each setting comes from a {@code key=value} program
+ * argument, then from the agent's {@code agent.properties} (so heartbeats
+ * follow {@code activity.update.interval.seconds} and the HTTP lanes match
+ * the real agent), then from the default.
+ *
+ * @param agentSteps Concurrent agent counts to step through, ascending
+ * @param stepDuration How long each step holds its agent count, measured
+ *                     after the new agents have ramped in
+ * @param rampDuration Over how long the agents added by a step start
+ * @param sessionDuration How long a session runs before it is stopped and a
+ *                        new one started, or zero to keep it for the run
+ */
+record LoadTestConfig(
+        String backendUrl,
+        int[] agentSteps,
+        Duration stepDuration,
+        Duration rampDuration,
+        Duration heartbeatInterval,
+        Duration screenshotInterval,
+        int screenshotBytes,
+        Duration sessionDuration,
+        String userPrefix,
+        String password,
+        Duration controlTimeout,
+        int controlConcurrency,
+        Duration uploadTimeout,
+        int uploadConcurrency,
+        double sloP99Millis,
+        double maxFailureRate,
+        boolean stopOnSaturation,
+        Path reportDir) {
+
+    static LoadTestConfig load(String[] args) throws IOException {
+        Properties settings = new Properties();
+        try (InputStream input = LoadTestConfig.class.getClassLoader().getResourceAsStream("agent.properties")) {
+            if (input != null) {
+                settings.load(input);
+            }
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            settings.setProperty(arg.substring(0, separator).strip(), arg.substring(separator + 1).strip());
+        }
+
+        int[] agentSteps = Arrays.stream(settings.getProperty("agents", "50,100,200,400,800").split(","))
+                .map(String::strip)
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .toArray();
+        if (agentSteps.length == 0 || agentSteps[0] <= 0) {
+            throw new IllegalArgumentException("agents must list at least one positive agent count");
+        }
+
+        return new LoadTestConfig(
+                settings.getProperty("backend.url", "http://localhost:8080"),
+                agentSteps,
+                seconds(settings, "step.seconds", "60"),
+                seconds(settings, "ramp.seconds", "10"),
+                seconds(settings, "activity.update.interval.seconds", "10"),
+                seconds(settings, "screenshot.upload.interval.seconds", "60"),
+                Integer.parseInt(settings.getProperty("screenshot.size.kb", "150")) * 1024,
+                seconds(settings, "session.seconds", "0"),
+                settings.getProperty("user.prefix", "loadtest-"),
+                settings.getProperty("password", "loadtest-password"),
+                seconds(settings, "http.control.timeout.seconds", "10"),
+                Integer.parseInt(settings.getProperty("http.control.max.concurrent", "4")),
+                seconds(settings, "http.upload.timeout.seconds", "120"),
+                Integer.parseInt(settings.getProperty("http.upload.max.concurrent", "2")),
+                Double.parseDouble(settings.getProperty("slo.p99.ms", "1000")),
+                Double.parseDouble(settings.getProperty("max.failure.rate", "0.01")),
+                Boolean.parseBoolean(settings.getProperty("stop.on.saturation", "true")),
+                Path.of(settings.getProperty("report.dir", "target/loadtest")));
+    }
+
+    private static Duration seconds(Properties settings, String key, String defaultValue) {
+        return Duration.ofSeconds(Long.parseLong(settings.getProperty(key, defaultValue)));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "backend %s, agents %s, %ds per step (%ds ramp), heartbeat every %ds, %d KB screenshot every %ds, "
+                        + "SLO p99 %.0f ms, max failure rate %.1f%%",
+                backendUrl, Arrays.toString(agentSteps), stepDuration.toSeconds(), rampDuration.toSeconds(),
+                heartbeatInterval.toSeconds(), screenshotBytes / 1024, screenshotInterval.toSeconds(),
+                sloP99Millis, maxFailureRate * 100);
+    }
+}
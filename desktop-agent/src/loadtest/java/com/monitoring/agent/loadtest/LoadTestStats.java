@@ -0,0 +1,24 @@
+package com.monitoring.agent.loadtest;
+
+import java.util.List;
+
+/**
+ * Per-endpoint statistics shared by all virtual agents.
+ */
+record LoadTestStats(
+        EndpointStats signup,
+        EndpointStats login,
+        EndpointStats startSession,
+        EndpointStats heartbeat,
+        EndpointStats screenshot,
+        EndpointStats stopSession) {
+
+    LoadTestStats() {
+        this(new EndpointStats("signup"), new EndpointStats("login"), new EndpointStats("startSession"),
+                new EndpointStats("heartbeat"), new EndpointStats("screenshot"), new EndpointStats("stopSession"));
+    }
+
+    List<EndpointStats> all() {
+        return List.of(signup, login, startSession, heartbeat, screenshot, stopSession);
+    }
+}
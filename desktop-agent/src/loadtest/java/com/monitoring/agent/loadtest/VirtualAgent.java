@@ -0,0 +1,217 @@
+package com.monitoring.agent.loadtest;
+
+import com.monitoring.agent.client.BackendClient;
+import com.monitoring.agent.model.AuthResponse;
+import com.monitoring.agent.model.LoginRequest;
+import com.monitoring.agent.model.ScreenshotData;
+import com.monitoring.agent.model.SessionResponse;
+import com.monitoring.agent.model.SignupRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated desktop agent, run on its own virtual thread. It goes through
+ * the agent's session flow with the agent's {@link BackendClient}: signup (if
+ * the user doesn't exist yet), login, start session, heartbeats through the
+ * batch endpoint every heartbeat interval, a screenshot upload every
+ * screenshot interval, and stop session. There is no UI and no input hook;
+ * activity statuses and screenshot bytes are made up.
+ */
+final class VirtualAgent implements Runnable {
+
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final String userId;
+    private final LoadTestConfig config;
+    private final LoadTestStats stats;
+    private final CountDownLatch stopSignal;
+    private final BackendClient client;
+    private final byte[] screenshot;
+
+    VirtualAgent(int index, LoadTestConfig config, LoadTestStats stats, CountDownLatch stopSignal,
+            ExecutorService httpExecutor) {
+        this.userId = config.userPrefix() + index;
+        this.config = config;
+        this.stats = stats;
+        this.stopSignal = stopSignal;
+        this.client = new BackendClient(config.backendUrl(), config.controlTimeout(), config.controlConcurrency(),
+                config.uploadTimeout(), config.uploadConcurrency(), httpExecutor);
+
+        // Random bytes don't compress, like an encoded image
+        this.screenshot = new byte[config.screenshotBytes()];
+        new Random(index).nextBytes(screenshot);
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (!signIn()) {
+                return;
+            }
+            do {
+                UUID sessionId = startSession();
+                if (sessionId == null) {
+                    return;
+                }
+                boolean stopping = runSession(sessionId);
+                stopSession(sessionId);
+                if (stopping) {
+                    return;
+                }
+            } while (true);
+        } finally {
+            try {
+                client.close();
+            } catch (IOException ignored) {
+                // Nothing left to clean up for a throwaway client
+            }
+        }
+    }
+
+    /**
+     * @return false if the run stopped before the agent could log in
+     */
+    private boolean signIn() {
+        long start = System.nanoTime();
+        try {
+            client.signup(new SignupRequest(userId, config.password(), "Load", "Test", "Load Test Agent",
+                    "5550000000"));
+            stats.signup().success(start);
+        } catch (IOException e) {
+            // Already registered by an earlier run; logging in covers it
+            if (e.getMessage() == null || !e.getMessage().contains("already exists")) {
+                stats.signup().failure(e);
+            }
+        }
+
+        while (true) {
+            start = System.nanoTime();
+            try {
+                AuthResponse response = client.login(new LoginRequest(userId, config.password()));
+                stats.login().success(start);
+                client.setAccessToken(response.getAccessToken());
+                return true;
+            } catch (IOException e) {
+                stats.login().failure(e);
+            }
+            if (await(System.nanoTime() + RETRY_DELAY_NANOS)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return the new session, or null if the run stopped first
+     */
+    private UUID startSession() {
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                SessionResponse session = client.startSession(userId, "Load test", 60L);
+                stats.startSession().success(start);
+                return session.getSessionId();
+            } catch (IOException e) {
+                stats.startSession().failure(e);
+            }
+            if (await(System.nanoTime() + RETRY_DELAY_NANOS)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Sends heartbeats and uploads screenshots on their schedules until the
+     * session is due to end or the run stops. Uploads are asynchronous, as in
+     * the agent, so a slow upload doesn't delay the next heartbeat.
+     *
+     * @return true if the run is stopping
+     */
+    private boolean runSession(UUID sessionId) {
+        long heartbeatInterval = config.heartbeatInterval().toNanos();
+        long screenshotInterval = config.screenshotInterval().toNanos();
+        long now = System.nanoTime();
+        long sessionEnd = config.sessionDuration().isZero() ? Long.MAX_VALUE
+                : now + config.sessionDuration().toNanos();
+
+        long nextHeartbeat = now;
+        // Spread the agents' uploads over the interval instead of all at once
+        long nextScreenshot = now + ThreadLocalRandom.current().nextLong(Math.max(1, screenshotInterval));
+
+        while (true) {
+            long next = Math.min(nextHeartbeat, nextScreenshot);
+            if (next - sessionEnd >= 0) {
+                return await(sessionEnd);
+            }
+            if (await(next)) {
+                return true;
+            }
+            if (next == nextHeartbeat) {
+                sendHeartbeat(sessionId, nextHeartbeat);
+                nextHeartbeat += heartbeatInterval;
+            } else {
+                uploadScreenshot(sessionId, nextScreenshot);
+                nextScreenshot += screenshotInterval;
+            }
+        }
+    }
+
+    private void sendHeartbeat(UUID sessionId, long intendedStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String status = random.nextInt(10) < 8 ? "ACTIVE" : "IDLE";
+        String json = String.format("{\"sessionId\":\"%s\",\"activityStatus\":\"%s\",\"clientTimestamp\":%d,"
+                        + "\"intensity\":[%d,%d,%d,%d]}",
+                sessionId, status, System.currentTimeMillis(),
+                random.nextInt(60), random.nextInt(20), random.nextInt(5000), random.nextInt(3));
+        try {
+            client.logActivityBatch(List.of(json.getBytes(StandardCharsets.UTF_8)));
+            stats.heartbeat().success(intendedStart);
+        } catch (IOException e) {
+            stats.heartbeat().failure(e);
+        }
+    }
+
+    private void uploadScreenshot(UUID sessionId, long intendedStart) {
+        ScreenshotData data = new ScreenshotData(screenshot, screenshot.length, "image/jpeg",
+                "loadtest-" + System.currentTimeMillis() + ".jpg", null, UUID.randomUUID(), 0, 1);
+        client.uploadScreenshotAsync(sessionId, data, System.currentTimeMillis())
+                .whenComplete((ignored, error) -> {
+                    if (error == null) {
+                        stats.screenshot().success(intendedStart);
+                    } else {
+                        stats.screenshot().failure(BackendClient.unwrap(error));
+                    }
+                });
+    }
+
+    private void stopSession(UUID sessionId) {
+        long start = System.nanoTime();
+        try {
+            client.stopSession(sessionId);
+            stats.stopSession().success(start);
+        } catch (IOException e) {
+            stats.stopSession().failure(e);
+        }
+    }
+
+    /**
+     * Waits until the given {@link System#nanoTime()} deadline.
+     *
+     * @return true if the run is stopping
+     */
+    private boolean await(long deadlineNanos) {
+        try {
+            return stopSignal.await(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+}
@@ -1,10 +1,26 @@
 package com.monitoring.agent;
 
+import com.monitoring.agent.auth.CredentialStore;
+import com.monitoring.agent.auth.TokenRefresher;
 import com.monitoring.agent.client.BackendClient;
+import com.monitoring.agent.client.BackendResponseException;
+import com.monitoring.agent.control.ConfigOverrides;
+import com.monitoring.agent.control.ControlChannel;
+import com.monitoring.agent.control.ControlListener;
+import com.monitoring.agent.model.ControlMessage;
 import com.monitoring.agent.model.AuthResponse;
 import com.monitoring.agent.model.SessionResponse;
+import com.monitoring.agent.monitor.ActiveWindowTracker;
 import com.monitoring.agent.monitor.ActivityMonitor;
+import com.monitoring.agent.monitor.AdaptiveCapturePolicy;
+import com.monitoring.agent.monitor.ImageIOScreenshotEncoder;
+import com.monitoring.agent.monitor.ScreenChangeDetector;
 import com.monitoring.agent.monitor.ScreenshotCapture;
+import com.monitoring.agent.monitor.ScreenshotCapture.CapturedFrame;
+import com.monitoring.agent.monitor.WindowMetadataCollector;
+import com.monitoring.agent.outbox.Outbox;
+import com.monitoring.agent.outbox.OutboxDrainer;
+import com.monitoring.agent.telemetry.AgentTelemetry;
 import com.monitoring.agent.ui.AgentUI;
 import com.monitoring.agent.ui.LoginUI;
 import javafx.application.Application;
@@ -17,23 +33,46 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class MonitoringAgent extends Application {
+public class MonitoringAgent extends Application implements ControlListener {
     private static final Logger logger = LoggerFactory.getLogger(MonitoringAgent.class);
 
     private BackendClient backendClient;
     private ActivityMonitor activityMonitor;
+    private ActiveWindowTracker activeWindowTracker;
     private ScreenshotCapture screenshotCapture;
+    private long screenshotSampleMillis;
+    private Outbox outbox;
+    private OutboxDrainer outboxDrainer;
+    private ControlChannel controlChannel;
+    private CredentialStore credentialStore;
+    private TokenRefresher tokenRefresher;
+    private ConfigOverrides configOverrides;
+    private AgentTelemetry telemetry;
+    private final AtomicBoolean uploadsInFlight = new AtomicBoolean();
     private AuthResponse currentUser;
     private AgentUI ui;
     private Stage stage;
 
     private ScheduledExecutorService scheduler;
+    // Rescheduled when pushed settings change their interval
+    private ScheduledFuture<?> heartbeatTask;
+    private ScheduledFuture<?> screenshotTask;
     private UUID currentSessionId;
     private boolean isMonitoring = false;
 
@@ -54,23 +93,94 @@ public class MonitoringAgent extends Application {
     // Configuration
     private String backendUrl;
     private double screenshotIntervalMinutes;
+    private int screenshotMinIntervalSeconds;
+    private double screenshotMaxIntervalMinutes;
+    private double screenshotChangeThreshold;
+    private String screenshotFormat;
+    private float screenshotQuality;
+    private double screenshotScale;
     private int idleThresholdSeconds;
     private int activityUpdateIntervalSeconds;
+    private int httpControlTimeoutSeconds;
+    private int httpControlMaxConcurrent;
+    private int httpUploadTimeoutSeconds;
+    private int httpUploadMaxConcurrent;
+    private String outboxDir;
+    private long outboxMaxDiskMb;
+    private int outboxBatchSize;
+    private boolean rememberLogin;
+    private double telemetryReportIntervalMinutes;
+    private String windowCollectorType;
+    private int windowSampleIntervalSeconds;
+    private double windowSpanFlushMinutes;
+    // Settings pushed by the backend; they win over .env and agent.properties
+    private Properties pushedSettings;
 
     @Override
     public void init() throws Exception {
+        configOverrides = new ConfigOverrides(
+                Path.of(System.getProperty("user.home"), ".monitoring-agent", "pushed-settings.properties"));
         loadConfiguration();
 
-        backendClient = new BackendClient(backendUrl);
+        backendClient = new BackendClient(backendUrl,
+                Duration.ofSeconds(httpControlTimeoutSeconds), httpControlMaxConcurrent,
+                Duration.ofSeconds(httpUploadTimeoutSeconds), httpUploadMaxConcurrent);
         activityMonitor = new ActivityMonitor(idleThresholdSeconds);
-        screenshotCapture = new ScreenshotCapture();
+        WindowMetadataCollector windowCollector = WindowMetadataCollector.create(windowCollectorType);
+        activeWindowTracker = new ActiveWindowTracker(windowCollector, activityMonitor,
+                windowSampleIntervalSeconds * 1000L, (long) (windowSpanFlushMinutes * 60_000));
+        // Each display gets its own encoder buffer, change detector and capture policy
+        screenshotCapture = new ScreenshotCapture(
+                windowCollector,
+                () -> new ImageIOScreenshotEncoder(screenshotFormat, screenshotQuality, screenshotScale),
+                () -> new ScreenChangeDetector(screenshotChangeThreshold),
+                this::createCapturePolicy);
+        screenshotSampleMillis = createCapturePolicy().getMinIntervalMillis();
         scheduler = Executors.newScheduledThreadPool(2);
+
+        // The agent's own CPU, memory, input and network cost, reported with heartbeats
+        telemetry = new AgentTelemetry((long) (telemetryReportIntervalMinutes * 60_000));
+        backendClient.setTelemetry(telemetry);
+        screenshotCapture.setTelemetry(telemetry);
+
+        // Heartbeats and failed uploads survive restarts; anything left over from
+        // a previous run is replayed as soon as the backend is reachable
+        outbox = new Outbox(Path.of(outboxDir), outboxMaxDiskMb * 1024 * 1024);
+        outboxDrainer = new OutboxDrainer(outbox, backendClient, outboxBatchSize);
+        outboxDrainer.start();
+
+        controlChannel = new ControlChannel(backendUrl, backendClient::getAccessToken, this);
+        credentialStore = new CredentialStore(
+                Path.of(System.getProperty("user.home"), ".monitoring-agent", "credentials.properties"));
+        tokenRefresher = new TokenRefresher(backendClient, credentialStore, rememberLogin);
     }
 
     @Override
     public void start(Stage primaryStage) {
         this.stage = primaryStage;
-        showLoginScreen();
+
+        // Sign back in with the token from the last login instead of asking
+        // for the password again; fall back to the login screen if it's gone
+        CredentialStore.StoredToken stored = rememberLogin ? credentialStore.load().orElse(null) : null;
+        if (stored == null) {
+            showLoginScreen();
+            return;
+        }
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return backendClient.reauthenticate(stored.userId(), stored.token());
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((user, error) -> javafx.application.Platform.runLater(() -> {
+            if (error != null) {
+                // Kept until a password login fails too; see onLoginRejected
+                logger.info("Stored login not accepted, asking for credentials: {}", error.getMessage());
+                showLoginScreen();
+            } else {
+                onLoginSuccess(user);
+            }
+        }));
     }
 
     public void showLoginScreen() {
@@ -83,6 +193,9 @@ public class MonitoringAgent extends Application {
         if (isMonitoring) {
             stopMonitoring();
         }
+        controlChannel.disconnect();
+        tokenRefresher.stop();
+        credentialStore.clear();
 
         this.currentUser = null;
         this.currentSessionId = null;
@@ -92,10 +205,27 @@ public class MonitoringAgent extends Application {
         showLoginScreen();
     }
 
+    /**
+     * The backend rejected a password login. Only now is a stored login for
+     * the same user dropped: a rejected re-authentication alone may be a
+     * passing backend problem, and the token is worth trying on the next start.
+     */
+    public void onLoginRejected(String userId) {
+        credentialStore.load()
+                .filter(stored -> stored.userId().equals(userId))
+                .ifPresent(stored -> credentialStore.clear());
+    }
+
     public void onLoginSuccess(AuthResponse user) {
         this.currentUser = user;
         logger.info("User logged in: {} {}", user.getFirstName(), user.getLastName());
 
+        // Sends the session token with every request and renews it before it expires
+        tokenRefresher.start(user);
+
+        // Session stops and rule changes are pushed over the control channel
+        controlChannel.connect(user.getUserId());
+
         // Show the main monitoring UI
         ui = new AgentUI(this, user);
         ui.start(stage);
@@ -178,21 +308,24 @@ public class MonitoringAgent extends Application {
             // Start activity monitoring
             activityMonitor.start();
             activityMonitor.recordActivity();
+            activityMonitor.takeInteractionCounts();
+            activeWindowTracker.reset(System.currentTimeMillis());
 
             // Schedule activity logging
-            scheduler.scheduleAtFixedRate(
+            heartbeatTask = scheduler.scheduleAtFixedRate(
                     this::logActivity,
                     0,
                     activityUpdateIntervalSeconds,
                     TimeUnit.SECONDS);
 
-            // Schedule screenshot capture
-            long intervalSeconds = (long) (screenshotIntervalMinutes * 60);
-            scheduler.scheduleAtFixedRate(
+            // Schedule screenshot sampling; uploads only happen when the screen
+            // changed or the max interval elapsed (see AdaptiveCapturePolicy)
+            screenshotCapture.reset();
+            screenshotTask = scheduler.scheduleAtFixedRate(
                     this::captureAndUploadScreenshot,
-                    intervalSeconds,
-                    intervalSeconds,
-                    TimeUnit.SECONDS);
+                    screenshotSampleMillis,
+                    screenshotSampleMillis,
+                    TimeUnit.MILLISECONDS);
 
             isMonitoring = true;
 
@@ -211,7 +344,15 @@ public class MonitoringAgent extends Application {
                     1,
                     TimeUnit.SECONDS);
 
-            // Schedule session status check every 30 seconds to detect backend auto-stop
+            // Follow the foreground window for switch counts and app usage spans
+            scheduler.scheduleAtFixedRate(
+                    this::pollActiveWindow,
+                    1,
+                    1,
+                    TimeUnit.SECONDS);
+
+            // Fallback for when the control channel is down: poll every 30 seconds
+            // to detect backend auto-stop
             scheduler.scheduleAtFixedRate(
                     this::checkSessionStatus,
                     30,
@@ -317,12 +458,15 @@ public class MonitoringAgent extends Application {
 
             // Force activity update to prevent stuck in IDLE state
             activityMonitor.recordActivity();
+            // Input while paused isn't reported
+            activityMonitor.takeInteractionCounts();
 
             logger.info("Monitoring resumed after {} seconds pause", pauseDuration);
         } else {
             // Pause monitoring
             isPaused = true;
             pauseStartTime = System.currentTimeMillis();
+            activeWindowTracker.close(pauseStartTime);
             ui.setPaused(true);
             logger.info("Monitoring paused");
         }
@@ -332,13 +476,33 @@ public class MonitoringAgent extends Application {
         if (!isMonitoring || isPaused)
             return;
 
+        String activityStatus = activityMonitor.getActivityStatus();
+        ui.updateActivity(activityStatus);
+        lastActivityStatus = activityStatus;
+
+        long now = System.currentTimeMillis();
+        telemetry.sample(outbox.getPendingBytes() + outbox.getSpooledBytes(),
+                activityMonitor.takeInputEventCount());
+
+        // Journaled first and delivered by the drainer, so heartbeats taken
+        // while offline are replayed in order with their original timestamps
         try {
-            String activityStatus = activityMonitor.getActivityStatus();
-            backendClient.logActivity(currentSessionId, activityStatus, null);
-            ui.updateActivity(activityStatus);
-            lastActivityStatus = activityStatus;
+            outbox.appendHeartbeat(currentSessionId, activityStatus, now, activityMonitor.takeInteractionCounts(),
+                    activeWindowTracker.takeSpans(now), telemetry.pollReport(now));
+            outboxDrainer.signal();
         } catch (IOException e) {
-            logger.error("Failed to log activity", e);
+            logger.error("Failed to queue activity", e);
+        }
+    }
+
+    private void pollActiveWindow() {
+        if (!isMonitoring || isPaused)
+            return;
+
+        try {
+            activeWindowTracker.poll(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            logger.debug("Could not read the foreground window", e);
         }
     }
 
@@ -382,6 +546,13 @@ public class MonitoringAgent extends Application {
         ui.updateIdleTimer(formatDuration(idleDurationSeconds));
     }
 
+    private AdaptiveCapturePolicy createCapturePolicy() {
+        return new AdaptiveCapturePolicy(
+                screenshotMinIntervalSeconds * 1000L,
+                (long) (screenshotIntervalMinutes * 60_000),
+                (long) (screenshotMaxIntervalMinutes * 60_000));
+    }
+
     private String formatDuration(long totalSeconds) {
         long hours = totalSeconds / 3600;
         long minutes = (totalSeconds % 3600) / 60;
@@ -398,19 +569,59 @@ public class MonitoringAgent extends Application {
             return;
         }
 
+        // Frames stream straight from the encoder buffers, so don't sample
+        // again until the previous cycle's uploads have finished
+        if (!uploadsInFlight.compareAndSet(false, true)) {
+            logger.debug("Previous screenshot uploads still in flight, skipping this sample");
+            return;
+        }
+
+        long now = System.currentTimeMillis();
         try {
-            com.monitoring.agent.model.ScreenshotData screenshotData = screenshotCapture
-                    .captureScreenshot("screenshot_" + sid);
-            backendClient.uploadScreenshot(
-                    sid,
-                    screenshotData.getFile(),
-                    screenshotData.getMetadata());
-            logger.info("Screenshot uploaded successfully");
+            // Displays are sampled in parallel; each changed display is its own upload
+            List<CapturedFrame> frames = screenshotCapture.captureChangedDisplays("screenshot_" + sid, now);
+            CompletableFuture<?>[] uploads = new CompletableFuture<?>[frames.size()];
+            for (int i = 0; i < frames.size(); i++) {
+                CapturedFrame frame = frames.get(i);
+                uploads[i] = backendClient.uploadScreenshotAsync(sid, frame.getData(), now)
+                        .handle((ignored, error) -> {
+                            onScreenshotUploaded(sid, frame, now, error);
+                            return null;
+                        });
+            }
+            CompletableFuture.allOf(uploads).whenComplete((ignored, error) -> uploadsInFlight.set(false));
         } catch (Exception e) {
+            uploadsInFlight.set(false);
             logger.error("Failed to capture/upload screenshot", e);
         }
     }
 
+    /**
+     * Runs on the HTTP client's threads once an upload finished. Frames the
+     * backend could not take right now are spooled to the outbox; the drainer
+     * uploads them later with their original capture time.
+     */
+    private void onScreenshotUploaded(UUID sessionId, CapturedFrame frame, long now, Throwable error) {
+        try {
+            if (error == null) {
+                logger.info("Screenshot uploaded successfully (display {} of {})",
+                        frame.getData().getDisplayIndex() + 1, frame.getData().getDisplayCount());
+            } else {
+                IOException cause = BackendClient.unwrap(error);
+                if (cause instanceof BackendResponseException response && response.isClientError()) {
+                    logger.error("Backend rejected screenshot: {}", cause.getMessage());
+                    return;
+                }
+                logger.warn("Screenshot upload failed ({}), queued for retry", cause.getMessage());
+                outbox.appendScreenshot(sessionId, frame.getData(), now);
+                outboxDrainer.signal();
+            }
+            screenshotCapture.markUploaded(frame, now);
+        } catch (Exception e) {
+            logger.error("Failed to queue screenshot", e);
+        }
+    }
+
     public void shutdown() {
         if (isMonitoring) {
             stopMonitoring();
@@ -418,7 +629,12 @@ public class MonitoringAgent extends Application {
 
         try {
             scheduler.shutdown();
+            screenshotCapture.shutdown();
             activityMonitor.shutdown();
+            controlChannel.shutdown();
+            tokenRefresher.shutdown();
+            outboxDrainer.stop();
+            outbox.close();
             backendClient.close();
         } catch (IOException e) {
             logger.error("Error closing backend client", e);
@@ -457,32 +673,79 @@ public class MonitoringAgent extends Application {
             backendUrl = props.getProperty("backend.url", "http://localhost:8080");
         }
 
-        // Screenshot Interval
-        if (dotenv != null && dotenv.get("SCREENSHOT_INTERVAL_MINUTES") != null) {
-            screenshotIntervalMinutes = Double.parseDouble(dotenv.get("SCREENSHOT_INTERVAL_MINUTES"));
-        } else {
-            screenshotIntervalMinutes = Double.parseDouble(props.getProperty("screenshot.interval.minutes", "1"));
+        pushedSettings = configOverrides.load();
+        if (!pushedSettings.isEmpty()) {
+            logger.info("Using settings pushed by the backend: {}", pushedSettings);
         }
 
+        // Screenshot Interval
+        screenshotIntervalMinutes = Double.parseDouble(getSetting(dotenv, props,
+                "SCREENSHOT_INTERVAL_MINUTES", "screenshot.interval.minutes", "1"));
+
+        screenshotMinIntervalSeconds = Integer.parseInt(getSetting(dotenv, props,
+                "SCREENSHOT_MIN_INTERVAL_SECONDS", "screenshot.min.interval.seconds", "15"));
+        screenshotMaxIntervalMinutes = Double.parseDouble(getSetting(dotenv, props,
+                "SCREENSHOT_MAX_INTERVAL_MINUTES", "screenshot.max.interval.minutes", "10"));
+        screenshotChangeThreshold = Double.parseDouble(getSetting(dotenv, props,
+                "SCREENSHOT_CHANGE_THRESHOLD", "screenshot.change.threshold", "0.01"));
+        screenshotFormat = getSetting(dotenv, props, "SCREENSHOT_FORMAT", "screenshot.format", "jpeg");
+        screenshotQuality = Float.parseFloat(getSetting(dotenv, props,
+                "SCREENSHOT_QUALITY", "screenshot.quality", "0.75"));
+        screenshotScale = Double.parseDouble(getSetting(dotenv, props,
+                "SCREENSHOT_SCALE", "screenshot.scale", "1.0"));
+
         // Idle Threshold
-        if (dotenv != null && dotenv.get("IDLE_THRESHOLD_SECONDS") != null) {
-            idleThresholdSeconds = Integer.parseInt(dotenv.get("IDLE_THRESHOLD_SECONDS"));
-        } else {
-            idleThresholdSeconds = Integer.parseInt(props.getProperty("activity.idle.threshold.seconds", "15"));
-        }
+        idleThresholdSeconds = Integer.parseInt(getSetting(dotenv, props,
+                "IDLE_THRESHOLD_SECONDS", "activity.idle.threshold.seconds", "15"));
 
         // Activity Update Interval
-        if (dotenv != null && dotenv.get("ACTIVITY_UPDATE_INTERVAL_SECONDS") != null) {
-            activityUpdateIntervalSeconds = Integer.parseInt(dotenv.get("ACTIVITY_UPDATE_INTERVAL_SECONDS"));
-        } else {
-            activityUpdateIntervalSeconds = Integer
-                    .parseInt(props.getProperty("activity.update.interval.seconds"));
-        }
+        activityUpdateIntervalSeconds = Integer.parseInt(getSetting(dotenv, props,
+                "ACTIVITY_UPDATE_INTERVAL_SECONDS", "activity.update.interval.seconds", "30"));
+
+        httpControlTimeoutSeconds = Integer.parseInt(getSetting(dotenv, props,
+                "HTTP_CONTROL_TIMEOUT_SECONDS", "http.control.timeout.seconds", "10"));
+        httpControlMaxConcurrent = Integer.parseInt(getSetting(dotenv, props,
+                "HTTP_CONTROL_MAX_CONCURRENT", "http.control.max.concurrent", "4"));
+        httpUploadTimeoutSeconds = Integer.parseInt(getSetting(dotenv, props,
+                "HTTP_UPLOAD_TIMEOUT_SECONDS", "http.upload.timeout.seconds", "120"));
+        httpUploadMaxConcurrent = Integer.parseInt(getSetting(dotenv, props,
+                "HTTP_UPLOAD_MAX_CONCURRENT", "http.upload.max.concurrent", "2"));
+        outboxDir = getSetting(dotenv, props, "OUTBOX_DIR", "outbox.dir",
+                Path.of(System.getProperty("user.home"), ".monitoring-agent", "outbox").toString());
+        outboxMaxDiskMb = Long.parseLong(getSetting(dotenv, props,
+                "OUTBOX_MAX_DISK_MB", "outbox.max.disk.mb", "256"));
+        outboxBatchSize = Integer.parseInt(getSetting(dotenv, props,
+                "OUTBOX_BATCH_SIZE", "outbox.batch.size", "100"));
+        rememberLogin = Boolean.parseBoolean(getSetting(dotenv, props,
+                "AUTH_REMEMBER_LOGIN", "auth.remember.login", "true"));
+        telemetryReportIntervalMinutes = Double.parseDouble(getSetting(dotenv, props,
+                "TELEMETRY_REPORT_INTERVAL_MINUTES", "telemetry.report.interval.minutes", "5"));
+        windowCollectorType = getSetting(dotenv, props, "WINDOW_COLLECTOR", "window.collector", "auto");
+        windowSampleIntervalSeconds = Integer.parseInt(getSetting(dotenv, props,
+                "WINDOW_SAMPLE_INTERVAL_SECONDS", "window.sample.interval.seconds", "5"));
+        windowSpanFlushMinutes = Double.parseDouble(getSetting(dotenv, props,
+                "WINDOW_SPAN_FLUSH_MINUTES", "window.span.flush.minutes", "1"));
 
         logger.info("Configuration loaded - Backend: {}, Screenshot Interval: {}min, Idle Threshold: {}s",
                 backendUrl, screenshotIntervalMinutes, idleThresholdSeconds);
     }
 
+    /**
+     * Resolve a setting from the backend's pushed settings first, then .env,
+     * then agent.properties, then the default.
+     */
+    private String getSetting(io.github.cdimascio.dotenv.Dotenv dotenv, Properties props,
+            String envKey, String propertyKey, String defaultValue) {
+        String pushed = pushedSettings.getProperty(propertyKey);
+        if (pushed != null) {
+            return pushed;
+        }
+        if (dotenv != null && dotenv.get(envKey) != null) {
+            return dotenv.get(envKey);
+        }
+        return props.getProperty(propertyKey, defaultValue);
+    }
+
     private void setDefaults() {
         backendUrl = "http://localhost:8080";
         screenshotIntervalMinutes = 1.0;
@@ -490,11 +753,148 @@ public class MonitoringAgent extends Application {
         activityUpdateIntervalSeconds = 30;
     }
 
+    @Override
+    public void onControlMessage(ControlMessage message) {
+        switch (message.getCommand()) {
+            case ControlMessage.SESSION_STOPPED -> {
+                UUID stoppedSessionId = message.getSessionId();
+                if (stoppedSessionId == null || !stoppedSessionId.equals(currentSessionId)) {
+                    return;
+                }
+                logger.warn("Session {} was stopped by the backend ({})", stoppedSessionId, message.getReason());
+                javafx.application.Platform.runLater(() -> {
+                    // Re-check on the FX thread: a task switch may have replaced the session
+                    if (isMonitoring && stoppedSessionId.equals(currentSessionId)) {
+                        stopMonitoringLocal();
+                        ui.updateStatus(describeRemoteStop(message.getReason()), Color.web("#e74c3c"));
+                    }
+                });
+            }
+            case ControlMessage.RULE_CHANGED -> {
+                logger.info("Login rule {} changed; it applies from the next session start",
+                        message.getLoginRuleId());
+                // The session token carries the rule; fetch one with the new rule
+                tokenRefresher.refreshSoon();
+            }
+            case ControlMessage.CONFIG_UPDATED -> {
+                Map<String, String> settings = message.getSettings();
+                if (settings != null && !settings.isEmpty()) {
+                    javafx.application.Platform.runLater(() -> applySettings(settings));
+                }
+            }
+            default -> logger.debug("Ignoring control message {}", message.getCommand());
+        }
+    }
+
+    /**
+     * Applies settings pushed by the backend to the running agent and keeps
+     * them for the next start. Only capture, idle and sampling settings can
+     * change live; other keys and invalid values are ignored.
+     */
+    private void applySettings(Map<String, String> settings) {
+        Map<String, String> applied = new LinkedHashMap<>();
+        List<String> ignored = new ArrayList<>();
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            try {
+                if (applySetting(setting.getKey(), setting.getValue().trim())) {
+                    applied.put(setting.getKey(), setting.getValue().trim());
+                } else {
+                    ignored.add(setting.getKey());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring pushed setting {}={}: {}", setting.getKey(), setting.getValue(), e.getMessage());
+            }
+        }
+        if (!ignored.isEmpty()) {
+            logger.warn("Ignoring pushed settings {}; they can't be changed remotely", ignored);
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+
+        activityMonitor.setIdleThresholdSeconds(idleThresholdSeconds);
+        activeWindowTracker.setSampleIntervalMillis(windowSampleIntervalSeconds * 1000L);
+        screenshotSampleMillis = createCapturePolicy().getMinIntervalMillis();
+        screenshotCapture.reconfigure();
+        if (isMonitoring) {
+            // New intervals start counting from now
+            heartbeatTask.cancel(false);
+            heartbeatTask = scheduler.scheduleAtFixedRate(this::logActivity,
+                    activityUpdateIntervalSeconds, activityUpdateIntervalSeconds, TimeUnit.SECONDS);
+            screenshotTask.cancel(false);
+            screenshotTask = scheduler.scheduleAtFixedRate(this::captureAndUploadScreenshot,
+                    screenshotSampleMillis, screenshotSampleMillis, TimeUnit.MILLISECONDS);
+        }
+
+        configOverrides.save(applied);
+        logger.info("Applied settings pushed by the backend: {}", applied);
+    }
+
+    /**
+     * @return false if the setting can't be changed at runtime
+     */
+    private boolean applySetting(String key, String value) {
+        switch (key) {
+            case "screenshot.interval.minutes" -> screenshotIntervalMinutes = positive(Double.parseDouble(value));
+            case "screenshot.min.interval.seconds" ->
+                screenshotMinIntervalSeconds = (int) positive(Integer.parseInt(value));
+            case "screenshot.max.interval.minutes" -> screenshotMaxIntervalMinutes = positive(Double.parseDouble(value));
+            case "screenshot.change.threshold" -> screenshotChangeThreshold = positive(Double.parseDouble(value));
+            case "activity.idle.threshold.seconds" -> idleThresholdSeconds = (int) positive(Integer.parseInt(value));
+            case "activity.update.interval.seconds" ->
+                activityUpdateIntervalSeconds = (int) positive(Integer.parseInt(value));
+            case "window.sample.interval.seconds" ->
+                windowSampleIntervalSeconds = (int) positive(Integer.parseInt(value));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double positive(double value) {
+        if (!(value > 0)) {
+            throw new IllegalArgumentException("must be positive");
+        }
+        return value;
+    }
+
+    @Override
+    public void onControlConnected() {
+        // Stops pushed while the channel was down were missed; resync once
+        CompletableFuture.runAsync(this::syncSessionStatus);
+    }
+
+    @Override
+    public void onControlDisconnected() {
+        logger.warn("Control channel down, falling back to session status polling");
+    }
+
+    private String describeRemoteStop(String reason) {
+        if ("IDLE_TIMEOUT".equals(reason)) {
+            return "Session Auto-Stopped by Server";
+        } else if ("REPLACED".equals(reason)) {
+            return "Session Started on Another Device";
+        }
+        return "Session Stopped by Server";
+    }
+
+    /**
+     * Polling fallback: only hits the backend while the control channel is
+     * down.
+     */
+    private void checkSessionStatus() {
+        if (controlChannel.isConnected()) {
+            return;
+        }
+        syncSessionStatus();
+    }
+
     /**
      * Check if the session is still active on the backend
      * This detects when backend auto-stops a session due to idle timeout
      */
-    private void checkSessionStatus() {
+    private void syncSessionStatus() {
         if (!isMonitoring || currentSessionId == null) {
             return;
         }
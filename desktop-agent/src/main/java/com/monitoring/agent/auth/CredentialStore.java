@@ -0,0 +1,97 @@
+package com.monitoring.agent.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Keeps the re-authentication token from the last login on disk, so the agent
+ * can sign the user back in after a restart without asking for the password.
+ *
+ * The token is single use and short-lived; the file is readable by the owner
+ * only where the file system supports POSIX permissions.
+ */
+public class CredentialStore {
+    private static final Logger logger = LoggerFactory.getLogger(CredentialStore.class);
+
+    private final Path file;
+
+    public CredentialStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return the stored token, if there is one that hasn't expired
+     */
+    public synchronized Optional<StoredToken> load() {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        Properties props = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            props.load(input);
+            String userId = props.getProperty("userId");
+            String token = props.getProperty("token");
+            long expiresAt = Long.parseLong(props.getProperty("expiresAt", "0"));
+            if (userId == null || token == null || expiresAt <= System.currentTimeMillis()) {
+                clear();
+                return Optional.empty();
+            }
+            return Optional.of(new StoredToken(userId, token, expiresAt));
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Could not read stored credentials, ignoring them", e);
+            clear();
+            return Optional.empty();
+        }
+    }
+
+    public synchronized void save(String userId, String token, long expiresAt) {
+        Properties props = new Properties();
+        props.setProperty("userId", userId);
+        props.setProperty("token", token);
+        props.setProperty("expiresAt", String.valueOf(expiresAt));
+
+        try {
+            Files.createDirectories(file.getParent());
+            // Write a private temp file and move it over, so a crash never leaves half a token
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.deleteIfExists(temp);
+            Files.createFile(temp);
+            restrictToOwner(temp);
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                props.store(output, null);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not store credentials; the next start will ask for the password", e);
+        }
+    }
+
+    public synchronized void clear() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete stored credentials {}", file, e);
+        }
+    }
+
+    private static void restrictToOwner(Path path) {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException | IOException e) {
+            // Not a POSIX file system (Windows); the user profile directory is private already
+        }
+    }
+
+    public record StoredToken(String userId, String token, long expiresAt) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.monitoring.agent.auth;
+
+import com.monitoring.agent.client.BackendClient;
+import com.monitoring.agent.client.BackendResponseException;
+import com.monitoring.agent.model.AuthResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link BackendClient}'s session token fresh for the logged-in
+ * user. Before the token expires, or as soon as the backend rejects it (e.g.
+ * after the user's login rule changed), a new one is fetched with the
+ * single-use re-authentication token, which is rotated at the same time.
+ *
+ * If the backend rejects the re-authentication token, refreshing stops but
+ * the stored copy is kept; it is only dropped once a password login for the
+ * user has failed too (see {@code MonitoringAgent#onLoginRejected}).
+ */
+public class TokenRefresher {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRefresher.class);
+
+    private static final long REFRESH_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long MIN_REFRESH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final BackendClient backendClient;
+    private final CredentialStore credentialStore;
+    private final boolean rememberLogin;
+    private final ScheduledExecutorService scheduler;
+
+    private String userId;
+    private String reauthToken;
+    private ScheduledFuture<?> scheduled;
+    private long lastRefreshMillis;
+
+    public TokenRefresher(BackendClient backendClient, CredentialStore credentialStore, boolean rememberLogin) {
+        this.backendClient = backendClient;
+        this.credentialStore = credentialStore;
+        this.rememberLogin = rememberLogin;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        backendClient.setUnauthorizedListener(this::refreshSoon);
+    }
+
+    /**
+     * Starts using the tokens from a login or re-authentication.
+     */
+    public synchronized void start(AuthResponse user) {
+        this.userId = user.getUserId();
+        apply(user);
+    }
+
+    /**
+     * Stops refreshing and drops the tokens, e.g. on logout.
+     */
+    public synchronized void stop() {
+        cancel();
+        userId = null;
+        reauthToken = null;
+        backendClient.setAccessToken(null);
+    }
+
+    /**
+     * Fetches a new session token shortly, at most once per 30 seconds however
+     * many requests were rejected.
+     */
+    public synchronized void refreshSoon() {
+        if (userId == null) {
+            return;
+        }
+        long sinceLast = System.currentTimeMillis() - lastRefreshMillis;
+        schedule(Math.max(0, MIN_REFRESH_INTERVAL_MILLIS - sinceLast));
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void apply(AuthResponse response) {
+        backendClient.setAccessToken(response.getAccessToken());
+        reauthToken = response.getReauthToken();
+
+        // Tokens are single use; keep the fresh one for the next start
+        if (rememberLogin && reauthToken != null && response.getReauthTokenExpiresAt() != null) {
+            credentialStore.save(userId, reauthToken, response.getReauthTokenExpiresAt());
+        }
+
+        Long expiresAt = response.getAccessTokenExpiresAt();
+        if (expiresAt != null && reauthToken != null) {
+            long remaining = expiresAt - System.currentTimeMillis();
+            schedule(Math.max(MIN_REFRESH_INTERVAL_MILLIS,
+                    remaining - Math.min(REFRESH_MARGIN_MILLIS, remaining / 4)));
+        } else {
+            // Backend without session tokens; nothing to refresh
+            cancel();
+        }
+    }
+
+    private void schedule(long delayMillis) {
+        // An earlier pending refresh wins; a later one is replaced
+        if (scheduled != null && !scheduled.isDone()
+                && scheduled.getDelay(TimeUnit.MILLISECONDS) <= delayMillis) {
+            return;
+        }
+        cancel();
+        scheduled = scheduler.schedule(this::refresh, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancel() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+    }
+
+    private void refresh() {
+        String user;
+        String token;
+        synchronized (this) {
+            scheduled = null;
+            user = userId;
+            token = reauthToken;
+            lastRefreshMillis = System.currentTimeMillis();
+        }
+        if (user == null) {
+            return;
+        }
+        if (token == null) {
+            logger.warn("Session token rejected and no re-authentication token available");
+            return;
+        }
+
+        try {
+            AuthResponse response = backendClient.reauthenticate(user, token);
+            synchronized (this) {
+                // Logged out meanwhile
+                if (user.equals(userId)) {
+                    apply(response);
+                    logger.info("Session token refreshed");
+                }
+            }
+        } catch (BackendResponseException e) {
+            if (e.getStatusCode() == 401 || e.isClientError()) {
+                // The re-authentication token was revoked (e.g. password changed)
+                logger.error("Could not refresh session token, log in again: {}", e.getMessage());
+                synchronized (this) {
+                    cancel();
+                    reauthToken = null;
+                    backendClient.setAccessToken(null);
+                }
+            } else {
+                retryLater(e);
+            }
+        } catch (IOException e) {
+            retryLater(e);
+        }
+    }
+
+    private synchronized void retryLater(IOException e) {
+        logger.warn("Session token refresh failed ({}), retrying in a minute", e.getMessage());
+        if (userId != null) {
+            schedule(RETRY_DELAY_MILLIS);
+        }
+    }
+}
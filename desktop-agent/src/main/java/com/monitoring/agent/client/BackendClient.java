@@ -4,166 +4,409 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.monitoring.agent.model.AuthResponse;
 import com.monitoring.agent.model.LoginRequest;
+import com.monitoring.agent.model.ScreenshotData;
 import com.monitoring.agent.model.SessionResponse;
 import com.monitoring.agent.model.SignupRequest;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.ParseException;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
-import org.apache.hc.core5.http.io.entity.StringEntity;
+import com.monitoring.agent.telemetry.AgentTelemetry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * REST client for the backend, built on the JDK's asynchronous, HTTP/2-capable
+ * {@link HttpClient}.
+ *
+ * Requests are split into two lanes, each with its own connection pool,
+ * timeout and concurrency limit: a control lane for auth, session and
+ * heartbeat calls, and an upload lane for screenshots. A slow upload therefore
+ * never delays a heartbeat or a session check. The blocking methods are thin
+ * wrappers over the async ones.
+ */
 public class BackendClient {
     private static final Logger logger = LoggerFactory.getLogger(BackendClient.class);
 
+    private static final String APPLICATION_JSON = "application/json";
+
     private final String baseUrl;
-    private final CloseableHttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final RequestLane controlLane;
+    private final RequestLane uploadLane;
+
+    // Cleared when the backend predates POST /api/activity/batch
+    private volatile boolean batchSupported = true;
+
+    // Signed session token from the last login, sent as a bearer token
+    private volatile String accessToken;
+    private volatile Runnable unauthorizedListener;
 
     public BackendClient(String baseUrl) {
+        this(baseUrl, Duration.ofSeconds(10), 4, Duration.ofSeconds(120), 2);
+    }
+
+    /**
+     * @param controlTimeout     Timeout for auth, session and heartbeat requests
+     * @param controlConcurrency Max control requests in flight
+     * @param uploadTimeout      Timeout for a screenshot upload
+     * @param uploadConcurrency  Max uploads in flight
+     */
+    public BackendClient(String baseUrl, Duration controlTimeout, int controlConcurrency,
+            Duration uploadTimeout, int uploadConcurrency) {
+        this(baseUrl, controlTimeout, controlConcurrency, uploadTimeout, uploadConcurrency, null);
+    }
+
+    /**
+     * @param executor Executor for the HTTP clients' callbacks, shared with
+     *                 other clients and left running by {@link #close()}, or
+     *                 null for a pool owned by this client
+     */
+    public BackendClient(String baseUrl, Duration controlTimeout, int controlConcurrency,
+            Duration uploadTimeout, int uploadConcurrency, ExecutorService executor) {
         this.baseUrl = baseUrl;
-        this.httpClient = HttpClients.createDefault();
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
-    }
 
-    public AuthResponse signup(SignupRequest request) throws IOException, ParseException {
-        String url = baseUrl + "/api/auth/signup";
-        HttpPost httpPost = new HttpPost(url);
+        this.ownsExecutor = executor == null;
+        if (ownsExecutor) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "backend-http-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.executor = executor;
+        this.controlLane = new RequestLane("control", newHttpClient(controlTimeout), controlTimeout,
+                controlConcurrency);
+        this.uploadLane = new RequestLane("upload", newHttpClient(controlTimeout), uploadTimeout,
+                uploadConcurrency);
 
+        logger.info("Backend client: {}, {}", controlLane, uploadLane);
+    }
+
+    public AuthResponse signup(SignupRequest request) throws IOException {
         String json = objectMapper.writeValueAsString(request);
-        httpPost.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-
-        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-            String responseBody = EntityUtils.toString(response.getEntity());
-            int statusCode = response.getCode();
-
-            if (statusCode == 201) {
-                logger.info("Signup successful");
-                return objectMapper.readValue(responseBody, AuthResponse.class);
-            } else {
-                logger.error("Signup failed: {}", responseBody);
-                throw new IOException("Signup failed: " + responseBody);
-            }
+        HttpResponse<String> response = await(controlLane.send(post("/api/auth/signup", json), ofString()));
+        String responseBody = response.body();
+
+        if (response.statusCode() == 201) {
+            logger.info("Signup successful");
+            return objectMapper.readValue(responseBody, AuthResponse.class);
+        } else {
+            logger.error("Signup failed: {}", responseBody);
+            throw new IOException("Signup failed: " + responseBody);
         }
     }
 
-    public AuthResponse login(LoginRequest request) throws IOException, ParseException {
-        String url = baseUrl + "/api/auth/login";
-        HttpPost httpPost = new HttpPost(url);
-
+    public AuthResponse login(LoginRequest request) throws IOException {
         String json = objectMapper.writeValueAsString(request);
-        httpPost.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-
-        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-            String responseBody = EntityUtils.toString(response.getEntity());
-            int statusCode = response.getCode();
-
-            if (statusCode == 200) {
-                logger.info("Login successful");
-                return objectMapper.readValue(responseBody, AuthResponse.class);
-            } else {
-                logger.error("Login failed: {}", responseBody);
-                throw new IOException("Login failed: " + responseBody);
-            }
+        HttpResponse<String> response = await(controlLane.send(post("/api/auth/login", json), ofString()));
+        String responseBody = response.body();
+
+        if (response.statusCode() == 200) {
+            logger.info("Login successful");
+            return objectMapper.readValue(responseBody, AuthResponse.class);
+        } else {
+            logger.error("Login failed: {}", responseBody);
+            throw new BackendResponseException(response.statusCode(), "Login failed: " + responseBody);
         }
     }
 
-    public SessionResponse startSession(String userId, String taskName, Long estimatedDurationMinutes)
-            throws IOException, ParseException {
-        String url = baseUrl + "/api/sessions/start";
-        HttpPost request = new HttpPost(url);
+    /**
+     * Logs back in with the single-use token from the previous login. The
+     * response carries a fresh token.
+     */
+    public AuthResponse reauthenticate(String userId, String token) throws IOException {
+        String json = objectMapper.writeValueAsString(Map.of("userId", userId, "token", token));
+        HttpResponse<String> response = await(controlLane.send(post("/api/auth/reauth", json), ofString()));
+        checkStatus(response, "Re-authentication failed");
+        logger.info("Re-authentication successful");
+        return objectMapper.readValue(response.body(), AuthResponse.class);
+    }
 
-        String json = String.format("{\"userId\":\"%s\",\"taskName\":\"%s\",\"estimatedDurationMinutes\":%d}",
-                userId, taskName, estimatedDurationMinutes);
-        request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            String responseBody = EntityUtils.toString(response.getEntity());
-            int statusCode = response.getCode();
-
-            if (statusCode == 201) {
-                logger.info("Session started: {}", responseBody);
-                return objectMapper.readValue(responseBody, SessionResponse.class);
-            } else if (statusCode == 403) {
-                // Tracking not allowed due to login rule restrictions
-                logger.warn("Tracking not permitted: {}", responseBody);
-                throw new IOException("TRACKING_NOT_ALLOWED: " + responseBody);
-            } else {
-                logger.error("Failed to start session. Status: {}, Response: {}", statusCode, responseBody);
-                throw new IOException("Failed to start session: " + responseBody);
-            }
-        }
+    /**
+     * Telemetry to record each request's latency and body size in, per lane;
+     * null stops recording.
+     */
+    public void setTelemetry(AgentTelemetry telemetry) {
+        controlLane.setTelemetry(telemetry);
+        uploadLane.setTelemetry(telemetry);
+    }
+
+    /**
+     * Session token to send with every request, or null to send none.
+     */
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
     }
 
-    public SessionResponse stopSession(UUID sessionId) throws IOException, ParseException {
-        String url = baseUrl + "/api/sessions/" + sessionId + "/stop";
-        HttpPost request = new HttpPost(url);
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    /**
+     * Called when the backend rejects the session token (401), e.g. because it
+     * expired or was revoked, so a fresh one can be fetched.
+     */
+    public void setUnauthorizedListener(Runnable unauthorizedListener) {
+        this.unauthorizedListener = unauthorizedListener;
+    }
 
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            String responseBody = EntityUtils.toString(response.getEntity());
-            logger.info("Session stopped: {}", responseBody);
+    public SessionResponse startSession(String userId, String taskName, Long estimatedDurationMinutes)
+            throws IOException {
+        String json = String.format("{\"userId\":\"%s\",\"taskName\":\"%s\",\"estimatedDurationMinutes\":%d}",
+                userId, taskName, estimatedDurationMinutes);
+        HttpResponse<String> response = await(controlLane.send(post("/api/sessions/start", json), ofString()));
+        String responseBody = response.body();
+        int statusCode = response.statusCode();
+
+        if (statusCode == 201) {
+            logger.info("Session started: {}", responseBody);
             return objectMapper.readValue(responseBody, SessionResponse.class);
+        } else if (statusCode == 403) {
+            // Tracking not allowed due to login rule restrictions
+            logger.warn("Tracking not permitted: {}", responseBody);
+            throw new IOException("TRACKING_NOT_ALLOWED: " + responseBody);
+        } else if (statusCode == 401) {
+            // Session token expired or was revoked; a fresh one is fetched for the retry
+            onUnauthorized();
+            throw new BackendResponseException(statusCode, "Failed to start session: " + responseBody);
+        } else {
+            logger.error("Failed to start session. Status: {}, Response: {}", statusCode, responseBody);
+            throw new IOException("Failed to start session: " + responseBody);
         }
     }
 
-    public void logActivity(UUID sessionId, String activityStatus, String metadata) throws IOException {
-        String url = baseUrl + "/api/activity";
-        HttpPost request = new HttpPost(url);
+    public SessionResponse stopSession(UUID sessionId) throws IOException {
+        HttpRequest.Builder request = request("/api/sessions/" + sessionId + "/stop")
+                .POST(HttpRequest.BodyPublishers.noBody());
+        String responseBody = await(controlLane.send(request, ofString())).body();
+        logger.info("Session stopped: {}", responseBody);
+        return objectMapper.readValue(responseBody, SessionResponse.class);
+    }
 
+    public void logActivity(UUID sessionId, String activityStatus, String metadata) throws IOException {
         String json = String.format(
                 "{\"sessionId\":\"%s\",\"activityStatus\":\"%s\",\"metadata\":\"%s\"}",
                 sessionId, activityStatus, metadata != null ? metadata : "");
-        request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+        HttpResponse<Void> response = await(controlLane.send(post("/api/activity", json), discarding()));
+        checkStatus(response, "Failed to log activity");
+        logger.debug("Activity logged: {}", activityStatus);
+    }
+
+    /**
+     * Sends several activity entries in one request. Each entry is an
+     * already serialized JSON object, so replayed entries go out without being
+     * parsed again. Against a backend without the batch endpoint the entries
+     * are sent one by one.
+     */
+    public void logActivityBatch(List<byte[]> entries) throws IOException {
+        if (batchSupported) {
+            HttpRequest.Builder request = request("/api/activity/batch")
+                    .header("Content-Type", APPLICATION_JSON)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(jsonArray(entries)));
+            HttpResponse<Void> response = await(controlLane.send(request, discarding()));
+
+            if (response.statusCode() != 404 && response.statusCode() != 405) {
+                checkStatus(response, "Failed to log activity batch");
+                logger.debug("Activity batch logged: {} entries", entries.size());
+                return;
+            }
+            logger.info("Backend has no activity batch endpoint, sending heartbeats individually");
+            batchSupported = false;
+        }
 
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            EntityUtils.consume(response.getEntity());
-            logger.debug("Activity logged: {}", activityStatus);
+        for (byte[] entry : entries) {
+            HttpRequest.Builder request = request("/api/activity")
+                    .header("Content-Type", APPLICATION_JSON)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(entry));
+            checkStatus(await(controlLane.send(request, discarding())), "Failed to log activity");
         }
     }
 
-    public void uploadScreenshot(UUID sessionId, File screenshotFile, String metadata) throws IOException {
-        String url = baseUrl + "/api/screenshots";
-        HttpPost request = new HttpPost(url);
+    public void uploadScreenshot(UUID sessionId, ScreenshotData screenshot) throws IOException {
+        uploadScreenshot(sessionId, screenshot, null);
+    }
 
-        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-        builder.addTextBody("sessionId", sessionId.toString());
-        builder.addBinaryBody("file", screenshotFile, ContentType.IMAGE_PNG, screenshotFile.getName());
+    public void uploadScreenshot(UUID sessionId, ScreenshotData screenshot, Long clientTimestamp)
+            throws IOException {
+        await(uploadScreenshotAsync(sessionId, screenshot, clientTimestamp));
+    }
+
+    /**
+     * Uploads on the upload lane. The screenshot buffer is streamed as is, so
+     * it must not be reused until the returned future completes. Error
+     * statuses complete the future with a {@link BackendResponseException}.
+     *
+     * @param clientTimestamp Capture time in epoch millis, or null to let the
+     *                        backend use the time of arrival
+     */
+    public CompletableFuture<Void> uploadScreenshotAsync(UUID sessionId, ScreenshotData screenshot,
+            Long clientTimestamp) {
+        MultipartBody body = new MultipartBody()
+                .addText("sessionId", sessionId.toString())
+                .addText("captureGroupId", screenshot.getCaptureGroupId().toString())
+                .addText("displayIndex", String.valueOf(screenshot.getDisplayIndex()))
+                .addText("displayCount", String.valueOf(screenshot.getDisplayCount()));
+        if (clientTimestamp != null) {
+            body.addText("clientTimestamp", String.valueOf(clientTimestamp));
+        }
 
         // Add metadata if available
+        String metadata = screenshot.getMetadata();
         if (metadata != null && !metadata.isEmpty()) {
-            builder.addTextBody("metadata", metadata, ContentType.TEXT_PLAIN);
+            body.addText("metadata", metadata);
         }
+        body.addFile("file", screenshot.getFileName(), screenshot.getContentType(),
+                screenshot.getBuffer(), screenshot.getLength());
 
-        request.setEntity(builder.build());
+        HttpRequest.Builder request = request("/api/screenshots")
+                .header("Content-Type", body.getContentType())
+                .POST(body.build());
 
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            EntityUtils.consume(response.getEntity());
-            logger.info("Screenshot uploaded: {} with metadata: {}", screenshotFile.getName(), metadata);
-        }
+        return uploadLane.send(request, discarding()).thenApply(response -> {
+            try {
+                checkStatus(response, "Failed to upload screenshot");
+            } catch (BackendResponseException e) {
+                throw new CompletionException(e);
+            }
+            logger.info("Screenshot uploaded: {} with metadata: {}", screenshot.getFileName(), metadata);
+            return null;
+        });
     }
 
-    public SessionResponse getSession(UUID sessionId) throws IOException, ParseException {
-        String url = baseUrl + "/api/sessions/" + sessionId;
-        HttpGet request = new HttpGet(url);
+    public SessionResponse getSession(UUID sessionId) throws IOException {
+        HttpRequest.Builder request = request("/api/sessions/" + sessionId).GET();
+        String responseBody = await(controlLane.send(request, ofString())).body();
+        return objectMapper.readValue(responseBody, SessionResponse.class);
+    }
 
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            String responseBody = EntityUtils.toString(response.getEntity());
-            return objectMapper.readValue(responseBody, SessionResponse.class);
+    /**
+     * Number of screenshot uploads in flight or waiting for the upload lane.
+     */
+    public int getPendingUploads() {
+        return uploadLane.getInFlight() + uploadLane.getQueued();
+    }
+
+    /**
+     * Unwraps the failure of an async call into the IOException the blocking
+     * methods would have thrown.
+     */
+    public static IOException unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
         }
+        return cause instanceof IOException io ? io : new IOException(cause.getMessage(), cause);
     }
 
     public void close() throws IOException {
-        httpClient.close();
+        controlLane.close();
+        uploadLane.close();
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpClient newHttpClient(Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        String token = accessToken;
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return request(path)
+                .header("Content-Type", APPLICATION_JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8));
+    }
+
+    private static HttpResponse.BodyHandler<String> ofString() {
+        return HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8);
+    }
+
+    private static HttpResponse.BodyHandler<Void> discarding() {
+        return HttpResponse.BodyHandlers.discarding();
+    }
+
+    private static byte[] jsonArray(List<byte[]> entries) {
+        int size = 2 + entries.size();
+        for (byte[] entry : entries) {
+            size += entry.length;
+        }
+        ByteArrayOutputStream json = new ByteArrayOutputStream(size);
+        json.write('[');
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                json.write(',');
+            }
+            json.writeBytes(entries.get(i));
+        }
+        json.write(']');
+        return json.toByteArray();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for backend response");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private void checkStatus(HttpResponse<?> response, String message) throws BackendResponseException {
+        int statusCode = response.statusCode();
+        if (statusCode == 401) {
+            onUnauthorized();
+        }
+        if (statusCode >= 300) {
+            // Sent with 429/503 when the backend sheds load; only the seconds form is used
+            long retryAfterMillis = response.headers().firstValue("Retry-After")
+                    .filter(value -> value.matches("\\d+"))
+                    .map(value -> Long.parseLong(value) * 1000)
+                    .orElse(-1L);
+            throw new BackendResponseException(statusCode, message + " (HTTP " + statusCode + ")", retryAfterMillis);
+        }
+    }
+
+    private void onUnauthorized() {
+        Runnable listener = unauthorizedListener;
+        if (accessToken != null && listener != null) {
+            listener.run();
+        }
     }
 }
@@ -0,0 +1,45 @@
+package com.monitoring.agent.client;
+
+import java.io.IOException;
+
+/**
+ * The backend answered, but with an error status. Lets callers tell a request
+ * the backend rejected (4xx, retrying won't help) from one that failed in
+ * transit, on a server error or because the backend is shedding load (worth
+ * retrying).
+ */
+public class BackendResponseException extends IOException {
+    private final int statusCode;
+    private final long retryAfterMillis;
+
+    public BackendResponseException(int statusCode, String message) {
+        this(statusCode, message, -1);
+    }
+
+    public BackendResponseException(int statusCode, String message, long retryAfterMillis) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * A 4xx other than 401 (session token expired, retried once it is
+     * refreshed), 408 (timeout) and 429 (too many requests), which are worth
+     * retrying later.
+     */
+    public boolean isClientError() {
+        return statusCode >= 400 && statusCode < 500 && statusCode != 401 && statusCode != 408
+                && statusCode != 429;
+    }
+
+    /**
+     * Delay the backend asked for with Retry-After, or -1 if it didn't.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
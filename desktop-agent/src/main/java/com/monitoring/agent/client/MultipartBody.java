@@ -0,0 +1,54 @@
+package com.monitoring.agent.client;
+
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Minimal multipart/form-data body for {@link java.net.http.HttpClient}.
+ * File parts publish a slice of an existing byte array, so encoded
+ * screenshots go straight from the encoder's buffer onto the wire.
+ */
+final class MultipartBody {
+    private final String boundary = "monitoring-" + UUID.randomUUID();
+    private final List<HttpRequest.BodyPublisher> parts = new ArrayList<>();
+
+    MultipartBody addText(String name, String value) {
+        parts.add(ascii("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + escape(name) + "\"\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n\r\n"));
+        parts.add(HttpRequest.BodyPublishers.ofByteArray(value.getBytes(StandardCharsets.UTF_8)));
+        parts.add(ascii("\r\n"));
+        return this;
+    }
+
+    MultipartBody addFile(String name, String fileName, String contentType, byte[] buffer, int length) {
+        parts.add(HttpRequest.BodyPublishers.ofByteArray(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + escape(name) + "\"; filename=\""
+                + escape(fileName) + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8)));
+        parts.add(HttpRequest.BodyPublishers.ofByteArray(buffer, 0, length));
+        parts.add(ascii("\r\n"));
+        return this;
+    }
+
+    String getContentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    HttpRequest.BodyPublisher build() {
+        List<HttpRequest.BodyPublisher> all = new ArrayList<>(parts);
+        all.add(ascii("--" + boundary + "--\r\n"));
+        return HttpRequest.BodyPublishers.concat(all.toArray(HttpRequest.BodyPublisher[]::new));
+    }
+
+    private static HttpRequest.BodyPublisher ascii(String value) {
+        return HttpRequest.BodyPublishers.ofByteArray(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String escape(String value) {
+        return value.replace("\"", "%22").replace("\r", "").replace("\n", "");
+    }
+}
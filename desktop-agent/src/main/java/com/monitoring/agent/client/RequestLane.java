@@ -0,0 +1,119 @@
+package com.monitoring.agent.client;
+
+import com.monitoring.agent.telemetry.AgentTelemetry;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A class of requests with its own connection pool, request timeout and
+ * concurrency limit. Requests beyond the limit wait in FIFO order without
+ * holding a thread, so small control requests on one lane never queue behind
+ * large uploads on another.
+ */
+final class RequestLane {
+    private final String name;
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final int maxConcurrent;
+
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int inFlight;
+
+    private volatile AgentTelemetry telemetry;
+
+    RequestLane(String name, HttpClient httpClient, Duration timeout, int maxConcurrent) {
+        this.name = name;
+        this.httpClient = httpClient;
+        this.timeout = timeout;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+    }
+
+    <T> CompletableFuture<HttpResponse<T>> send(HttpRequest.Builder builder, HttpResponse.BodyHandler<T> handler) {
+        HttpRequest request = builder.timeout(timeout).build();
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+
+        Runnable start = () -> {
+            long started = System.nanoTime();
+            httpClient.sendAsync(request, handler).whenComplete((response, error) -> {
+                release();
+                record(request, started);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            });
+        };
+
+        boolean startNow;
+        synchronized (this) {
+            startNow = inFlight < maxConcurrent;
+            if (startNow) {
+                inFlight++;
+            } else {
+                waiting.add(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    void setTelemetry(AgentTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getQueued() {
+        return waiting.size();
+    }
+
+    void close() {
+        httpClient.close();
+    }
+
+    /**
+     * Latency from the request leaving the lane's queue to its completion,
+     * and request body size where known.
+     */
+    private void record(HttpRequest request, long startedNanos) {
+        AgentTelemetry current = telemetry;
+        if (current == null) {
+            return;
+        }
+        current.record(AgentTelemetry.httpLatency(name), (System.nanoTime() - startedNanos) / 1_000_000);
+        long bytes = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L);
+        if (bytes >= 0) {
+            current.record(AgentTelemetry.httpBytes(name), bytes);
+        }
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        // The permit passes straight to the next waiting request
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " lane (max " + maxConcurrent + ", timeout " + timeout.toSeconds() + "s)";
+    }
+}
@@ -0,0 +1,62 @@
+package com.monitoring.agent.control;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Agent settings pushed by the backend with CONFIG_UPDATED, kept on disk
+ * (agent.properties keys) so they still apply after a restart. They take
+ * precedence over .env and agent.properties.
+ */
+public class ConfigOverrides {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigOverrides.class);
+
+    private final Path file;
+
+    public ConfigOverrides(Path file) {
+        this.file = file;
+    }
+
+    public synchronized Properties load() {
+        Properties props = new Properties();
+        if (!Files.exists(file)) {
+            return props;
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            props.load(input);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Could not read pushed settings {}, ignoring them", file, e);
+            props.clear();
+        }
+        return props;
+    }
+
+    /**
+     * Merges settings into the stored ones.
+     */
+    public synchronized void save(Map<String, String> settings) {
+        Properties props = load();
+        props.putAll(settings);
+
+        try {
+            Files.createDirectories(file.getParent());
+            // Write a temp file and move it over, so a crash never leaves half a file
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                props.store(output, "Pushed by the backend");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not store pushed settings; they apply until the agent restarts", e);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.monitoring.agent.control;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monitoring.agent.model.ControlMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Long-lived STOMP-over-WebSocket connection to the backend's broker, used to
+ * receive control messages (session stops, rule changes, config updates) as
+ * soon as they happen.
+ *
+ * Subscribes to the user's own control destination and the fleet-wide one.
+ * The session token goes with each CONNECT; the backend only lets a user's
+ * own agent subscribe to that user's destination.
+ * STOMP heartbeats in both directions detect dead connections, and the channel
+ * reconnects with exponential backoff until {@link #disconnect()} is called.
+ */
+public class ControlChannel implements WebSocket.Listener {
+    private static final Logger logger = LoggerFactory.getLogger(ControlChannel.class);
+
+    private static final String CONTROL_DESTINATION = "/topic/control";
+    private static final long HEARTBEAT_MILLIS = 10_000;
+    private static final long INITIAL_RECONNECT_MILLIS = 1_000;
+    private static final long MAX_RECONNECT_MILLIS = 60_000;
+
+    private final URI endpoint;
+    private final ControlListener listener;
+    private final Supplier<String> accessToken;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+
+    // Text frames may arrive in several parts
+    private final StringBuilder incoming = new StringBuilder();
+
+    private volatile String userId;
+    private volatile WebSocket webSocket;
+    private volatile boolean connected;
+    private volatile long lastReceivedMillis;
+    private volatile boolean serverHeartbeats;
+
+    private CompletableFuture<WebSocket> sendChain = CompletableFuture.completedFuture(null);
+    private ScheduledFuture<?> heartbeatTask;
+    private ScheduledFuture<?> reconnectTask;
+    private long reconnectDelayMillis = INITIAL_RECONNECT_MILLIS;
+
+    /**
+     * @param backendUrl  Backend base URL (http or https)
+     * @param accessToken Current session token, read on every (re)connect
+     */
+    public ControlChannel(String backendUrl, Supplier<String> accessToken, ControlListener listener) {
+        this.endpoint = URI.create(backendUrl.replaceFirst("^http", "ws") + "/api/ws/agent");
+        this.accessToken = accessToken;
+        this.listener = listener;
+        this.httpClient = HttpClient.newHttpClient();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "control-channel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the channel for a user, replacing any previous connection.
+     */
+    public synchronized void connect(String userId) {
+        disconnect();
+        this.userId = userId;
+        reconnectDelayMillis = INITIAL_RECONNECT_MILLIS;
+        scheduler.execute(this::open);
+    }
+
+    /**
+     * Closes the channel and stops reconnecting.
+     */
+    public synchronized void disconnect() {
+        userId = null;
+        if (reconnectTask != null) {
+            reconnectTask.cancel(false);
+            reconnectTask = null;
+        }
+        WebSocket current = webSocket;
+        if (current != null) {
+            send(current, "DISCONNECT\n\n\0");
+            sendChain = sendChain
+                    .exceptionally(error -> null)
+                    .thenCompose(ignored -> current.sendClose(WebSocket.NORMAL_CLOSURE, ""));
+        }
+        closed(current);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public void shutdown() {
+        disconnect();
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        if (webSocket == this.webSocket) {
+            lastReceivedMillis = System.currentTimeMillis();
+            incoming.append(data);
+            if (last) {
+                String frames = incoming.toString();
+                incoming.setLength(0);
+                for (String frame : frames.split("\0")) {
+                    handleFrame(webSocket, frame);
+                }
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        logger.info("Control channel closed by backend ({} {})", statusCode, reason);
+        lost(webSocket);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        logger.warn("Control channel error: {}", error.getMessage());
+        lost(webSocket);
+    }
+
+    private void open() {
+        String user = userId;
+        if (user == null) {
+            return;
+        }
+
+        httpClient.newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(endpoint, this)
+                .whenComplete((opened, error) -> {
+                    if (error != null) {
+                        logger.warn("Control channel connect failed: {}", error.getMessage());
+                        scheduleReconnect();
+                        return;
+                    }
+                    synchronized (this) {
+                        if (!user.equals(userId)) {
+                            opened.sendClose(WebSocket.NORMAL_CLOSURE, "");
+                            return;
+                        }
+                        webSocket = opened;
+                        lastReceivedMillis = System.currentTimeMillis();
+                    }
+                    String token = accessToken.get();
+                    send(opened, "CONNECT\naccept-version:1.2\nhost:" + endpoint.getHost()
+                            + (token != null ? "\nAuthorization:Bearer " + token : "")
+                            + "\nheart-beat:" + HEARTBEAT_MILLIS + "," + HEARTBEAT_MILLIS + "\n\n\0");
+                });
+    }
+
+    private void handleFrame(WebSocket webSocket, String frame) {
+        // Heartbeats are bare newlines between frames
+        int start = 0;
+        while (start < frame.length() && (frame.charAt(start) == '\n' || frame.charAt(start) == '\r')) {
+            start++;
+        }
+        if (start == frame.length()) {
+            return;
+        }
+
+        int headerEnd = frame.indexOf("\n\n", start);
+        String head = headerEnd < 0 ? frame.substring(start) : frame.substring(start, headerEnd);
+        String body = headerEnd < 0 ? "" : frame.substring(headerEnd + 2);
+        String[] lines = head.split("\r?\n");
+        String command = lines[0];
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) {
+                headers.putIfAbsent(lines[i].substring(0, colon), lines[i].substring(colon + 1));
+            }
+        }
+
+        switch (command) {
+            case "CONNECTED" -> onConnected(webSocket, headers.get("heart-beat"));
+            case "MESSAGE" -> onMessage(headers.get("destination"), body);
+            case "ERROR" -> {
+                logger.warn("Control channel STOMP error: {} {}", headers.get("message"), body);
+                webSocket.abort();
+                lost(webSocket);
+            }
+            default -> logger.debug("Ignoring STOMP {} frame", command);
+        }
+    }
+
+    private void onConnected(WebSocket webSocket, String heartBeat) {
+        String user = userId;
+        if (user == null) {
+            return;
+        }
+        send(webSocket, "SUBSCRIBE\nid:user\ndestination:" + CONTROL_DESTINATION + "/" + user + "\n\n\0");
+        send(webSocket, "SUBSCRIBE\nid:fleet\ndestination:" + CONTROL_DESTINATION + "\n\n\0");
+
+        // heart-beat:sx,sy - the server sends heartbeats only if sx > 0
+        String[] intervals = heartBeat != null ? heartBeat.split(",") : new String[0];
+        serverHeartbeats = intervals.length == 2 && !"0".equals(intervals[0].trim());
+
+        synchronized (this) {
+            connected = true;
+            reconnectDelayMillis = INITIAL_RECONNECT_MILLIS;
+            if (heartbeatTask != null) {
+                heartbeatTask.cancel(false);
+            }
+            heartbeatTask = scheduler.scheduleAtFixedRate(() -> heartbeat(webSocket),
+                    HEARTBEAT_MILLIS, HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Control channel connected for user {} (server heart-beat {})", user, heartBeat);
+        listener.onControlConnected();
+    }
+
+    private void onMessage(String destination, String body) {
+        try {
+            ControlMessage message = objectMapper.readValue(body, ControlMessage.class);
+            logger.info("Control message from {}: {}", destination, message.getCommand());
+            listener.onControlMessage(message);
+        } catch (Exception e) {
+            logger.warn("Failed to handle control message from {}", destination, e);
+        }
+    }
+
+    private void heartbeat(WebSocket webSocket) {
+        if (serverHeartbeats && System.currentTimeMillis() - lastReceivedMillis > 3 * HEARTBEAT_MILLIS) {
+            logger.warn("Control channel heartbeat timed out, reconnecting");
+            webSocket.abort();
+            lost(webSocket);
+            return;
+        }
+        send(webSocket, "\n");
+    }
+
+    /**
+     * Sends are chained because a WebSocket allows only one outstanding send.
+     */
+    private synchronized void send(WebSocket webSocket, String frame) {
+        sendChain = sendChain
+                .exceptionally(error -> null)
+                .thenCompose(ignored -> webSocket.sendText(frame, true));
+    }
+
+    private void lost(WebSocket webSocket) {
+        synchronized (this) {
+            if (webSocket != this.webSocket) {
+                return;
+            }
+            closed(webSocket);
+        }
+        scheduleReconnect();
+    }
+
+    private synchronized void closed(WebSocket webSocket) {
+        if (webSocket != null && webSocket == this.webSocket) {
+            this.webSocket = null;
+        }
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel(false);
+            heartbeatTask = null;
+        }
+        incoming.setLength(0);
+        if (connected) {
+            connected = false;
+            listener.onControlDisconnected();
+        }
+    }
+
+    private synchronized void scheduleReconnect() {
+        if (userId == null || scheduler.isShutdown()) {
+            return;
+        }
+        long delay = reconnectDelayMillis / 2 + ThreadLocalRandom.current().nextLong(reconnectDelayMillis / 2 + 1);
+        reconnectDelayMillis = Math.min(MAX_RECONNECT_MILLIS, reconnectDelayMillis * 2);
+        logger.info("Reconnecting control channel in {} ms", delay);
+        reconnectTask = scheduler.schedule(this::open, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,19 @@
+package com.monitoring.agent.control;
+
+import com.monitoring.agent.model.ControlMessage;
+
+/**
+ * Receives control channel events. Called on the channel's I/O threads.
+ */
+public interface ControlListener {
+
+    void onControlMessage(ControlMessage message);
+
+    /**
+     * The channel (re)connected. Messages sent while it was down are lost, so
+     * this is the time to resync state with the backend.
+     */
+    void onControlConnected();
+
+    void onControlDisconnected();
+}
@@ -1,7 +1,9 @@
 package com.monitoring.agent.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class AuthResponse {
 
     @JsonProperty("userId")
@@ -19,6 +21,20 @@ public class AuthResponse {
     @JsonProperty("phoneNumber")
     private String phoneNumber;
 
+    // Signed session token sent with every request
+    @JsonProperty("accessToken")
+    private String accessToken;
+
+    @JsonProperty("accessTokenExpiresAt")
+    private Long accessTokenExpiresAt;
+
+    // Single-use token for logging back in without the password
+    @JsonProperty("reauthToken")
+    private String reauthToken;
+
+    @JsonProperty("reauthTokenExpiresAt")
+    private Long reauthTokenExpiresAt;
+
     public AuthResponse() {
     }
 
@@ -71,4 +87,36 @@ public class AuthResponse {
     public void setPhoneNumber(String phoneNumber) {
         this.phoneNumber = phoneNumber;
     }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    public Long getAccessTokenExpiresAt() {
+        return accessTokenExpiresAt;
+    }
+
+    public void setAccessTokenExpiresAt(Long accessTokenExpiresAt) {
+        this.accessTokenExpiresAt = accessTokenExpiresAt;
+    }
+
+    public String getReauthToken() {
+        return reauthToken;
+    }
+
+    public void setReauthToken(String reauthToken) {
+        this.reauthToken = reauthToken;
+    }
+
+    public Long getReauthTokenExpiresAt() {
+        return reauthTokenExpiresAt;
+    }
+
+    public void setReauthTokenExpiresAt(Long reauthTokenExpiresAt) {
+        this.reauthTokenExpiresAt = reauthTokenExpiresAt;
+    }
 }
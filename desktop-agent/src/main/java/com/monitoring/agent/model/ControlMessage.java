@@ -0,0 +1,72 @@
+package com.monitoring.agent.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Command pushed by the backend over the control channel.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ControlMessage {
+    public static final String SESSION_STOPPED = "SESSION_STOPPED";
+    public static final String RULE_CHANGED = "RULE_CHANGED";
+    public static final String CONFIG_UPDATED = "CONFIG_UPDATED";
+
+    @JsonProperty("command")
+    private String command;
+
+    @JsonProperty("sessionId")
+    private UUID sessionId;
+
+    @JsonProperty("reason")
+    private String reason;
+
+    @JsonProperty("loginRuleId")
+    private Long loginRuleId;
+
+    @JsonProperty("settings")
+    private Map<String, String> settings;
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public UUID getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(UUID sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public Long getLoginRuleId() {
+        return loginRuleId;
+    }
+
+    public void setLoginRuleId(Long loginRuleId) {
+        this.loginRuleId = loginRuleId;
+    }
+
+    public Map<String, String> getSettings() {
+        return settings;
+    }
+
+    public void setSettings(Map<String, String> settings) {
+        this.settings = settings;
+    }
+}
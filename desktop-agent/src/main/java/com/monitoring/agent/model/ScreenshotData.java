@@ -1,24 +1,64 @@
 package com.monitoring.agent.model;
 
-import java.io.File;
+import java.util.UUID;
 
 /**
- * Container for screenshot data including the file and metadata.
+ * Container for an encoded screenshot and its metadata.
+ * The image bytes live in the encoder's reusable buffer, so an instance is
+ * only valid until the next frame is encoded. Frames of different displays
+ * captured in the same cycle share a capture group id.
  */
 public class ScreenshotData {
-    private final File file;
+    private final byte[] buffer;
+    private final int length;
+    private final String contentType;
+    private final String fileName;
     private final String metadata;
+    private final UUID captureGroupId;
+    private final int displayIndex;
+    private final int displayCount;
 
-    public ScreenshotData(File file, String metadata) {
-        this.file = file;
+    public ScreenshotData(byte[] buffer, int length, String contentType, String fileName, String metadata,
+            UUID captureGroupId, int displayIndex, int displayCount) {
+        this.buffer = buffer;
+        this.length = length;
+        this.contentType = contentType;
+        this.fileName = fileName;
         this.metadata = metadata;
+        this.captureGroupId = captureGroupId;
+        this.displayIndex = displayIndex;
+        this.displayCount = displayCount;
     }
 
-    public File getFile() {
-        return file;
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileName() {
+        return fileName;
     }
 
     public String getMetadata() {
         return metadata;
     }
+
+    public UUID getCaptureGroupId() {
+        return captureGroupId;
+    }
+
+    public int getDisplayIndex() {
+        return displayIndex;
+    }
+
+    public int getDisplayCount() {
+        return displayCount;
+    }
 }
@@ -0,0 +1,17 @@
+package com.monitoring.agent.model;
+
+import java.util.Map;
+
+/**
+ * The agent's own resource use since the previous report, sent along with a
+ * heartbeat. Histograms are keyed by metric name, which ends in the unit.
+ */
+public record TelemetryReport(Map<String, Histogram> histograms) {
+
+    /**
+     * @param buckets Count per non-empty bucket, see
+     *                {@link com.monitoring.agent.telemetry.TelemetryHistogram}
+     */
+    public record Histogram(long count, long sum, long max, Map<Integer, Long> buckets) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.monitoring.agent.model;
+
+/**
+ * A stretch of time during which one window was in the foreground.
+ *
+ * @param app   Executable name of the window's process, e.g. {@code chrome.exe}
+ * @param start Epoch millis when the window came to the foreground
+ * @param end   Epoch millis when it lost the foreground, or when the span was
+ *              cut to be sent
+ */
+public record WindowSpan(String app, String title, long start, long end) {
+}
@@ -0,0 +1,8 @@
+package com.monitoring.agent.monitor;
+
+/**
+ * The foreground window: its process's executable name, its title and the
+ * process ID (0 if unknown).
+ */
+public record ActiveWindow(String app, String title, long processId) {
+}
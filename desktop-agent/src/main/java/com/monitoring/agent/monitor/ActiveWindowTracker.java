@@ -0,0 +1,136 @@
+package com.monitoring.agent.monitor;
+
+import com.monitoring.agent.model.WindowSpan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Follows the foreground window and turns it into usage spans.
+ *
+ * {@link #poll} runs every second and only reads the window handle, which is
+ * cheap; each change is reported to the {@link ActivityMonitor} as a window
+ * switch. The title and process are read when the handle changes and at
+ * least every sample interval otherwise, since a browser or editor changes
+ * its title without changing windows. Consecutive samples of the same app
+ * and title extend one span.
+ *
+ * Finished spans are collected until {@link #takeSpans} hands them out, once
+ * per flush interval, so they reach the backend in batches. The open span is
+ * cut at that point and continues as a new span.
+ */
+public class ActiveWindowTracker {
+    static final int MAX_TITLE_LENGTH = 255;
+
+    private final WindowMetadataCollector collector;
+    private final ActivityMonitor activityMonitor;
+    private long sampleIntervalMillis;
+    private final long flushIntervalMillis;
+
+    private long lastWindowId;
+    private long lastSampleAt;
+    private long lastFlushAt;
+    // The window being tracked and when its span started; null while none is
+    private ActiveWindow current;
+    private long currentStart;
+    private final List<WindowSpan> finished = new ArrayList<>();
+
+    public ActiveWindowTracker(WindowMetadataCollector collector, ActivityMonitor activityMonitor,
+            long sampleIntervalMillis, long flushIntervalMillis) {
+        this.collector = collector;
+        this.activityMonitor = activityMonitor;
+        this.sampleIntervalMillis = sampleIntervalMillis;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public synchronized void setSampleIntervalMillis(long sampleIntervalMillis) {
+        this.sampleIntervalMillis = sampleIntervalMillis;
+    }
+
+    public synchronized void poll(long now) {
+        long windowId = collector.foregroundWindowId();
+        // 0 while the desktop or a lock screen has focus; not a switch
+        boolean switched = windowId != 0 && lastWindowId != 0 && windowId != lastWindowId;
+        if (switched) {
+            activityMonitor.recordWindowSwitch();
+        }
+        if (windowId != 0) {
+            lastWindowId = windowId;
+        }
+
+        if (switched || current == null || now - lastSampleAt >= sampleIntervalMillis) {
+            lastSampleAt = now;
+            track(collector.collectActiveWindow(), now);
+        }
+    }
+
+    /**
+     * Finished spans since the previous call, or null until the flush
+     * interval has passed. The open span is cut at {@code now} and included.
+     */
+    public synchronized List<WindowSpan> takeSpans(long now) {
+        if (now - lastFlushAt < flushIntervalMillis) {
+            return null;
+        }
+        lastFlushAt = now;
+        if (current != null) {
+            finish(now);
+            currentStart = now;
+        }
+        if (finished.isEmpty()) {
+            return null;
+        }
+        List<WindowSpan> spans = List.copyOf(finished);
+        finished.clear();
+        return spans;
+    }
+
+    /**
+     * Ends the open span, e.g. when monitoring is paused; the next poll
+     * starts a new one.
+     */
+    public synchronized void close(long now) {
+        if (current != null) {
+            finish(now);
+            current = null;
+        }
+    }
+
+    /**
+     * Forgets all state, including spans not yet taken, for a new session.
+     */
+    public synchronized void reset(long now) {
+        lastWindowId = 0;
+        lastSampleAt = 0;
+        lastFlushAt = now;
+        current = null;
+        finished.clear();
+    }
+
+    private void track(ActiveWindow window, long now) {
+        ActiveWindow sampled = window != null ? truncate(window) : null;
+        if (Objects.equals(sampled, current)) {
+            return;
+        }
+        if (current != null) {
+            finish(now);
+        }
+        current = sampled;
+        currentStart = now;
+    }
+
+    private void finish(long now) {
+        if (now > currentStart) {
+            finished.add(new WindowSpan(current.app(), current.title(), currentStart, now));
+        }
+    }
+
+    private static ActiveWindow truncate(ActiveWindow window) {
+        String title = window.title();
+        if (title == null || title.length() <= MAX_TITLE_LENGTH) {
+            return window;
+        }
+        return new ActiveWindow(window.app(), title.substring(0, MAX_TITLE_LENGTH), window.processId());
+    }
+}
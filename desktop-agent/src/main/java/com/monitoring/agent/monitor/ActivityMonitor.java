@@ -9,19 +9,45 @@ import com.github.kwhat.jnativehook.mouse.NativeMouseInputListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks keyboard and mouse activity from JNativeHook's dispatch thread.
+ *
+ * Callbacks arrive hundreds of times a second while the mouse moves, so they
+ * only bump counters and a {@code System.nanoTime} timestamp: no allocation,
+ * no locking and no logging. Mouse moves refresh the timestamp at most every
+ * {@link #MOVE_SAMPLE_NANOS}, which is far finer than the idle threshold.
+ */
 public class ActivityMonitor implements NativeKeyListener, NativeMouseInputListener {
     private static final Logger logger = LoggerFactory.getLogger(ActivityMonitor.class);
 
-    private volatile LocalDateTime lastActivityTime;
-    private final int idleThresholdSeconds;
+    static final long MOVE_SAMPLE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private volatile long lastActivityNanos;
+    // Native input events delivered, for the agent's own telemetry
+    private final LongAdder inputEvents = new LongAdder();
+    // Interaction counters, taken with each heartbeat
+    private final LongAdder keyPresses = new LongAdder();
+    private final LongAdder mouseClicks = new LongAdder();
+    private final LongAdder mouseDistance = new LongAdder();
+    private final LongAdder windowSwitches = new LongAdder();
+    // Last pointer position; only touched on the dispatch thread
+    private int lastMouseX = -1;
+    private int lastMouseY = -1;
+    private volatile int idleThresholdSeconds;
+    private volatile long idleThresholdNanos;
     private boolean isMonitoring = false;
 
     public ActivityMonitor(int idleThresholdSeconds) {
+        setIdleThresholdSeconds(idleThresholdSeconds);
+        this.lastActivityNanos = System.nanoTime();
+    }
+
+    public void setIdleThresholdSeconds(int idleThresholdSeconds) {
+        this.idleThresholdNanos = TimeUnit.SECONDS.toNanos(idleThresholdSeconds);
         this.idleThresholdSeconds = idleThresholdSeconds;
-        this.lastActivityTime = LocalDateTime.now();
     }
 
     public void start() throws NativeHookException {
@@ -39,7 +65,9 @@ public class ActivityMonitor implements NativeKeyListener, NativeMouseInputListe
             GlobalScreen.addNativeMouseListener(this);
             GlobalScreen.addNativeMouseMotionListener(this);
             isMonitoring = true;
-            lastActivityTime = LocalDateTime.now();
+            lastMouseX = -1;
+            lastMouseY = -1;
+            recordActivity();
             logger.info("Activity monitoring started with idle threshold: {} seconds", idleThresholdSeconds);
         }
     }
@@ -76,23 +104,72 @@ public class ActivityMonitor implements NativeKeyListener, NativeMouseInputListe
     }
 
     public boolean isIdle() {
-        long secondsSinceLastActivity = ChronoUnit.SECONDS.between(lastActivityTime, LocalDateTime.now());
-        return secondsSinceLastActivity >= idleThresholdSeconds;
+        return System.nanoTime() - lastActivityNanos >= idleThresholdNanos;
     }
 
     public String getActivityStatus() {
         return isIdle() ? "IDLE" : "ACTIVE";
     }
 
+    /**
+     * Keyboard and mouse events received since the previous call.
+     */
+    public long takeInputEventCount() {
+        return inputEvents.sumThenReset();
+    }
+
+    /**
+     * Key presses, mouse presses, pointer travel and window switches since
+     * the previous call.
+     */
+    public InteractionCounts takeInteractionCounts() {
+        return new InteractionCounts(take(keyPresses), take(mouseClicks), take(mouseDistance),
+                take(windowSwitches));
+    }
+
+    /**
+     * Called when the foreground window changes. Not counted as activity on
+     * its own, since applications can take focus without the user.
+     */
+    public void recordWindowSwitch() {
+        windowSwitches.increment();
+    }
+
+    private static int take(LongAdder counter) {
+        return (int) Math.min(Integer.MAX_VALUE, counter.sumThenReset());
+    }
+
     public void recordActivity() {
-        lastActivityTime = LocalDateTime.now();
-        logger.debug("Activity recorded at: {}", lastActivityTime);
+        lastActivityNanos = System.nanoTime();
+    }
+
+    private void onInputEvent() {
+        inputEvents.increment();
+        recordActivity();
+    }
+
+    private void onMouseMoved(NativeMouseEvent e) {
+        inputEvents.increment();
+        int x = e.getX();
+        int y = e.getY();
+        if (lastMouseX >= 0) {
+            long dx = x - lastMouseX;
+            long dy = y - lastMouseY;
+            mouseDistance.add(Math.round(Math.sqrt(dx * dx + dy * dy)));
+        }
+        lastMouseX = x;
+        lastMouseY = y;
+        long now = System.nanoTime();
+        if (now - lastActivityNanos >= MOVE_SAMPLE_NANOS) {
+            lastActivityNanos = now;
+        }
     }
 
     // NativeKeyListener methods
     @Override
     public void nativeKeyPressed(NativeKeyEvent e) {
-        recordActivity();
+        keyPresses.increment();
+        onInputEvent();
     }
 
     @Override
@@ -108,12 +185,13 @@ public class ActivityMonitor implements NativeKeyListener, NativeMouseInputListe
     // NativeMouseInputListener methods
     @Override
     public void nativeMouseClicked(NativeMouseEvent e) {
-        recordActivity();
+        // Already counted by nativeMousePressed
     }
 
     @Override
     public void nativeMousePressed(NativeMouseEvent e) {
-        recordActivity();
+        mouseClicks.increment();
+        onInputEvent();
     }
 
     @Override
@@ -123,11 +201,11 @@ public class ActivityMonitor implements NativeKeyListener, NativeMouseInputListe
 
     @Override
     public void nativeMouseMoved(NativeMouseEvent e) {
-        recordActivity();
+        onMouseMoved(e);
     }
 
     @Override
     public void nativeMouseDragged(NativeMouseEvent e) {
-        recordActivity();
+        onMouseMoved(e);
     }
 }
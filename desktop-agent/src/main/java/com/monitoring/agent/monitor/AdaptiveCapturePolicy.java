@@ -0,0 +1,71 @@
+package com.monitoring.agent.monitor;
+
+/**
+ * Decides when the next screenshot is due.
+ *
+ * The screen is sampled at a short, fixed cadence. A sample only turns into an
+ * upload when the screen changed or when nothing has been uploaded for the
+ * maximum interval. Every changed upload halves the interval (down to the
+ * minimum) so bursts of activity are captured densely; a forced upload of a
+ * static screen resets it to the base interval.
+ */
+public class AdaptiveCapturePolicy {
+    private final long minIntervalMillis;
+    private final long baseIntervalMillis;
+    private final long maxIntervalMillis;
+
+    private long currentIntervalMillis;
+    private long lastUploadAt;
+
+    public AdaptiveCapturePolicy(long minIntervalMillis, long baseIntervalMillis, long maxIntervalMillis) {
+        this.minIntervalMillis = Math.max(1000, Math.min(minIntervalMillis, baseIntervalMillis));
+        this.baseIntervalMillis = baseIntervalMillis;
+        this.maxIntervalMillis = Math.max(baseIntervalMillis, maxIntervalMillis);
+        reset();
+    }
+
+    public long getMinIntervalMillis() {
+        return minIntervalMillis;
+    }
+
+    /**
+     * Whether enough time has passed since the last upload to be worth sampling
+     * the screen at all.
+     */
+    public boolean isDue(long now) {
+        return now - lastUploadAt >= currentIntervalMillis;
+    }
+
+    /**
+     * Whether an upload must happen even if the screen looks unchanged.
+     */
+    public boolean isStale(long now) {
+        return now - lastUploadAt >= maxIntervalMillis;
+    }
+
+    public void recordUpload(long now, boolean changed) {
+        lastUploadAt = now;
+        if (changed) {
+            currentIntervalMillis = Math.max(minIntervalMillis, currentIntervalMillis / 2);
+        } else {
+            currentIntervalMillis = baseIntervalMillis;
+        }
+    }
+
+    /**
+     * Called when a sample was skipped because the screen was static. The burst
+     * interval relaxes back to the base interval.
+     */
+    public void recordSkip() {
+        currentIntervalMillis = baseIntervalMillis;
+    }
+
+    public long getCurrentIntervalMillis() {
+        return currentIntervalMillis;
+    }
+
+    public void reset() {
+        currentIntervalMillis = baseIntervalMillis;
+        lastUploadAt = 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.monitoring.agent.monitor;
+
+/**
+ * A collector that reports whatever window it was last told to, for running
+ * and testing window tracking without a desktop session.
+ */
+public class FakeWindowCollector implements WindowMetadataCollector {
+    private ActiveWindow window;
+    private long windowId;
+    private long shown;
+
+    public FakeWindowCollector() {
+        this(new ActiveWindow("fake", "Fake window", 0));
+    }
+
+    public FakeWindowCollector(ActiveWindow window) {
+        show(window);
+    }
+
+    /**
+     * Brings {@code window} to the foreground; null means no window. Each
+     * call counts as a new window, even for an equal one.
+     */
+    public synchronized void show(ActiveWindow window) {
+        this.window = window;
+        this.windowId = window != null ? ++shown : 0;
+    }
+
+    @Override
+    public synchronized long foregroundWindowId() {
+        return windowId;
+    }
+
+    @Override
+    public synchronized ActiveWindow collectActiveWindow() {
+        return window;
+    }
+}
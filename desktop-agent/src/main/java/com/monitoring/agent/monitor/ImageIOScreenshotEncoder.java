@@ -0,0 +1,148 @@
+package com.monitoring.agent.monitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * {@link ScreenshotEncoder} backed by the ImageIO writer for PNG, JPEG or WebP.
+ *
+ * The writer, the optional downscale target and the output buffer are all
+ * reused between frames, and output goes through a memory-cached stream so
+ * ImageIO never spills to a temp file. WebP needs an ImageIO WebP plugin on the
+ * classpath; without one the encoder falls back to JPEG.
+ */
+public class ImageIOScreenshotEncoder implements ScreenshotEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(ImageIOScreenshotEncoder.class);
+
+    private static final int INITIAL_BUFFER_SIZE = 512 * 1024;
+
+    private final String format;
+    private final float quality;
+    private final double scale;
+    private final ImageWriter writer;
+    private final ImageWriteParam writeParam;
+    private final ReusableOutputStream buffer = new ReusableOutputStream(INITIAL_BUFFER_SIZE);
+
+    private BufferedImage scaledFrame;
+
+    /**
+     * @param format  png, jpeg (or jpg) or webp
+     * @param quality compression quality 0..1; ignored by formats without lossy
+     *                compression
+     * @param scale   downscale factor 0..1 applied before encoding (1 = full size)
+     */
+    public ImageIOScreenshotEncoder(String format, float quality, double scale) {
+        String requested = normalizeFormat(format);
+        ImageWriter found = findWriter(requested);
+        if (found == null) {
+            logger.warn("No ImageIO writer for '{}', falling back to jpeg", requested);
+            requested = "jpeg";
+            found = findWriter(requested);
+        }
+
+        this.format = requested;
+        this.quality = Math.max(0f, Math.min(1f, quality));
+        this.scale = scale > 0 && scale < 1 ? scale : 1.0;
+        this.writer = found;
+        this.writeParam = createWriteParam(found, this.quality);
+
+        logger.info("Screenshot encoder: format={}, quality={}, scale={}", this.format, this.quality, this.scale);
+    }
+
+    @Override
+    public EncodedImage encode(BufferedImage frame) throws IOException {
+        BufferedImage source = scale < 1.0 ? downscale(frame) : frame;
+
+        buffer.reset();
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(buffer)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(source, null, null), writeParam);
+        } finally {
+            writer.setOutput(null);
+        }
+        return new EncodedImage(buffer.array(), buffer.size());
+    }
+
+    @Override
+    public String getContentType() {
+        return "image/" + format;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return switch (format) {
+            case "jpeg" -> ".jpg";
+            case "webp" -> ".webp";
+            default -> ".png";
+        };
+    }
+
+    private BufferedImage downscale(BufferedImage frame) {
+        int width = Math.max(1, (int) Math.round(frame.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(frame.getHeight() * scale));
+
+        if (scaledFrame == null || scaledFrame.getWidth() != width || scaledFrame.getHeight() != height) {
+            scaledFrame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+
+        Graphics2D g = scaledFrame.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(frame, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaledFrame;
+    }
+
+    private static String normalizeFormat(String format) {
+        String value = format == null ? "png" : format.trim().toLowerCase(Locale.ROOT);
+        return "jpg".equals(value) ? "jpeg" : value;
+    }
+
+    private static ImageWriter findWriter(String format) {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        return writers.hasNext() ? writers.next() : null;
+    }
+
+    private static ImageWriteParam createWriteParam(ImageWriter writer, float quality) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            String[] types = param.getCompressionTypes();
+            if (types != null && types.length > 0 && param.getCompressionType() == null) {
+                param.setCompressionType(types[0]);
+            }
+            param.setCompressionQuality(quality);
+        }
+        return param;
+    }
+
+    /**
+     * ByteArrayOutputStream that exposes its backing array so the encoded bytes
+     * can be streamed out without a defensive copy.
+     */
+    private static final class ReusableOutputStream extends ByteArrayOutputStream {
+        ReusableOutputStream(int size) {
+            super(size);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.monitoring.agent.monitor;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Input activity over one heartbeat interval: key presses, mouse button
+ * presses, the distance the pointer travelled in screen pixels and switches
+ * of the foreground window.
+ *
+ * Sent as a plain array in this order, {@code [keys, clicks, distance,
+ * switches]}, which the backend stores as is.
+ */
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({ "keyPresses", "mouseClicks", "mouseDistancePixels", "windowSwitches" })
+public record InteractionCounts(int keyPresses, int mouseClicks, int mouseDistancePixels, int windowSwitches) {
+}
@@ -0,0 +1,67 @@
+package com.monitoring.agent.monitor;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Maps process IDs to executable names, least recently used entries evicted
+ * first. Looking a name up costs a system call (reading {@code /proc} or
+ * opening the process), while the foreground window's process rarely changes
+ * between samples. Entries expire after {@link #TTL_NANOS} because the OS
+ * reuses IDs of exited processes.
+ */
+class ProcessNameCache {
+    static final String UNKNOWN = "unknown";
+    static final int CAPACITY = 256;
+    static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final LongFunction<String> resolver;
+    private final LongSupplier nanoTime;
+    private final Map<Long, Entry> names = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    ProcessNameCache() {
+        this(ProcessNameCache::resolve, System::nanoTime);
+    }
+
+    /**
+     * @param resolver Looks a process's name up, e.g. {@link #resolve}
+     * @param nanoTime The clock entries expire by, e.g. {@code System::nanoTime}
+     */
+    ProcessNameCache(LongFunction<String> resolver, LongSupplier nanoTime) {
+        this.resolver = resolver;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return the executable file name, or "unknown" when the process has
+     *         exited or belongs to another user
+     */
+    synchronized String get(long pid) {
+        long now = nanoTime.getAsLong();
+        Entry entry = names.get(pid);
+        if (entry == null || now - entry.resolvedAt() > TTL_NANOS) {
+            entry = new Entry(resolver.apply(pid), now);
+            names.put(pid, entry);
+        }
+        return entry.name();
+    }
+
+    static String resolve(long pid) {
+        return ProcessHandle.of(pid)
+                .flatMap(process -> process.info().command())
+                .map(command -> Path.of(command).getFileName().toString())
+                .orElse(UNKNOWN);
+    }
+
+    private record Entry(String name, long resolvedAt) {
+    }
+}
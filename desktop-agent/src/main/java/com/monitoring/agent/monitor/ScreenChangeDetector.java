@@ -0,0 +1,82 @@
+package com.monitoring.agent.monitor;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Detects whether the screen changed meaningfully since the last uploaded frame.
+ * Frames are reduced to a tiny grayscale thumbnail, so a comparison costs a few
+ * thousand pixel reads instead of a full-resolution diff or a PNG encode.
+ */
+public class ScreenChangeDetector {
+    private static final int THUMB_WIDTH = 64;
+    private static final int THUMB_HEIGHT = 36;
+
+    // Luminance deltas below this are treated as noise (cursor blink, clock tick, anti-aliasing)
+    private static final int PIXEL_NOISE = 12;
+
+    private final double changeThreshold;
+    private int[] lastUploaded;
+
+    /**
+     * @param changeThreshold fraction (0..1) of thumbnail cells that must change
+     *                        for the frame to count as different
+     */
+    public ScreenChangeDetector(double changeThreshold) {
+        this.changeThreshold = changeThreshold;
+    }
+
+    /**
+     * Downscales a frame to a grayscale thumbnail by point-sampling the center of
+     * each cell.
+     */
+    public int[] thumbnail(BufferedImage frame) {
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        int[] thumb = new int[THUMB_WIDTH * THUMB_HEIGHT];
+
+        for (int ty = 0; ty < THUMB_HEIGHT; ty++) {
+            int y = (int) ((ty + 0.5) * height / THUMB_HEIGHT);
+            for (int tx = 0; tx < THUMB_WIDTH; tx++) {
+                int x = (int) ((tx + 0.5) * width / THUMB_WIDTH);
+                int rgb = frame.getRGB(x, y);
+                int r = (rgb >> 16) & 0xFF;
+                int g = (rgb >> 8) & 0xFF;
+                int b = rgb & 0xFF;
+                // Integer approximation of Rec. 601 luma
+                thumb[ty * THUMB_WIDTH + tx] = (r * 77 + g * 150 + b * 29) >> 8;
+            }
+        }
+        return thumb;
+    }
+
+    /**
+     * Returns the fraction of thumbnail cells that differ from the last uploaded
+     * frame, or 1.0 if nothing has been uploaded yet.
+     */
+    public double difference(int[] thumbnail) {
+        int[] previous = lastUploaded;
+        if (previous == null || previous.length != thumbnail.length) {
+            return 1.0;
+        }
+
+        int changed = 0;
+        for (int i = 0; i < thumbnail.length; i++) {
+            if (Math.abs(thumbnail[i] - previous[i]) > PIXEL_NOISE) {
+                changed++;
+            }
+        }
+        return (double) changed / thumbnail.length;
+    }
+
+    public boolean hasChanged(double difference) {
+        return difference >= changeThreshold;
+    }
+
+    public void markUploaded(int[] thumbnail) {
+        this.lastUploaded = thumbnail;
+    }
+
+    public void reset() {
+        this.lastUploaded = null;
+    }
+}
@@ -1,54 +1,297 @@
 package com.monitoring.agent.monitor;
 
 import com.monitoring.agent.model.ScreenshotData;
+import com.monitoring.agent.telemetry.AgentTelemetry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+/**
+ * Captures every attached display.
+ *
+ * Displays are re-enumerated on each cycle, so monitors that are plugged in,
+ * removed or change resolution are picked up at runtime. Each display has its
+ * own change detector and capture policy, so a busy display can be captured
+ * more often than a static one. Displays are sampled in parallel on a small
+ * worker pool, which keeps cycle latency close to that of a single display.
+ */
 public class ScreenshotCapture {
     private static final Logger logger = LoggerFactory.getLogger(ScreenshotCapture.class);
 
-    private final Robot robot;
-    private final Rectangle screenRect;
+    private static final int MAX_WORKERS = 4;
+
     private final WindowMetadataCollector metadataCollector;
+    private final Supplier<ScreenshotEncoder> encoderFactory;
+    private final Supplier<ScreenChangeDetector> detectorFactory;
+    private final Supplier<AdaptiveCapturePolicy> policyFactory;
+    private final ExecutorService workers;
+
+    // Keyed by GraphicsDevice id, in enumeration order
+    private final Map<String, DisplayCapture> displays = new LinkedHashMap<>();
+
+    private volatile AgentTelemetry telemetry;
 
-    public ScreenshotCapture() throws AWTException {
-        this.robot = new Robot();
+    public ScreenshotCapture(WindowMetadataCollector metadataCollector,
+            Supplier<ScreenshotEncoder> encoderFactory,
+            Supplier<ScreenChangeDetector> detectorFactory,
+            Supplier<AdaptiveCapturePolicy> policyFactory) throws AWTException {
+        this.metadataCollector = metadataCollector;
+        this.encoderFactory = encoderFactory;
+        this.detectorFactory = detectorFactory;
+        this.policyFactory = policyFactory;
 
-        // Get screen dimensions
-        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-        this.screenRect = new Rectangle(screenSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(MAX_WORKERS, runnable -> {
+            Thread thread = new Thread(runnable, "screenshot-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
 
-        this.metadataCollector = new WindowMetadataCollector();
+        refreshDisplays();
     }
 
     /**
-     * Captures a screenshot along with active window metadata.
-     * 
-     * @param filePrefix Prefix for the temporary file name
-     * @return ScreenshotData containing the file and metadata
-     * @throws IOException if screenshot cannot be saved
+     * Samples every display whose capture is due and encodes the ones that
+     * changed (or went stale). Frames returned from the same call share a
+     * capture group id. Call {@link #markUploaded} for each frame that was
+     * successfully uploaded.
+     *
+     * @param filePrefix Prefix for the uploaded file names
+     * @param now        Current time in millis
      */
-    public ScreenshotData captureScreenshot(String filePrefix) throws IOException {
-        // Collect metadata BEFORE taking screenshot for better accuracy
+    public synchronized List<CapturedFrame> captureChangedDisplays(String filePrefix, long now) throws IOException {
+        // CPU of this thread and the display workers, recorded per cycle
+        AtomicLong cycleCpuNanos = new AtomicLong();
+        long startCpu = AgentTelemetry.currentThreadCpuNanos();
+        try {
+            return captureDue(filePrefix, now, cycleCpuNanos);
+        } finally {
+            AgentTelemetry current = telemetry;
+            if (current != null && startCpu >= 0) {
+                long cpu = cycleCpuNanos.get() + AgentTelemetry.currentThreadCpuNanos() - startCpu;
+                current.record(AgentTelemetry.CAPTURE_CPU, cpu / 1000);
+            }
+        }
+    }
+
+    private List<CapturedFrame> captureDue(String filePrefix, long now, AtomicLong cycleCpuNanos) throws IOException {
+        try {
+            refreshDisplays();
+        } catch (AWTException e) {
+            throw new IOException("Failed to set up capture for a new display", e);
+        }
+
+        List<DisplayCapture> due = new ArrayList<>();
+        for (DisplayCapture display : displays.values()) {
+            if (display.policy.isDue(now)) {
+                due.add(display);
+            }
+        }
+        if (due.isEmpty()) {
+            return List.of();
+        }
+
+        // Collected once on the calling thread; shared by all frames of the cycle
         String metadata = metadataCollector.collectMetadata();
+        UUID captureGroupId = UUID.randomUUID();
+        int displayCount = displays.size();
+
+        List<Future<CapturedFrame>> futures = new ArrayList<>(due.size());
+        for (DisplayCapture display : due) {
+            futures.add(workers.submit(() -> {
+                long startCpu = AgentTelemetry.currentThreadCpuNanos();
+                try {
+                    return display.sample(filePrefix, now, metadata, captureGroupId, displayCount);
+                } finally {
+                    if (startCpu >= 0) {
+                        cycleCpuNanos.addAndGet(AgentTelemetry.currentThreadCpuNanos() - startCpu);
+                    }
+                }
+            }));
+        }
+
+        List<CapturedFrame> frames = new ArrayList<>(due.size());
+        for (Future<CapturedFrame> future : futures) {
+            try {
+                CapturedFrame frame = future.get();
+                if (frame != null) {
+                    frames.add(frame);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while capturing displays", e);
+            } catch (ExecutionException e) {
+                logger.error("Failed to capture display", e.getCause());
+            }
+        }
+        return frames;
+    }
 
-        // Capture screenshot
-        BufferedImage screenshot = robot.createScreenCapture(screenRect);
+    /**
+     * Records a successful upload so the display's change detector and
+     * capture policy move on to this frame.
+     */
+    public synchronized void markUploaded(CapturedFrame frame, long now) {
+        frame.display.detector.markUploaded(frame.thumbnail);
+        frame.display.policy.recordUpload(now, frame.changed);
+    }
+
+    /**
+     * Forget all previously uploaded frames, e.g. when a new session starts.
+     */
+    public synchronized void reset() {
+        for (DisplayCapture display : displays.values()) {
+            display.detector.reset();
+            display.policy.reset();
+        }
+    }
+
+    /**
+     * Gives each display a fresh change detector and capture policy from the
+     * factories, e.g. after the capture settings changed.
+     */
+    public synchronized void reconfigure() {
+        for (DisplayCapture display : displays.values()) {
+            display.detector = detectorFactory.get();
+            display.policy = policyFactory.get();
+        }
+    }
+
+    /**
+     * Telemetry to record the CPU time of each capture cycle in, or null.
+     */
+    public void setTelemetry(AgentTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void refreshDisplays() throws AWTException {
+        GraphicsDevice[] devices;
+        try {
+            devices = GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices();
+        } catch (HeadlessException e) {
+            devices = new GraphicsDevice[0];
+        }
+
+        Map<String, DisplayCapture> current = new LinkedHashMap<>();
+        boolean changed = devices.length != displays.size();
+        for (int i = 0; i < devices.length; i++) {
+            GraphicsDevice device = devices[i];
+            Rectangle bounds = device.getDefaultConfiguration().getBounds();
+            DisplayCapture existing = displays.get(device.getIDstring());
+
+            if (existing != null && existing.bounds.equals(bounds)) {
+                existing.index = i;
+                current.put(device.getIDstring(), existing);
+            } else {
+                current.put(device.getIDstring(), new DisplayCapture(device, i, bounds));
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            displays.clear();
+            displays.putAll(current);
+            logger.info("Display layout: {}", displays.values());
+        }
+    }
+
+    /**
+     * Per-display capture state: its own Robot, encoder buffer, change detector
+     * and capture policy.
+     */
+    private final class DisplayCapture {
+        private final String deviceId;
+        private final Rectangle bounds;
+        private final Robot robot;
+        private final ScreenshotEncoder encoder;
+        private ScreenChangeDetector detector;
+        private AdaptiveCapturePolicy policy;
+        private int index;
+
+        DisplayCapture(GraphicsDevice device, int index, Rectangle bounds) throws AWTException {
+            this.deviceId = device.getIDstring();
+            this.index = index;
+            this.bounds = bounds;
+            this.robot = new Robot(device);
+            this.encoder = encoderFactory.get();
+            this.detector = detectorFactory.get();
+            this.policy = policyFactory.get();
+        }
+
+        CapturedFrame sample(String filePrefix, long now, String metadata, UUID captureGroupId, int displayCount)
+                throws IOException {
+            BufferedImage frame = robot.createScreenCapture(bounds);
+            int[] thumbnail = detector.thumbnail(frame);
+            double difference = detector.difference(thumbnail);
+            boolean changed = detector.hasChanged(difference);
+
+            if (!changed && !policy.isStale(now)) {
+                policy.recordSkip();
+                logger.debug("Display {} static ({}% changed), deferring screenshot upload",
+                        index, String.format("%.1f", difference * 100));
+                return null;
+            }
+
+            ScreenshotEncoder.EncodedImage image = encoder.encode(frame);
+            String fileName = filePrefix + "_" + now + "_d" + index + encoder.getFileExtension();
+
+            logger.info("Screenshot captured: {} ({} bytes, {}% changed) with metadata: {}",
+                    fileName, image.length(), String.format("%.1f", difference * 100), metadata);
+            ScreenshotData data = new ScreenshotData(image.buffer(), image.length(), encoder.getContentType(),
+                    fileName, metadata, captureGroupId, index, displayCount);
+            return new CapturedFrame(this, data, thumbnail, changed);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%d %s %dx%d@%d,%d", index, deviceId, bounds.width, bounds.height,
+                    bounds.x, bounds.y);
+        }
+    }
+
+    /**
+     * An encoded display frame waiting to be uploaded. The image bytes live in
+     * the display's encoder buffer and stay valid until that display is sampled
+     * again.
+     */
+    public static final class CapturedFrame {
+        private final DisplayCapture display;
+        private final ScreenshotData data;
+        private final int[] thumbnail;
+        private final boolean changed;
 
-        // Create temporary file
-        File tempFile = File.createTempFile(filePrefix + "_", ".png");
-        tempFile.deleteOnExit();
+        private CapturedFrame(DisplayCapture display, ScreenshotData data, int[] thumbnail, boolean changed) {
+            this.display = display;
+            this.data = data;
+            this.thumbnail = thumbnail;
+            this.changed = changed;
+        }
 
-        // Save to file
-        ImageIO.write(screenshot, "png", tempFile);
+        public ScreenshotData getData() {
+            return data;
+        }
 
-        logger.info("Screenshot captured: {} with metadata: {}", tempFile.getAbsolutePath(), metadata);
-        return new ScreenshotData(tempFile, metadata);
+        public boolean isChanged() {
+            return changed;
+        }
     }
 }
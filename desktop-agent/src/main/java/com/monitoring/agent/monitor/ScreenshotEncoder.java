@@ -0,0 +1,32 @@
+package com.monitoring.agent.monitor;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Encodes captured frames into an in-memory image.
+ *
+ * Implementations reuse their output buffer between calls, so the returned
+ * {@link EncodedImage} is only valid until the next {@link #encode} call.
+ * Instances are not thread-safe; use one encoder per capturing thread.
+ */
+public interface ScreenshotEncoder {
+
+    EncodedImage encode(BufferedImage frame) throws IOException;
+
+    /**
+     * MIME type of the encoded output, e.g. {@code image/jpeg}.
+     */
+    String getContentType();
+
+    /**
+     * File extension including the dot, e.g. {@code .jpg}.
+     */
+    String getFileExtension();
+
+    /**
+     * View over an encoder's reusable buffer.
+     */
+    record EncodedImage(byte[] buffer, int length) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.monitoring.agent.monitor;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.platform.win32.User32;
+import com.sun.jna.platform.win32.WinDef.HWND;
+import com.sun.jna.ptr.IntByReference;
+
+/**
+ * Reads the foreground window through Win32 {@code User32}.
+ */
+class Win32WindowCollector implements WindowMetadataCollector {
+    private static final int MAX_TITLE_LENGTH = 1024;
+
+    private final ProcessNameCache processNames;
+    // Reused by every call; calls are synchronized
+    private final char[] titleBuffer = new char[MAX_TITLE_LENGTH];
+    private final IntByReference processId = new IntByReference();
+
+    Win32WindowCollector(ProcessNameCache processNames) {
+        this.processNames = processNames;
+    }
+
+    @Override
+    public long foregroundWindowId() {
+        HWND hwnd = User32.INSTANCE.GetForegroundWindow();
+        return hwnd != null ? Pointer.nativeValue(hwnd.getPointer()) : 0;
+    }
+
+    @Override
+    public synchronized ActiveWindow collectActiveWindow() {
+        HWND hwnd = User32.INSTANCE.GetForegroundWindow();
+        if (hwnd == null) {
+            return null;
+        }
+        int length = User32.INSTANCE.GetWindowText(hwnd, titleBuffer, MAX_TITLE_LENGTH);
+        User32.INSTANCE.GetWindowThreadProcessId(hwnd, processId);
+        long pid = processId.getValue();
+        String app = pid > 0 ? processNames.get(pid) : ProcessNameCache.UNKNOWN;
+        return new ActiveWindow(app, new String(titleBuffer, 0, Math.max(0, length)), pid);
+    }
+}
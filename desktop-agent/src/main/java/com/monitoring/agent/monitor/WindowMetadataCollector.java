@@ -1,72 +1,134 @@
 package com.monitoring.agent.monitor;
 
-import com.sun.jna.Native;
-import com.sun.jna.platform.win32.User32;
-import com.sun.jna.platform.win32.WinDef.HWND;
-import com.sun.jna.platform.win32.WinUser;
+import com.sun.jna.Platform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Collects metadata about the active window for screenshot context.
- * Uses JNA to access Windows native APIs.
+ * Reads the foreground window for activity tracking and screenshot context.
+ *
+ * Implementations are called every second from the scheduler and on every
+ * screenshot cycle, so they reuse their native buffers and resolve process
+ * names through a {@link ProcessNameCache}. Use {@link #create} to pick the
+ * one for the current desktop.
  */
-public class WindowMetadataCollector {
-    private static final Logger logger = LoggerFactory.getLogger(WindowMetadataCollector.class);
-    private static final int MAX_TITLE_LENGTH = 1024;
+public interface WindowMetadataCollector {
 
     /**
-     * Captures metadata about the currently active window.
-     * 
-     * @return JSON-formatted string with window title and process info, or null if
-     *         unable to collect
+     * A collector that never sees a window, for platforms without one.
      */
-    public String collectMetadata() {
-        try {
-            // Get the foreground window handle
-            HWND hwnd = User32.INSTANCE.GetForegroundWindow();
-
-            if (hwnd == null) {
-                logger.warn("No foreground window found");
-                return null;
-            }
-
-            // Get window title
-            char[] windowText = new char[MAX_TITLE_LENGTH];
-            User32.INSTANCE.GetWindowText(hwnd, windowText, MAX_TITLE_LENGTH);
-            String windowTitle = Native.toString(windowText);
+    WindowMetadataCollector NONE = new WindowMetadataCollector() {
+        @Override
+        public long foregroundWindowId() {
+            return 0;
+        }
 
-            // Get process ID
-            com.sun.jna.ptr.IntByReference processId = new com.sun.jna.ptr.IntByReference();
-            User32.INSTANCE.GetWindowThreadProcessId(hwnd, processId);
+        @Override
+        public ActiveWindow collectActiveWindow() {
+            return null;
+        }
+    };
 
-            // Format metadata as simple JSON
-            String metadata = String.format(
-                    "{\"windowTitle\":\"%s\",\"processId\":%d}",
-                    escapeJson(windowTitle),
-                    processId.getValue());
+    /**
+     * Identifies the foreground window without reading its title, cheap
+     * enough to poll every second.
+     *
+     * @return the window's native ID, or 0 if there is none or it can't be read
+     */
+    long foregroundWindowId();
 
-            logger.debug("Collected window metadata: {}", metadata);
-            return metadata;
+    /**
+     * Reads the foreground window's title and the executable name of its
+     * process.
+     *
+     * @return the window, or null if there is none or it can't be read
+     */
+    ActiveWindow collectActiveWindow();
 
-        } catch (Exception e) {
-            logger.error("Failed to collect window metadata", e);
+    /**
+     * Captures metadata about the currently active window.
+     *
+     * @return JSON-formatted string with window title, app and process ID, or
+     *         null if unable to collect
+     */
+    default String collectMetadata() {
+        ActiveWindow window;
+        try {
+            window = collectActiveWindow();
+        } catch (RuntimeException e) {
+            LoggerFactory.getLogger(WindowMetadataCollector.class).error("Failed to collect window metadata", e);
+            return null;
+        }
+        if (window == null) {
             return null;
         }
+        StringBuilder json = new StringBuilder(64 + (window.title() != null ? window.title().length() : 0));
+        json.append("{\"windowTitle\":\"");
+        appendEscaped(json, window.title());
+        json.append("\",\"app\":\"");
+        appendEscaped(json, window.app());
+        json.append("\",\"processId\":").append(window.processId()).append('}');
+        return json.toString();
+    }
+
+    /**
+     * @param type {@code auto} (the current desktop), {@code windows},
+     *             {@code x11}, {@code fake} or {@code none}
+     */
+    static WindowMetadataCollector create(String type) {
+        Logger logger = LoggerFactory.getLogger(WindowMetadataCollector.class);
+        ProcessNameCache processNames = new ProcessNameCache();
+        String resolved = type;
+        if ("auto".equalsIgnoreCase(type)) {
+            resolved = Platform.isWindows() ? "windows" : Platform.isX11() ? "x11" : "none";
+        }
+        return switch (resolved.toLowerCase()) {
+            case "windows" -> new Win32WindowCollector(processNames);
+            case "x11" -> {
+                X11WindowCollector x11 = null;
+                try {
+                    x11 = X11WindowCollector.open(processNames);
+                } catch (LinkageError e) {
+                    logger.warn("libX11 is not available: {}", e.getMessage());
+                }
+                if (x11 == null) {
+                    logger.warn("Could not open the X display, window tracking is off");
+                }
+                yield x11 != null ? x11 : NONE;
+            }
+            case "fake" -> new FakeWindowCollector();
+            case "none" -> NONE;
+            default -> {
+                logger.warn("Unknown window collector '{}', window tracking is off", type);
+                yield NONE;
+            }
+        };
     }
 
     /**
      * Escape special characters for JSON string values.
      */
-    private String escapeJson(String value) {
+    private static void appendEscaped(StringBuilder json, String value) {
         if (value == null) {
-            return "";
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> json.append("\\\\");
+                case '"' -> json.append("\\\"");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(Character.forDigit(c >> 4, 16))
+                                .append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
         }
-        return value
-                .replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
     }
 }
@@ -0,0 +1,34 @@
+package com.monitoring.agent.monitor;
+
+import com.sun.jna.Pointer;
+
+import java.nio.charset.Charset;
+
+/**
+ * Decodes window property values returned by {@code XGetWindowProperty}.
+ * Kept apart from {@link X11WindowCollector}, which loads libX11 when its
+ * class is initialised.
+ */
+final class X11Properties {
+
+    private X11Properties() {
+    }
+
+    /**
+     * The first item of a format 32 property, or 0 if it has another format
+     * or no items. Format 32 items come back as C longs.
+     */
+    static long decodeCardinal(Pointer data, int format, long items) {
+        return format == 32 && items > 0 ? data.getNativeLong(0).longValue() : 0;
+    }
+
+    /**
+     * A format 8 property as text, or null if it has another format.
+     */
+    static String decodeText(Pointer data, int format, long items, Charset charset) {
+        if (format != 8) {
+            return null;
+        }
+        return new String(data.getByteArray(0, (int) items), charset);
+    }
+}
@@ -0,0 +1,137 @@
+package com.monitoring.agent.monitor;
+
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+import com.sun.jna.platform.unix.X11;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.NativeLongByReference;
+import com.sun.jna.ptr.PointerByReference;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the foreground window on X11 desktops (and XWayland) through the
+ * EWMH root window property {@code _NET_ACTIVE_WINDOW}, then the window's
+ * {@code _NET_WM_PID} and {@code _NET_WM_NAME}. Needs an EWMH window
+ * manager, which all common Linux desktops are.
+ *
+ * One display connection is kept open. Xlib connections aren't thread-safe,
+ * so every call is synchronized, which also lets them share the property
+ * reply buffers.
+ */
+class X11WindowCollector implements WindowMetadataCollector {
+    private static final X11 X = X11.INSTANCE;
+    // Property lengths are in 32-bit units
+    private static final long MAX_TITLE_UNITS = 256;
+    // Xlib's default handler exits the process on errors such as BadWindow,
+    // which a window closed between two calls causes. Errors on our own
+    // connection are ignored, others go to the handler installed before
+    // (e.g. the UI toolkit's). Kept in fields so the callback isn't garbage
+    // collected.
+    private static volatile X11.Display ownDisplay;
+    private static volatile X11.XErrorHandler previousHandler;
+    private static final X11.XErrorHandler ERROR_HANDLER = (display, event) -> {
+        X11.XErrorHandler previous = previousHandler;
+        if (display.equals(ownDisplay) || previous == null) {
+            return 0;
+        }
+        return previous.apply(display, event);
+    };
+
+    private final ProcessNameCache processNames;
+    private final X11.Display display;
+    private final X11.Window root;
+    private final X11.Atom netActiveWindow;
+    private final X11.Atom netWmPid;
+    private final X11.Atom netWmName;
+    private final X11.Atom utf8String;
+
+    private final X11.AtomByReference actualType = new X11.AtomByReference();
+    private final IntByReference actualFormat = new IntByReference();
+    private final NativeLongByReference itemCount = new NativeLongByReference();
+    private final NativeLongByReference bytesAfter = new NativeLongByReference();
+    private final PointerByReference value = new PointerByReference();
+
+    private X11WindowCollector(ProcessNameCache processNames, X11.Display display) {
+        this.processNames = processNames;
+        this.display = display;
+        this.root = X.XDefaultRootWindow(display);
+        this.netActiveWindow = X.XInternAtom(display, "_NET_ACTIVE_WINDOW", false);
+        this.netWmPid = X.XInternAtom(display, "_NET_WM_PID", false);
+        this.netWmName = X.XInternAtom(display, "_NET_WM_NAME", false);
+        this.utf8String = X.XInternAtom(display, "UTF8_STRING", false);
+    }
+
+    /**
+     * Connects to the display named by {@code DISPLAY}.
+     *
+     * @return the collector, or null if there is no X display
+     */
+    static synchronized X11WindowCollector open(ProcessNameCache processNames) {
+        X11.Display display = X.XOpenDisplay(null);
+        if (display == null) {
+            return null;
+        }
+        ownDisplay = display;
+        X11.XErrorHandler previous = X.XSetErrorHandler(ERROR_HANDLER);
+        if (previous != null && previous != ERROR_HANDLER) {
+            previousHandler = previous;
+        }
+        return new X11WindowCollector(processNames, display);
+    }
+
+    @Override
+    public synchronized long foregroundWindowId() {
+        return cardinal(root, netActiveWindow, X11.XA_WINDOW);
+    }
+
+    @Override
+    public synchronized ActiveWindow collectActiveWindow() {
+        long windowId = cardinal(root, netActiveWindow, X11.XA_WINDOW);
+        if (windowId == 0) {
+            return null;
+        }
+        X11.Window window = new X11.Window(windowId);
+        long pid = cardinal(window, netWmPid, X11.XA_CARDINAL);
+        String title = text(window, netWmName, utf8String);
+        if (title == null) {
+            title = text(window, X11.XA_WM_NAME, X11.XA_STRING);
+        }
+        String app = pid > 0 ? processNames.get(pid) : ProcessNameCache.UNKNOWN;
+        return new ActiveWindow(app, title != null ? title : "", pid);
+    }
+
+    /**
+     * The first 32-bit item of a property, or 0 if it is missing.
+     */
+    private long cardinal(X11.Window window, X11.Atom property, X11.Atom type) {
+        Pointer data = read(window, property, type, 1);
+        if (data == null) {
+            return 0;
+        }
+        try {
+            return X11Properties.decodeCardinal(data, actualFormat.getValue(), itemCount.getValue().longValue());
+        } finally {
+            X.XFree(data);
+        }
+    }
+
+    private String text(X11.Window window, X11.Atom property, X11.Atom type) {
+        Pointer data = read(window, property, type, MAX_TITLE_UNITS);
+        if (data == null) {
+            return null;
+        }
+        try {
+            return X11Properties.decodeText(data, actualFormat.getValue(), itemCount.getValue().longValue(),
+                    type == X11.XA_STRING ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        } finally {
+            X.XFree(data);
+        }
+    }
+
+    private Pointer read(X11.Window window, X11.Atom property, X11.Atom type, long maxUnits) {
+        int status = X.XGetWindowProperty(display, window, property, new NativeLong(0), new NativeLong(maxUnits),
+                false, type, actualType, actualFormat, itemCount, bytesAfter, value);
+        return status == X11.Success ? value.getValue() : null;
+    }
+}
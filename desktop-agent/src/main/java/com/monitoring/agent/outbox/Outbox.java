@@ -0,0 +1,205 @@
+package com.monitoring.agent.outbox;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monitoring.agent.model.ScreenshotData;
+import com.monitoring.agent.model.TelemetryReport;
+import com.monitoring.agent.model.WindowSpan;
+import com.monitoring.agent.monitor.InteractionCounts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable store for heartbeats and screenshots that could not be delivered.
+ *
+ * Heartbeats go straight into the {@link OutboxJournal}. Screenshot bytes are
+ * written to a spool directory and the journal only records a reference, so
+ * the journal stays small. Journal plus spool are kept within a disk budget;
+ * when it runs out the oldest undelivered screenshots are dropped first.
+ */
+public class Outbox implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(Outbox.class);
+
+    static final byte TYPE_HEARTBEAT = 1;
+    static final byte TYPE_SCREENSHOT = 2;
+
+    private final OutboxJournal journal;
+    private final Path spoolDirectory;
+    private final long spoolBudgetBytes;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Spooled files oldest first, with their total size
+    private final Deque<Path> spooledFiles = new ArrayDeque<>();
+    private long spooledBytes;
+    private long droppedScreenshots;
+
+    /**
+     * @param directory    Directory for the journal and the screenshot spool
+     * @param maxDiskBytes Disk budget for journal and spool together
+     */
+    public Outbox(Path directory, long maxDiskBytes) throws IOException {
+        this.spoolDirectory = directory.resolve("screenshots");
+        this.spoolBudgetBytes = Math.max(0,
+                maxDiskBytes - (long) OutboxJournal.SEGMENT_SIZE * OutboxJournal.SEGMENT_COUNT);
+        Files.createDirectories(spoolDirectory);
+        loadSpool();
+        this.journal = new OutboxJournal(directory, this::onDropped);
+    }
+
+    // Appends take the outbox lock before the journal's: a journal roll may
+    // call back into removeScreenshot
+    public synchronized void appendHeartbeat(UUID sessionId, String activityStatus, long clientTimestamp) throws IOException {
+        appendHeartbeat(sessionId, activityStatus, clientTimestamp, null, null, null);
+    }
+
+    /**
+     * @param intensity   Input counted over the heartbeat interval, or null
+     * @param windowSpans Foreground window spans to deliver with this
+     *                    heartbeat, or null
+     * @param telemetry   The agent's telemetry report to deliver with this
+     *                    heartbeat, or null
+     */
+    public synchronized void appendHeartbeat(UUID sessionId, String activityStatus, long clientTimestamp,
+            InteractionCounts intensity, List<WindowSpan> windowSpans, TelemetryReport telemetry)
+            throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(new HeartbeatEntry(sessionId, activityStatus,
+                clientTimestamp, intensity, windowSpans, telemetry));
+        journal.append(TYPE_HEARTBEAT, clientTimestamp, payload);
+    }
+
+    /**
+     * Copies the screenshot bytes to the spool, since the capture buffer is
+     * reused for the next frame.
+     */
+    public synchronized void appendScreenshot(UUID sessionId, ScreenshotData screenshot, long clientTimestamp)
+            throws IOException {
+        if (screenshot.getLength() > spoolBudgetBytes) {
+            logger.warn("Screenshot {} exceeds the outbox disk budget, not queued", screenshot.getFileName());
+            droppedScreenshots++;
+            return;
+        }
+        while (spooledBytes + screenshot.getLength() > spoolBudgetBytes && !spooledFiles.isEmpty()) {
+            deleteSpoolFile(spooledFiles.peekFirst());
+            droppedScreenshots++;
+            logger.warn("Outbox disk budget exhausted, dropped oldest queued screenshot");
+        }
+
+        String spoolName = clientTimestamp + "_" + UUID.randomUUID() + ".bin";
+        Path spoolFile = spoolDirectory.resolve(spoolName);
+        try (var output = Files.newOutputStream(spoolFile)) {
+            output.write(screenshot.getBuffer(), 0, screenshot.getLength());
+        }
+        spooledFiles.addLast(spoolFile);
+        spooledBytes += screenshot.getLength();
+
+        byte[] payload = objectMapper.writeValueAsBytes(new ScreenshotEntry(sessionId, spoolName,
+                screenshot.getContentType(), screenshot.getFileName(), screenshot.getMetadata(),
+                screenshot.getCaptureGroupId(), screenshot.getDisplayIndex(), screenshot.getDisplayCount()));
+        journal.append(TYPE_SCREENSHOT, clientTimestamp, payload);
+    }
+
+    List<OutboxRecord> peek(int max) {
+        return journal.peek(max);
+    }
+
+    void acknowledge(OutboxRecord record) {
+        journal.acknowledge(record);
+    }
+
+    ScreenshotEntry readScreenshot(OutboxRecord record) throws IOException {
+        return objectMapper.readValue(record.payload(), ScreenshotEntry.class);
+    }
+
+    /**
+     * Loads a spooled screenshot, or returns null if it was dropped to stay
+     * within the disk budget.
+     */
+    ScreenshotData loadScreenshot(ScreenshotEntry entry) throws IOException {
+        Path spoolFile = spoolDirectory.resolve(entry.spoolFile());
+        if (!Files.exists(spoolFile)) {
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(spoolFile);
+        return new ScreenshotData(bytes, bytes.length, entry.contentType(), entry.fileName(), entry.metadata(),
+                entry.captureGroupId(), entry.displayIndex(), entry.displayCount());
+    }
+
+    synchronized void removeScreenshot(ScreenshotEntry entry) {
+        deleteSpoolFile(spoolDirectory.resolve(entry.spoolFile()));
+    }
+
+    public long getPendingBytes() {
+        return journal.pendingBytes();
+    }
+
+    public synchronized long getSpooledBytes() {
+        return spooledBytes;
+    }
+
+    public synchronized long getDroppedCount() {
+        return journal.getDroppedRecords() + droppedScreenshots;
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    private void onDropped(OutboxRecord record) {
+        if (record.type() == TYPE_SCREENSHOT) {
+            try {
+                removeScreenshot(readScreenshot(record));
+            } catch (IOException e) {
+                logger.warn("Could not read dropped outbox screenshot record", e);
+            }
+        }
+    }
+
+    private void loadSpool() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spoolDirectory, "*.bin")) {
+            stream.forEach(files::add);
+        }
+        // Names start with the capture timestamp
+        files.sort(Comparator.comparing(path -> path.getFileName().toString()));
+        for (Path file : files) {
+            spooledFiles.addLast(file);
+            spooledBytes += Files.size(file);
+        }
+    }
+
+    private void deleteSpoolFile(Path spoolFile) {
+        if (!spooledFiles.remove(spoolFile)) {
+            return;
+        }
+        try {
+            long size = Files.size(spoolFile);
+            Files.deleteIfExists(spoolFile);
+            spooledBytes -= size;
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled screenshot {}", spoolFile, e);
+        }
+    }
+
+    record HeartbeatEntry(UUID sessionId, String activityStatus, long clientTimestamp,
+            @JsonInclude(JsonInclude.Include.NON_NULL) InteractionCounts intensity,
+            @JsonInclude(JsonInclude.Include.NON_NULL) List<WindowSpan> windowSpans,
+            @JsonInclude(JsonInclude.Include.NON_NULL) TelemetryReport telemetry) {
+    }
+
+    record ScreenshotEntry(UUID sessionId, String spoolFile, String contentType, String fileName,
+            String metadata, UUID captureGroupId, int displayIndex, int displayCount) {
+    }
+}
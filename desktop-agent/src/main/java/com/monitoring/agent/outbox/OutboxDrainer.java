@@ -0,0 +1,209 @@
+package com.monitoring.agent.outbox;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.monitoring.agent.client.BackendClient;
+import com.monitoring.agent.client.BackendResponseException;
+import com.monitoring.agent.model.ScreenshotData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Background thread that replays the {@link Outbox} to the backend in order.
+ *
+ * Consecutive heartbeats are sent together through the batch endpoint;
+ * screenshots are uploaded one at a time from the spool. A record is only
+ * acknowledged once the backend accepted it (or rejected it with a 4xx, in
+ * which case retrying would not help). A run may mix sessions, so when the
+ * backend rejects a batch its heartbeats are resent one at a time and only
+ * the ones rejected on their own are dropped. Network and server errors back off
+ * exponentially with jitter, so an offline agent does not hammer the backend
+ * when it comes back; a Retry-After from the backend extends the wait.
+ */
+public class OutboxDrainer {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDrainer.class);
+
+    private static final long INITIAL_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 5 * 60_000;
+    private static final long IDLE_WAIT_MILLIS = 30_000;
+    // The backend refuses larger batches
+    static final int MAX_BATCH_SIZE = 100;
+
+    private final Outbox outbox;
+    private final BackendClient backendClient;
+    private final int batchSize;
+    private final Object wakeup = new Object();
+
+    private volatile boolean running;
+    private boolean signalled;
+    // Records still to send one at a time after a rejected batch
+    private int sendSingly;
+    private Thread thread;
+
+    public OutboxDrainer(Outbox outbox, BackendClient backendClient, int batchSize) {
+        this.outbox = outbox;
+        this.backendClient = backendClient;
+        this.batchSize = Math.max(1, Math.min(MAX_BATCH_SIZE, batchSize));
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "outbox-drainer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    /**
+     * Wakes the drainer after something was appended. Has no effect while it is
+     * backing off after a failure.
+     */
+    public void signal() {
+        synchronized (wakeup) {
+            signalled = true;
+            wakeup.notifyAll();
+        }
+    }
+
+    private void run() {
+        long backoff = INITIAL_BACKOFF_MILLIS;
+
+        while (running) {
+            List<OutboxRecord> records = outbox.peek(batchSize);
+            if (records.isEmpty()) {
+                awaitSignal();
+                continue;
+            }
+
+            List<OutboxRecord> run = sendSingly > 0 ? records.subList(0, 1) : leadingRun(records);
+            try {
+                send(run);
+                outbox.acknowledge(run.get(run.size() - 1));
+                sendSingly = Math.max(0, sendSingly - 1);
+                backoff = INITIAL_BACKOFF_MILLIS;
+            } catch (BackendResponseException e) {
+                if (e.isClientError() && run.size() > 1) {
+                    logger.warn("Backend rejected {} queued heartbeats ({}), resending them one at a time",
+                            run.size(), e.getMessage());
+                    sendSingly = run.size();
+                } else if (e.isClientError()) {
+                    logger.warn("Backend rejected an outbox record, dropping it: {}", e.getMessage());
+                    sendSingly = Math.max(0, sendSingly - 1);
+                    discard(run);
+                    outbox.acknowledge(run.get(run.size() - 1));
+                } else {
+                    backoff = sleepAndBackOff(backoff, e);
+                }
+            } catch (IOException e) {
+                backoff = sleepAndBackOff(backoff, e);
+            }
+        }
+    }
+
+    /**
+     * Consecutive heartbeats from the head of the list, or just the first
+     * record if it is a screenshot.
+     */
+    private List<OutboxRecord> leadingRun(List<OutboxRecord> records) {
+        if (records.get(0).type() != Outbox.TYPE_HEARTBEAT) {
+            return records.subList(0, 1);
+        }
+        int end = 1;
+        while (end < records.size() && records.get(end).type() == Outbox.TYPE_HEARTBEAT) {
+            end++;
+        }
+        return records.subList(0, end);
+    }
+
+    private void send(List<OutboxRecord> run) throws IOException {
+        OutboxRecord first = run.get(0);
+        if (first.type() == Outbox.TYPE_HEARTBEAT) {
+            List<byte[]> entries = new ArrayList<>(run.size());
+            for (OutboxRecord record : run) {
+                entries.add(record.payload());
+            }
+            backendClient.logActivityBatch(entries);
+            logger.debug("Replayed {} queued heartbeats", run.size());
+        } else if (first.type() == Outbox.TYPE_SCREENSHOT) {
+            Outbox.ScreenshotEntry entry;
+            try {
+                entry = outbox.readScreenshot(first);
+            } catch (JacksonException e) {
+                logger.warn("Skipping unreadable outbox screenshot record", e);
+                return;
+            }
+            ScreenshotData screenshot = outbox.loadScreenshot(entry);
+            if (screenshot == null) {
+                logger.debug("Queued screenshot {} was dropped from the spool, skipping", entry.fileName());
+                return;
+            }
+            backendClient.uploadScreenshot(entry.sessionId(), screenshot, first.clientTimestamp());
+            outbox.removeScreenshot(entry);
+            logger.info("Replayed queued screenshot {}", entry.fileName());
+        } else {
+            logger.warn("Skipping outbox record of unknown type {}", first.type());
+        }
+    }
+
+    private void discard(List<OutboxRecord> run) {
+        for (OutboxRecord record : run) {
+            if (record.type() == Outbox.TYPE_SCREENSHOT) {
+                try {
+                    outbox.removeScreenshot(outbox.readScreenshot(record));
+                } catch (IOException e) {
+                    logger.warn("Could not read rejected outbox screenshot record", e);
+                }
+            }
+        }
+    }
+
+    private long sleepAndBackOff(long backoff, IOException cause) {
+        // Jitter: anywhere between half and all of the current backoff
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        if (cause instanceof BackendResponseException response && response.getRetryAfterMillis() > delay) {
+            // The backend is shedding load and said when to come back
+            delay = Math.min(MAX_BACKOFF_MILLIS, response.getRetryAfterMillis());
+        }
+        logger.warn("Outbox delivery failed ({}), retrying in {} ms", cause.getMessage(), delay);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+    }
+
+    private void awaitSignal() {
+        synchronized (wakeup) {
+            try {
+                if (!signalled) {
+                    wakeup.wait(IDLE_WAIT_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            signalled = false;
+        }
+    }
+}
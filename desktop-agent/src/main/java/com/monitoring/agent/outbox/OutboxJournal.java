@@ -0,0 +1,273 @@
+package com.monitoring.agent.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal stored in a fixed ring of memory-mapped segment files.
+ *
+ * Each segment starts with its sequence number, followed by records laid out
+ * as {@code [int length][byte type][long clientTimestamp][payload]}. A record's
+ * length is written last and is followed by a zero terminator, so a record
+ * torn by a crash is never visible to the reader. The read cursor
+ * (segment sequence + offset) lives in its own small mapped file.
+ *
+ * The ring bounds disk usage: when the writer needs a segment that still
+ * holds unread records, that oldest segment is dropped and the reader skips
+ * ahead. Segment files are mapped once and reused rather than deleted, which
+ * also avoids deleting mapped files on Windows.
+ */
+public class OutboxJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxJournal.class);
+
+    static final int SEGMENT_SIZE = 1 << 20;
+    static final int SEGMENT_COUNT = 8;
+
+    private static final int SEGMENT_HEADER = 16;
+    private static final int RECORD_HEADER = 4 + 1 + 8;
+    private static final int MAX_PAYLOAD = SEGMENT_SIZE / 4;
+
+    private final FileChannel[] channels = new FileChannel[SEGMENT_COUNT];
+    private final MappedByteBuffer[] segments = new MappedByteBuffer[SEGMENT_COUNT];
+    private final FileChannel cursorChannel;
+    private final MappedByteBuffer cursor;
+    private final Consumer<OutboxRecord> dropListener;
+
+    private int writeIndex;
+    private long writeSequence;
+    private int writePosition;
+
+    private long readSequence;
+    private int readPosition;
+
+    private long droppedRecords;
+
+    /**
+     * @param directory    Directory holding the segment and cursor files
+     * @param dropListener Called for every unread record lost to the disk
+     *                     budget, e.g. to delete spooled files it references
+     */
+    public OutboxJournal(Path directory, Consumer<OutboxRecord> dropListener) throws IOException {
+        this.dropListener = dropListener;
+        Files.createDirectories(directory);
+
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            channels[i] = FileChannel.open(directory.resolve(String.format("journal-%02d.dat", i)),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segments[i] = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        }
+        cursorChannel = FileChannel.open(directory.resolve("cursor.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        cursor = cursorChannel.map(FileChannel.MapMode.READ_WRITE, 0, 12);
+
+        recover();
+    }
+
+    /**
+     * Appends a record after the last one written.
+     */
+    public synchronized void append(byte type, long clientTimestamp, byte[] payload) {
+        if (payload.length > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Outbox record too large: " + payload.length + " bytes");
+        }
+
+        int recordSize = RECORD_HEADER + payload.length;
+        if (writePosition + recordSize + 4 > SEGMENT_SIZE) {
+            roll();
+        }
+
+        MappedByteBuffer segment = segments[writeIndex];
+        segment.put(writePosition + 4, type);
+        segment.putLong(writePosition + 5, clientTimestamp);
+        segment.put(writePosition + RECORD_HEADER, payload);
+        segment.putInt(writePosition + recordSize, 0);
+        // Publishing the length makes the record visible to the reader
+        segment.putInt(writePosition, recordSize - 4);
+        writePosition += recordSize;
+    }
+
+    /**
+     * Returns up to {@code max} unread records in append order without
+     * consuming them.
+     */
+    public synchronized List<OutboxRecord> peek(int max) {
+        List<OutboxRecord> records = new ArrayList<>(Math.min(max, 64));
+        long sequence = readSequence;
+        int position = readPosition;
+
+        while (records.size() < max) {
+            int index = indexOf(sequence);
+            if (index < 0) {
+                break;
+            }
+            OutboxRecord record = readAt(index, sequence, position);
+            if (record == null) {
+                if (sequence < writeSequence) {
+                    sequence++;
+                    position = SEGMENT_HEADER;
+                    continue;
+                }
+                break;
+            }
+            records.add(record);
+            position = record.nextPosition();
+        }
+        return records;
+    }
+
+    /**
+     * Marks every record up to and including {@code record} as delivered.
+     */
+    public synchronized void acknowledge(OutboxRecord record) {
+        readSequence = record.sequence();
+        readPosition = record.nextPosition();
+        writeCursor();
+    }
+
+    /**
+     * Approximate number of unread bytes, including record headers.
+     */
+    public synchronized long pendingBytes() {
+        if (readSequence == writeSequence) {
+            return Math.max(0, writePosition - readPosition);
+        }
+        return (SEGMENT_SIZE - readPosition)
+                + (writeSequence - readSequence - 1) * (long) (SEGMENT_SIZE - SEGMENT_HEADER)
+                + (writePosition - SEGMENT_HEADER);
+    }
+
+    public synchronized long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i].force();
+            channels[i].close();
+        }
+        cursor.force();
+        cursorChannel.close();
+    }
+
+    private void roll() {
+        int nextIndex = (writeIndex + 1) % SEGMENT_COUNT;
+        long nextSequence = writeSequence + 1;
+        MappedByteBuffer next = segments[nextIndex];
+
+        long oldSequence = next.getLong(0);
+        if (oldSequence != 0 && oldSequence >= readSequence) {
+            dropSegment(nextIndex, oldSequence);
+        }
+
+        segments[writeIndex].force();
+        next.putInt(SEGMENT_HEADER, 0);
+        next.putLong(0, nextSequence);
+        writeIndex = nextIndex;
+        writeSequence = nextSequence;
+        writePosition = SEGMENT_HEADER;
+    }
+
+    private void dropSegment(int index, long sequence) {
+        int position = sequence == readSequence ? readPosition : SEGMENT_HEADER;
+        int dropped = 0;
+        OutboxRecord record;
+        while ((record = readAt(index, sequence, position)) != null) {
+            dropListener.accept(record);
+            position = record.nextPosition();
+            dropped++;
+        }
+
+        droppedRecords += dropped;
+        readSequence = sequence + 1;
+        readPosition = SEGMENT_HEADER;
+        writeCursor();
+
+        if (dropped > 0) {
+            logger.warn("Outbox disk budget exhausted, dropped {} undelivered records", dropped);
+        }
+    }
+
+    private OutboxRecord readAt(int index, long sequence, int position) {
+        if (position + 4 > SEGMENT_SIZE) {
+            return null;
+        }
+        MappedByteBuffer segment = segments[index];
+        int length = segment.getInt(position);
+        if (length < RECORD_HEADER - 4 || position + 4 + length > SEGMENT_SIZE) {
+            return null;
+        }
+
+        byte type = segment.get(position + 4);
+        long clientTimestamp = segment.getLong(position + 5);
+        byte[] payload = new byte[length - (RECORD_HEADER - 4)];
+        segment.get(position + RECORD_HEADER, payload);
+        return new OutboxRecord(type, clientTimestamp, payload, sequence, position + 4 + length);
+    }
+
+    private int indexOf(long sequence) {
+        if (sequence > writeSequence || sequence <= writeSequence - SEGMENT_COUNT) {
+            return -1;
+        }
+        int index = Math.floorMod(writeIndex - (int) (writeSequence - sequence), SEGMENT_COUNT);
+        return segments[index].getLong(0) == sequence ? index : -1;
+    }
+
+    private void recover() {
+        long newest = 0;
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            long sequence = segments[i].getLong(0);
+            if (sequence > newest) {
+                newest = sequence;
+                writeIndex = i;
+            }
+            if (sequence != 0 && sequence < oldest) {
+                oldest = sequence;
+            }
+        }
+
+        if (newest == 0) {
+            // Fresh journal
+            writeIndex = 0;
+            writeSequence = 1;
+            writePosition = SEGMENT_HEADER;
+            segments[0].putInt(SEGMENT_HEADER, 0);
+            segments[0].putLong(0, 1);
+            oldest = 1;
+        } else {
+            writeSequence = newest;
+            writePosition = SEGMENT_HEADER;
+            OutboxRecord record;
+            while ((record = readAt(writeIndex, writeSequence, writePosition)) != null) {
+                writePosition = record.nextPosition();
+            }
+        }
+
+        readSequence = cursor.getLong(0);
+        readPosition = cursor.getInt(8);
+        if (readSequence < oldest || readSequence > writeSequence || readPosition < SEGMENT_HEADER) {
+            readSequence = oldest;
+            readPosition = SEGMENT_HEADER;
+            writeCursor();
+        }
+
+        logger.info("Outbox journal opened: segment {}, {} bytes pending", writeSequence, pendingBytes());
+    }
+
+    private void writeCursor() {
+        cursor.putLong(0, readSequence);
+        cursor.putInt(8, readPosition);
+    }
+}
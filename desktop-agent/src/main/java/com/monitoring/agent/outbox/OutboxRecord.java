@@ -0,0 +1,8 @@
+package com.monitoring.agent.outbox;
+
+/**
+ * A record read from the {@link OutboxJournal}, along with the journal
+ * position just past it (used to acknowledge delivery).
+ */
+public record OutboxRecord(byte type, long clientTimestamp, byte[] payload, long sequence, int nextPosition) {
+}
@@ -0,0 +1,124 @@
+package com.monitoring.agent.telemetry;
+
+import com.monitoring.agent.model.TelemetryReport;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The agent's measurements of its own cost: CPU spent capturing screenshots,
+ * process CPU and heap, input event rate, HTTP latency and bytes per lane,
+ * and outbox size. Values go into {@link TelemetryHistogram}s that are
+ * drained into a {@link TelemetryReport} every report interval and sent with
+ * the next heartbeat, so the backend can show percentiles across the fleet.
+ */
+public class AgentTelemetry {
+    public static final String CAPTURE_CPU = "capture.cpu.us";
+    public static final String PROCESS_CPU = "process.cpu.permille";
+    public static final String HEAP_USED = "heap.used.bytes";
+    public static final String INPUT_EVENTS = "input.events.per.min";
+    public static final String OUTBOX_SIZE = "outbox.bytes";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final Map<String, TelemetryHistogram> histograms = new ConcurrentHashMap<>();
+    private final long reportIntervalMillis;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final com.sun.management.OperatingSystemMXBean os;
+
+    // Guarded by this
+    private long lastSampleNanos = System.nanoTime();
+    private long lastProcessCpuNanos;
+    private long lastReportMillis = System.currentTimeMillis();
+
+    /**
+     * @param reportIntervalMillis How often a report is attached to a
+     *                             heartbeat; 0 turns telemetry off
+     */
+    public AgentTelemetry(long reportIntervalMillis) {
+        this.reportIntervalMillis = reportIntervalMillis;
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        this.os = bean instanceof com.sun.management.OperatingSystemMXBean sun ? sun : null;
+        this.lastProcessCpuNanos = processCpuNanos();
+    }
+
+    public static String httpLatency(String lane) {
+        return "http." + lane + ".ms";
+    }
+
+    public static String httpBytes(String lane) {
+        return "http." + lane + ".bytes";
+    }
+
+    public boolean isEnabled() {
+        return reportIntervalMillis > 0;
+    }
+
+    public void record(String metric, long value) {
+        if (isEnabled()) {
+            histograms.computeIfAbsent(metric, name -> new TelemetryHistogram()).record(value);
+        }
+    }
+
+    /**
+     * CPU time of the calling thread in nanoseconds, or -1 where the JVM
+     * can't measure it.
+     */
+    public static long currentThreadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * Records the periodic measurements; called once per heartbeat.
+     *
+     * @param outboxBytes Journal plus spooled screenshots waiting for delivery
+     * @param inputEvents Keyboard and mouse events since the previous call
+     */
+    public synchronized void sample(long outboxBytes, long inputEvents) {
+        if (!isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long elapsed = now - lastSampleNanos;
+        lastSampleNanos = now;
+
+        long processCpu = processCpuNanos();
+        if (elapsed > 0 && processCpu >= 0 && lastProcessCpuNanos >= 0) {
+            // 1000 = one core fully busy
+            record(PROCESS_CPU, (processCpu - lastProcessCpuNanos) * 1000 / elapsed);
+            record(INPUT_EVENTS, inputEvents * 60_000_000_000L / elapsed);
+        }
+        lastProcessCpuNanos = processCpu;
+        record(HEAP_USED, memory.getHeapMemoryUsage().getUsed());
+        record(OUTBOX_SIZE, outboxBytes);
+    }
+
+    /**
+     * Drains the histograms into a report once the report interval has
+     * passed; null before that, or if nothing was recorded.
+     */
+    public synchronized TelemetryReport pollReport(long nowMillis) {
+        if (!isEnabled() || nowMillis - lastReportMillis < reportIntervalMillis) {
+            return null;
+        }
+        lastReportMillis = nowMillis;
+        Map<String, TelemetryReport.Histogram> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<String, TelemetryHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            TelemetryReport.Histogram snapshot = entry.getValue().snapshotAndReset();
+            if (snapshot != null) {
+                snapshots.put(entry.getKey(), snapshot);
+            }
+        }
+        return snapshots.isEmpty() ? null : new TelemetryReport(snapshots);
+    }
+
+    private long processCpuNanos() {
+        return os != null ? os.getProcessCpuTime() : -1;
+    }
+}
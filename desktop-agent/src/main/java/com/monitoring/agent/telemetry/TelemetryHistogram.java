@@ -0,0 +1,64 @@
+package com.monitoring.agent.telemetry;
+
+import com.monitoring.agent.model.TelemetryReport;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Log-linear histogram of non-negative values, small enough to send with a
+ * heartbeat: each power of two is split into four equal buckets, so bucket
+ * {@code 4 * o + q} holds {@code [2^o * (4 + q) / 4, 2^o * (5 + q) / 4)} and a
+ * percentile read from it is within 25% of the true value. 0 and 1 share
+ * bucket 0. Only non-empty buckets are sent; the backend merges the same
+ * buckets across agents.
+ */
+public class TelemetryHistogram {
+    static final int SUB_BUCKETS = 4;
+    static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    public synchronized void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[bucketOf(clamped)]++;
+        count++;
+        sum += clamped;
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * The values recorded since the last call, or null if there were none.
+     */
+    synchronized TelemetryReport.Histogram snapshotAndReset() {
+        if (count == 0) {
+            return null;
+        }
+        Map<Integer, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                buckets.put(i, counts[i]);
+                counts[i] = 0;
+            }
+        }
+        TelemetryReport.Histogram snapshot = new TelemetryReport.Histogram(count, sum, max, buckets);
+        count = 0;
+        sum = 0;
+        max = 0;
+        return snapshot;
+    }
+
+    static int bucketOf(long value) {
+        if (value <= 1) {
+            return 0;
+        }
+        // Whole octaves from the highest bit, quarter octaves from the next two
+        int octave = 63 - Long.numberOfLeadingZeros(value);
+        int quarter = octave >= 2 ? (int) (value >>> (octave - 2)) & 3
+                : (int) (value << (2 - octave)) & 3;
+        return octave * SUB_BUCKETS + quarter;
+    }
+}
@@ -2,6 +2,7 @@ package com.monitoring.agent.ui;
 
 import com.monitoring.agent.MonitoringAgent;
 import com.monitoring.agent.client.BackendClient;
+import com.monitoring.agent.client.BackendResponseException;
 import com.monitoring.agent.model.AuthResponse;
 import com.monitoring.agent.model.LoginRequest;
 import javafx.application.Platform;
@@ -152,6 +153,9 @@ public class LoginUI {
             } catch (Exception e) {
                 Platform.runLater(() -> {
                     logger.error("Login failed", e);
+                    if (e instanceof BackendResponseException response && response.getStatusCode() == 401) {
+                        agent.onLoginRejected(userId);
+                    }
                     showError("Login failed: Invalid user ID or password");
                     loginButton.setDisable(false);
                     loginButton.setText("Login");
@@ -0,0 +1,132 @@
+package com.monitoring.agent.monitor;
+
+import com.monitoring.agent.model.WindowSpan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ActiveWindowTrackerTest {
+    private static final long SAMPLE_MILLIS = 5_000;
+    private static final long FLUSH_MILLIS = 60_000;
+
+    private static final ActiveWindow EDITOR = new ActiveWindow("code", "Main.java", 100);
+    private static final ActiveWindow BROWSER = new ActiveWindow("firefox", "Docs", 200);
+
+    private FakeWindowCollector collector;
+    private ActivityMonitor activityMonitor;
+    private ActiveWindowTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        collector = new FakeWindowCollector(EDITOR);
+        activityMonitor = new ActivityMonitor(300);
+        tracker = new ActiveWindowTracker(collector, activityMonitor, SAMPLE_MILLIS, FLUSH_MILLIS);
+    }
+
+    @Test
+    void samplesOfTheSameWindowExtendOneSpan() {
+        pollEverySecond(0, FLUSH_MILLIS);
+
+        assertEquals(List.of(new WindowSpan("code", "Main.java", 0, FLUSH_MILLIS)), tracker.takeSpans(FLUSH_MILLIS));
+        assertEquals(0, activityMonitor.takeInteractionCounts().windowSwitches());
+    }
+
+    @Test
+    void switchingWindowsEndsTheSpan() {
+        pollEverySecond(0, 10_000);
+        collector.show(BROWSER);
+        pollEverySecond(10_000, FLUSH_MILLIS);
+
+        assertEquals(List.of(
+                new WindowSpan("code", "Main.java", 0, 10_000),
+                new WindowSpan("firefox", "Docs", 10_000, FLUSH_MILLIS)), tracker.takeSpans(FLUSH_MILLIS));
+        assertEquals(1, activityMonitor.takeInteractionCounts().windowSwitches());
+    }
+
+    @Test
+    void equalWindowUnderNewHandleKeepsTheSpan() {
+        pollEverySecond(0, 10_000);
+        // Another window of the same app and title, e.g. a second editor window
+        collector.show(new ActiveWindow("code", "Main.java", 100));
+        pollEverySecond(10_000, FLUSH_MILLIS);
+
+        assertEquals(List.of(new WindowSpan("code", "Main.java", 0, FLUSH_MILLIS)), tracker.takeSpans(FLUSH_MILLIS));
+        assertEquals(1, activityMonitor.takeInteractionCounts().windowSwitches());
+    }
+
+    @Test
+    void noWindowEndsTheSpan() {
+        pollEverySecond(0, 10_000);
+        collector.show(null);
+        pollEverySecond(10_000, 20_000);
+        collector.show(EDITOR);
+        pollEverySecond(20_000, FLUSH_MILLIS);
+
+        assertEquals(List.of(
+                new WindowSpan("code", "Main.java", 0, 10_000),
+                new WindowSpan("code", "Main.java", 20_000, FLUSH_MILLIS)), tracker.takeSpans(FLUSH_MILLIS));
+    }
+
+    @Test
+    void takeSpansWaitsForTheFlushInterval() {
+        pollEverySecond(0, 10_000);
+        collector.show(BROWSER);
+        pollEverySecond(10_000, 30_000);
+
+        assertNull(tracker.takeSpans(30_000));
+    }
+
+    @Test
+    void takeSpansCutsTheOpenSpan() {
+        pollEverySecond(0, FLUSH_MILLIS);
+        tracker.takeSpans(FLUSH_MILLIS);
+        pollEverySecond(FLUSH_MILLIS, 2 * FLUSH_MILLIS);
+
+        assertEquals(List.of(new WindowSpan("code", "Main.java", FLUSH_MILLIS, 2 * FLUSH_MILLIS)),
+                tracker.takeSpans(2 * FLUSH_MILLIS));
+    }
+
+    @Test
+    void closeEndsTheOpenSpan() {
+        pollEverySecond(0, 10_000);
+        tracker.close(10_000);
+
+        assertEquals(List.of(new WindowSpan("code", "Main.java", 0, 10_000)), tracker.takeSpans(FLUSH_MILLIS));
+    }
+
+    @Test
+    void resetDropsSpansNotYetTaken() {
+        pollEverySecond(0, 10_000);
+        collector.show(BROWSER);
+        pollEverySecond(10_000, 20_000);
+        tracker.reset(20_000);
+        pollEverySecond(20_000, 20_000 + FLUSH_MILLIS);
+
+        assertEquals(List.of(new WindowSpan("firefox", "Docs", 20_000, 20_000 + FLUSH_MILLIS)),
+                tracker.takeSpans(20_000 + FLUSH_MILLIS));
+    }
+
+    @Test
+    void longTitlesAreTruncated() {
+        collector.show(new ActiveWindow("code", "x".repeat(1000), 100));
+        pollEverySecond(0, FLUSH_MILLIS);
+
+        List<WindowSpan> spans = tracker.takeSpans(FLUSH_MILLIS);
+        assertEquals(1, spans.size());
+        assertEquals(ActiveWindowTracker.MAX_TITLE_LENGTH, spans.get(0).title().length());
+    }
+
+    /**
+     * Polls as the scheduler does, from {@code from} up to but not including
+     * {@code to}.
+     */
+    private void pollEverySecond(long from, long to) {
+        for (long now = from; now < to; now += 1_000) {
+            tracker.poll(now);
+        }
+    }
+}
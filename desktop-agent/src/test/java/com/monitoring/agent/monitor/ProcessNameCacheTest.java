@@ -0,0 +1,66 @@
+package com.monitoring.agent.monitor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProcessNameCacheTest {
+    private final List<Long> resolved = new ArrayList<>();
+    private long now;
+    private ProcessNameCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProcessNameCache(pid -> {
+            resolved.add(pid);
+            return "process-" + pid;
+        }, () -> now);
+    }
+
+    @Test
+    void resolvesEachProcessOnce() {
+        assertEquals("process-1", cache.get(1));
+        assertEquals("process-1", cache.get(1));
+        assertEquals("process-2", cache.get(2));
+
+        assertEquals(List.of(1L, 2L), resolved);
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        cache.get(1);
+        now += ProcessNameCache.TTL_NANOS;
+        cache.get(1);
+        assertEquals(List.of(1L), resolved);
+
+        now += 1;
+        cache.get(1);
+        assertEquals(List.of(1L, 1L), resolved);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedProcess() {
+        for (long pid = 1; pid <= ProcessNameCache.CAPACITY; pid++) {
+            cache.get(pid);
+        }
+        // Using 1 again makes 2 the least recently used
+        cache.get(1);
+        cache.get(ProcessNameCache.CAPACITY + 1);
+        resolved.clear();
+
+        cache.get(1);
+        cache.get(3);
+        assertEquals(List.of(), resolved);
+        cache.get(2);
+        assertEquals(List.of(2L), resolved);
+    }
+
+    @Test
+    void unknownProcessResolvesToUnknown() {
+        assertEquals(ProcessNameCache.UNKNOWN, ProcessNameCache.resolve(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,60 @@
+package com.monitoring.agent.monitor;
+
+import com.sun.jna.Memory;
+import com.sun.jna.NativeLong;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class X11PropertiesTest {
+
+    @Test
+    void decodesTheFirstCardinal() {
+        Memory data = new Memory(2L * NativeLong.SIZE);
+        data.setNativeLong(0, new NativeLong(0x3a00007));
+        data.setNativeLong(NativeLong.SIZE, new NativeLong(42));
+
+        assertEquals(0x3a00007, X11Properties.decodeCardinal(data, 32, 2));
+    }
+
+    @Test
+    void cardinalIsZeroWithoutItemsOrInAnotherFormat() {
+        Memory data = new Memory(NativeLong.SIZE);
+        data.setNativeLong(0, new NativeLong(1234));
+
+        assertEquals(0, X11Properties.decodeCardinal(data, 32, 0));
+        assertEquals(0, X11Properties.decodeCardinal(data, 8, 1));
+    }
+
+    @Test
+    void decodesUtf8Titles() {
+        byte[] title = "Résumé — Editor".getBytes(StandardCharsets.UTF_8);
+        Memory data = bytes(title);
+
+        assertEquals("Résumé — Editor", X11Properties.decodeText(data, 8, title.length, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decodesLatin1Titles() {
+        byte[] title = "Café".getBytes(StandardCharsets.ISO_8859_1);
+        Memory data = bytes(title);
+
+        assertEquals("Café", X11Properties.decodeText(data, 8, title.length, StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void textIsNullInAnotherFormat() {
+        Memory data = bytes(new byte[] { 'a', 'b', 'c', 'd' });
+
+        assertNull(X11Properties.decodeText(data, 32, 1, StandardCharsets.UTF_8));
+    }
+
+    private static Memory bytes(byte[] bytes) {
+        Memory data = new Memory(bytes.length);
+        data.write(0, bytes, 0, bytes.length);
+        return data;
+    }
+}